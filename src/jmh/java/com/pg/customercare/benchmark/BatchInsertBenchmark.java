@@ -0,0 +1,132 @@
+package com.pg.customercare.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.pg.customercare.model.IdGenerators;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+
+/**
+ * Multi-row insert throughput with IDENTITY ids, which disable JDBC batching,
+ * against the pooled table generator the entities now use.
+ *
+ * Runs on in-memory H2 by default. The round trips saved are far larger on a
+ * real server: pass -Dbench.jdbc.url, -Dbench.jdbc.user and -Dbench.jdbc.password
+ * (with rewriteBatchedStatements=true on MySQL) to measure against one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BatchInsertBenchmark {
+
+    @Param({ "IDENTITY", "TABLE" })
+    public String idStrategy;
+
+    @Param({ "20", "200" })
+    public int rows;
+
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(IdentityRow.class)
+                .addAnnotatedClass(PooledRow.class)
+                .setProperty("hibernate.connection.url",
+                        System.getProperty("bench.jdbc.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1"))
+                .setProperty("hibernate.connection.username", System.getProperty("bench.jdbc.user", "sa"))
+                .setProperty("hibernate.connection.password", System.getProperty("bench.jdbc.password", ""))
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo")
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .buildSessionFactory();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearRows() {
+        sessionFactory.inTransaction(session -> {
+            session.createMutationQuery("DELETE FROM IdentityRow").executeUpdate();
+            session.createMutationQuery("DELETE FROM PooledRow").executeUpdate();
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public int insertRows() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < rows; i++) {
+                session.persist("IDENTITY".equals(idStrategy)
+                        ? new IdentityRow("file-" + i + ".log", "/blobs/" + i)
+                        : new PooledRow("file-" + i + ".log", "/blobs/" + i));
+            }
+            session.getTransaction().commit();
+        }
+        return rows;
+    }
+
+    // Same shape as TicketFiles, once per id strategy
+
+    @Entity(name = "IdentityRow")
+    @Table(name = "bench_identity_row")
+    public static class IdentityRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        private String fileName;
+        private String filePath;
+
+        protected IdentityRow() {
+        }
+
+        IdentityRow(String fileName, String filePath) {
+            this.fileName = fileName;
+            this.filePath = filePath;
+        }
+    }
+
+    @Entity(name = "PooledRow")
+    @Table(name = "bench_pooled_row")
+    public static class PooledRow {
+        @Id
+        @GeneratedValue(strategy = GenerationType.TABLE, generator = "bench_pooled_row_id")
+        @TableGenerator(name = "bench_pooled_row_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+                valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "bench_pooled_row",
+                allocationSize = IdGenerators.ALLOCATION_SIZE)
+        private Long id;
+        private String fileName;
+        private String filePath;
+
+        protected PooledRow() {
+        }
+
+        PooledRow(String fileName, String filePath) {
+            this.fileName = fileName;
+            this.filePath = filePath;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.pg.customercare.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.util.ReflectionUtils;
+
+import com.pg.customercare.util.JwtUtil;
+
+/**
+ * Wiring shared by the benchmarks. The beans are built by hand so a run
+ * measures the code under test instead of the Spring context.
+ */
+final class BenchmarkSupport {
+
+    static final String SECRET = "customercareproject1234567890securekey";
+    static final long EXPIRATION = 86_400_000L;
+
+    private BenchmarkSupport() {
+    }
+
+    static JwtUtil jwtUtil(long claimsCacheMaxSize, boolean statelessAuthorities) {
+        JwtUtil jwtUtil = new JwtUtil();
+        setField(jwtUtil, "jwtSecret", SECRET);
+        setField(jwtUtil, "jwtExpiration", EXPIRATION);
+        setField(jwtUtil, "claimsCacheMaxSize", claimsCacheMaxSize);
+        setField(jwtUtil, "statelessAuthorities", statelessAuthorities);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    // Injects a private field, as Spring does for @Value and field @Autowired
+    static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        if (field == null) {
+            throw new IllegalArgumentException("No field " + name + " on " + target.getClass().getName());
+        }
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    // In-memory stand-in for a repository: only the listed methods are implemented
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Function<Object[], Object> implementation = methods.get(method.getName());
+            if (implementation == null) {
+                throw new UnsupportedOperationException(method.getName() + " is not stubbed");
+            }
+            return implementation.apply(args);
+        });
+    }
+}
@@ -0,0 +1,103 @@
+package com.pg.customercare.benchmark;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.pg.customercare.model.Role;
+import com.pg.customercare.model.User;
+import com.pg.customercare.repository.RoleRepository;
+import com.pg.customercare.repository.UserRepository;
+import com.pg.customercare.security.JwtAuthenticationFilter;
+import com.pg.customercare.security.RoleVersionRegistry;
+import com.pg.customercare.service.UserService;
+import com.pg.customercare.util.JwtUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+
+/**
+ * Per-request cost of JwtAuthenticationFilter with the repositories replaced
+ * by in-memory stubs, so the numbers exclude database round trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String USERNAME = "admin@customercare.com";
+
+    @Param({ "false", "true" })
+    public boolean statelessAuthorities;
+
+    @Param({ "true", "false" })
+    public boolean userCache;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        Role role = new Role(1L, "ADMIN", new HashSet<>(), new HashSet<>(), 0L);
+        User user = new User();
+        user.setEmail(USERNAME);
+        user.setPassword("{noop}admin");
+        user.setRole(role);
+
+        UserRepository userRepository = BenchmarkSupport.stub(UserRepository.class,
+                Map.of("findByEmail", args -> USERNAME.equals(args[0]) ? user : null,
+                        "findRoleIdByEmail", args -> Optional.ofNullable(USERNAME.equals(args[0]) ? role.getId() : null)));
+        RoleRepository roleRepository = BenchmarkSupport.stub(RoleRepository.class,
+                Map.of("findPermissionsVersionById", args -> Optional.of(role.getPermissionsVersion())));
+
+        JwtUtil jwtUtil = BenchmarkSupport.jwtUtil(10_000, statelessAuthorities);
+
+        RoleVersionRegistry roleVersionRegistry = new RoleVersionRegistry(roleRepository, userRepository);
+        BenchmarkSupport.setField(roleVersionRegistry, "refreshInterval", Duration.ofSeconds(30));
+        roleVersionRegistry.init();
+
+        UserService userService = new UserService();
+        BenchmarkSupport.setField(userService, "userRepository", userRepository);
+        BenchmarkSupport.setField(userService, "meterRegistry", new SimpleMeterRegistry());
+        BenchmarkSupport.setField(userService, "userCacheMaxSize", userCache ? 10_000L : 0L);
+        BenchmarkSupport.setField(userService, "userCacheTtl", Duration.ofMinutes(5));
+        BenchmarkSupport.setField(userService, "roleVersionRegistry", roleVersionRegistry);
+        userService.init();
+
+        filter = new JwtAuthenticationFilter();
+        BenchmarkSupport.setField(filter, "jwtUtil", jwtUtil);
+        BenchmarkSupport.setField(filter, "userService", userService);
+        BenchmarkSupport.setField(filter, "roleVersionRegistry", roleVersionRegistry);
+
+        authorization = "Bearer " + jwtUtil.generateToken(USERNAME, role);
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tickets");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
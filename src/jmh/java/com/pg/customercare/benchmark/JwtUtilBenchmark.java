@@ -0,0 +1,64 @@
+package com.pg.customercare.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.pg.customercare.model.Role;
+import com.pg.customercare.util.JwtUtil;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Cost of issuing and verifying tokens. With claimsCache=false every call
+ * verifies the signature, which is what a cache miss costs per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilBenchmark {
+
+    private static final String USERNAME = "admin@customercare.com";
+
+    @Param({ "true", "false" })
+    public boolean claimsCache;
+
+    @Param({ "false", "true" })
+    public boolean statelessAuthorities;
+
+    private JwtUtil jwtUtil;
+    private Role role;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = BenchmarkSupport.jwtUtil(claimsCache ? 10_000 : 0, statelessAuthorities);
+        role = new Role();
+        role.setId(1L);
+        role.setName("ADMIN");
+        role.setPermissionsVersion(3L);
+        token = jwtUtil.generateToken(USERNAME, role);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(USERNAME, role);
+    }
+
+    @Benchmark
+    public Claims extractClaims() {
+        return jwtUtil.extractClaims(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token, USERNAME);
+    }
+}
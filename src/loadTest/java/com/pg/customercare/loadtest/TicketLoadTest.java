@@ -0,0 +1,225 @@
+package com.pg.customercare.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load test of the ticket endpoints of a running instance.
+ *
+ * Every client sends requests back to back for the length of a scenario; the
+ * requests of the warm-up are not counted. To compare the thread modes, start
+ * the application with spring.threads.virtual.enabled=false and run with
+ * -PloadTest.label=platform, then restart it with true and run with
+ * -PloadTest.label=virtual. Both runs are appended to the results file.
+ *
+ * The create scenario inserts real tickets with a small attachment, so point
+ * it at a disposable database.
+ *
+ * Options, passed to Gradle as -PloadTest.name=value:
+ * baseUrl (http://localhost:8080), email, password, customerId (1),
+ * clients (200), warmup (PT10S), duration (PT30S), scenarios (create,list),
+ * label (unlabelled) and resultsFile.
+ */
+public class TicketLoadTest {
+
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String BOUNDARY = "----customercare-load-test";
+    private static final byte[] ATTACHMENT = "load test attachment\n".repeat(50).getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = option("baseUrl", "http://localhost:8080");
+        String email = option("email", null);
+        String password = option("password", null);
+        String customerId = option("customerId", "1");
+        int clients = Integer.parseInt(option("clients", "200"));
+        Duration warmup = Duration.parse(option("warmup", "PT10S"));
+        Duration duration = Duration.parse(option("duration", "PT30S"));
+        String label = option("label", "unlabelled");
+        String resultsFile = option("resultsFile", null);
+
+        if (email == null || password == null) {
+            throw new IllegalArgumentException("loadTest.email and loadTest.password are required");
+        }
+
+        // The client side runs on virtual threads in both modes, so it is never the bottleneck
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String token = login(client, baseUrl, email, password);
+
+        List<Result> results = new ArrayList<>();
+        for (String scenario : option("scenarios", "create,list").split(",")) {
+            Supplier<HttpRequest> request = switch (scenario.trim()) {
+                case "create" -> () -> createTicketRequest(baseUrl, token, customerId);
+                case "list" -> () -> listTicketsRequest(baseUrl, token);
+                default -> throw new IllegalArgumentException("Unknown scenario: " + scenario);
+            };
+            Result result = run(client, scenario.trim(), request, clients, warmup, duration);
+            System.out.println(result.describe(label));
+            results.add(result);
+        }
+
+        if (resultsFile != null) {
+            appendResults(Path.of(resultsFile), label, results);
+        }
+    }
+
+    // auxiliary methods
+    private static Result run(HttpClient client, String scenario, Supplier<HttpRequest> request, int clients,
+            Duration warmup, Duration duration) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        LongAdder errors = new LongAdder();
+
+        List<Future<List<Long>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    long sentAt;
+                    while ((sentAt = System.nanoTime()) < end) {
+                        boolean succeeded;
+                        try {
+                            HttpResponse<Void> response = client.send(request.get(), HttpResponse.BodyHandlers.discarding());
+                            succeeded = response.statusCode() < 300;
+                        } catch (IOException e) {
+                            succeeded = false;
+                        }
+                        long latency = System.nanoTime() - sentAt;
+                        if (sentAt >= measureFrom) {
+                            if (succeeded) {
+                                latencies.add(latency);
+                            } else {
+                                errors.increment();
+                            }
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+        }
+
+        List<Long> latencies = new ArrayList<>();
+        for (Future<List<Long>> future : futures) {
+            latencies.addAll(future.get());
+        }
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(scenario, clients, sorted.length, errors.sum(),
+                sorted.length / (duration.toNanos() / 1e9),
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 1.0));
+    }
+
+    private static String login(HttpClient client, String baseUrl, String email, String password)
+            throws IOException, InterruptedException {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN_PATTERN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode() + ": " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static HttpRequest createTicketRequest(String baseUrl, String token, String customerId) {
+        StringBuilder fields = new StringBuilder();
+        appendField(fields, "contactName", "Load Test");
+        appendField(fields, "subject", "Load test ticket");
+        appendField(fields, "description", "Created by TicketLoadTest");
+        appendField(fields, "classification", "QUESTION");
+        appendField(fields, "priority", "LOW");
+        appendField(fields, "openingDate", LocalDate.now().toString());
+        appendField(fields, "customer.id", customerId);
+        fields.append("--").append(BOUNDARY).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"file\"; filename=\"load-test.txt\"\r\n")
+                .append("Content-Type: text/plain\r\n\r\n");
+
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/tickets"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(
+                        fields.toString().getBytes(StandardCharsets.UTF_8),
+                        ATTACHMENT,
+                        ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8))))
+                .build();
+    }
+
+    private static HttpRequest listTicketsRequest(String baseUrl, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/tickets?size=20"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private static void appendField(StringBuilder body, String name, String value) {
+        body.append("--").append(BOUNDARY).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"").append(name).append("\"\r\n\r\n")
+                .append(value).append("\r\n");
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = Math.max(0, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[index] / 1e6;
+    }
+
+    private static void appendResults(Path file, String label, List<Result> results) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        StringBuilder lines = new StringBuilder();
+        if (!Files.exists(file)) {
+            lines.append("timestamp,label,scenario,clients,requests,errors,throughput,p50_ms,p99_ms,max_ms\n");
+        }
+        Instant now = Instant.now();
+        for (Result result : results) {
+            lines.append(now).append(',').append(label).append(',').append(result.toCsv()).append('\n');
+        }
+        Files.writeString(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        System.out.println("Results appended to " + file);
+    }
+
+    private static String option(String name, String defaultValue) {
+        String value = System.getProperty("loadTest." + name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private record Result(String scenario, int clients, long requests, long errors, double throughput,
+            double p50Millis, double p99Millis, double maxMillis) {
+
+        String describe(String label) {
+            return String.format(Locale.ROOT,
+                    "[%s] %-6s clients=%d requests=%d errors=%d throughput=%.1f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms",
+                    label, scenario, clients, requests, errors, throughput, p50Millis, p99Millis, maxMillis);
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.2f,%.2f,%.2f",
+                    scenario, clients, requests, errors, throughput, p50Millis, p99Millis, maxMillis);
+        }
+    }
+}
@@ -55,7 +55,7 @@ public class DatabaseInitializer implements CommandLineRunner {
             permissionRepository.save(writePermission);
 
             // Criar role e associar permissões
-            Role adminRole = new Role(null, "ADMIN", new HashSet<>(), new HashSet<>());
+            Role adminRole = new Role(null, "ADMIN", new HashSet<>(), new HashSet<>(), 0L);
             adminRole.getPermissions().add(readPermission);
             adminRole.getPermissions().add(writePermission);
             roleRepository.save(adminRole);
@@ -0,0 +1,69 @@
+package com.pg.customercare.config;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.pg.customercare.model.IdGenerators;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Moves every id generator row past the highest id already stored in its table.
+ *
+ * Rows created with IDENTITY keep their ids; new rows continue after them. It
+ * runs once the EntityManagerFactory has updated the schema and before the web
+ * server or the DatabaseInitializer can insert anything.
+ */
+@Component
+public class IdGeneratorInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+
+    // Generator row (pkColumnValue) is the name of the table whose ids it hands out
+    private static final List<String> TABLES = List.of(
+            "person", "address", "ticket", "ticket_files", "files",
+            "role", "permission", "position_salary", "app_user", "attachment_outbox");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // The EntityManagerFactory is only injected so the schema exists before init runs
+    public IdGeneratorInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        for (String table : TABLES) {
+            long nextId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+            seed(table, nextId);
+        }
+    }
+
+    // Pooled-lo optimizer: the stored value is the first id of the next block
+    private void seed(String table, long nextId) {
+        int updated = jdbcTemplate.update(
+                "UPDATE " + IdGenerators.TABLE + " SET " + IdGenerators.VALUE_COLUMN + " = ?"
+                        + " WHERE " + IdGenerators.PK_COLUMN + " = ? AND " + IdGenerators.VALUE_COLUMN + " < ?",
+                nextId, table, nextId);
+        if (updated > 0) {
+            logger.info("Id generator for {} moved to {}", table, nextId);
+            return;
+        }
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + IdGenerators.TABLE + " WHERE " + IdGenerators.PK_COLUMN + " = ?",
+                Integer.class, table);
+        if (rows == null || rows == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.PK_COLUMN + ", "
+                            + IdGenerators.VALUE_COLUMN + ") VALUES (?, ?)",
+                    table, nextId);
+            logger.info("Id generator for {} starts at {}", table, nextId);
+        }
+    }
+}
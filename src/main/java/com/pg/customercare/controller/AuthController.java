@@ -118,7 +118,7 @@ public class AuthController {
       SecurityContextHolder.getContext().setAuthentication(authentication);
 
       // Generate the JWT token
-      String token = jwtUtil.generateToken(user.getEmail());
+      String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
 
       Map<String, Object> response = new HashMap<>();
       response.put("token", token);
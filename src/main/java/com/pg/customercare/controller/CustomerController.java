@@ -1,30 +1,46 @@
 package com.pg.customercare.controller;
 
-import java.util.List;
+import java.io.IOException;
 
 import javax.validation.Valid;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pg.customercare.dto.CustomerFilterDTO;
+import com.pg.customercare.dto.CustomerSummaryDTO;
+import com.pg.customercare.dto.ImportReportDTO;
 import com.pg.customercare.model.Customer;
+import com.pg.customercare.service.CustomerImportService;
 import com.pg.customercare.service.CustomerService;
+import com.pg.customercare.util.CursorResponse;
+import com.pg.customercare.util.MergePatchUtil;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/api/customers")
 public class CustomerController {
 
+  private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
   private final CustomerService customerService;
+  private final CustomerImportService customerImportService;
 
-  public CustomerController(CustomerService customerService) {
+  public CustomerController(CustomerService customerService, CustomerImportService customerImportService) {
     this.customerService = customerService;
+    this.customerImportService = customerImportService;
   }
 
   @PostMapping
@@ -33,6 +49,16 @@ public class CustomerController {
     return ResponseEntity.ok(savedCustomer);
   }
 
+  // The body is read as a stream, one row at a time
+  @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+  public ResponseEntity<ImportReportDTO> importCustomers(HttpServletRequest request) throws IOException {
+    CustomerImportService.Format format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+        ? CustomerImportService.Format.CSV
+        : CustomerImportService.Format.NDJSON;
+    var report = customerImportService.importCustomers(request.getInputStream(), format);
+    return ResponseEntity.ok(report);
+  }
+
   @DeleteMapping("/{id}")
   public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
     customerService.deleteCustomer(id);
@@ -40,8 +66,11 @@ public class CustomerController {
   }
 
   @GetMapping
-  public ResponseEntity<List<Customer>> getAllCustomers() {
-    var customers = customerService.getAllCustomers();
+  public ResponseEntity<CursorResponse<CustomerSummaryDTO>> getCustomers(
+      @ModelAttribute CustomerFilterDTO filter,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+    var customers = customerService.getCustomers(filter, cursor, size);
     return ResponseEntity.ok(customers);
   }
 
@@ -56,4 +85,10 @@ public class CustomerController {
     var updatedCustomer = customerService.updateCustomer(customer);
     return ResponseEntity.ok(updatedCustomer);
   }
+
+  @PatchMapping(value = "/{id}", consumes = MergePatchUtil.MEDIA_TYPE)
+  public ResponseEntity<Customer> patchCustomer(@PathVariable Long id, @RequestBody JsonNode patch) {
+    var patchedCustomer = customerService.patchCustomer(id, patch);
+    return ResponseEntity.ok(patchedCustomer);
+  }
 }
@@ -1,5 +1,6 @@
 package com.pg.customercare.controller;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -8,6 +9,7 @@ import javax.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -16,8 +18,15 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pg.customercare.dto.FileDownloadDTO;
 import com.pg.customercare.model.Employee;
 import com.pg.customercare.service.EmployeeService;
+import com.pg.customercare.util.FileDownloadUtil;
+import com.pg.customercare.util.MergePatchUtil;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * EmployeeController is a REST controller that handles HTTP requests for
@@ -30,9 +39,13 @@ import com.pg.customercare.service.EmployeeService;
  * - POST /api/employees: Creates a new employee.
  * - DELETE /api/employees/{id}: Deletes an employee by their ID.
  * - GET /api/employees/{id}: Retrieves an employee by their ID.
+ * - GET /api/employees/{id}/photo: Downloads the employee photo, with
+ * Range and ETag support.
  * - GET /api/employees/position/{position}: Retrieves employees by their
  * position.
  * - POST /api/employees/{id}: Updates an existing employee by their ID.
+ * - PATCH /api/employees/{id}: Applies a JSON Merge Patch to the employee's
+ * own fields.
  * 
  * The controller uses EmployeeService to perform the actual operations.
  * 
@@ -78,6 +91,15 @@ public class EmployeeController {
         return ResponseEntity.ok(employee);
     }
 
+    @GetMapping("/{id}/photo")
+    public void downloadPhoto(
+            @PathVariable Long id,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        FileDownloadDTO photo = employeeService.getEmployeePhoto(id);
+        FileDownloadUtil.write(photo, request, response);
+    }
+
     @GetMapping("/position/{position}")
     public ResponseEntity<List<Employee>> getEmployeesByPosition(
             @PathVariable String position) {
@@ -93,4 +115,12 @@ public class EmployeeController {
         Employee updatedEmployee = employeeService.updateEmployee(employee);
         return ResponseEntity.ok(updatedEmployee);
     }
+
+    @PatchMapping(value = "/{id}", consumes = MergePatchUtil.MEDIA_TYPE)
+    public ResponseEntity<Employee> patchEmployee(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch) {
+        Employee patchedEmployee = employeeService.patchEmployee(id, patch);
+        return ResponseEntity.ok(patchedEmployee);
+    }
 }
\ No newline at end of file
@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.pg.customercare.model.Permission;
 import com.pg.customercare.service.PermissionService;
+import com.pg.customercare.util.CountMode;
 import com.pg.customercare.util.PaginationUtil;
 import com.pg.customercare.util.Response;
 
@@ -35,10 +36,11 @@ public class PermissionController {
 
     @GetMapping
     public ResponseEntity<Response<Permission>> getAllPermissions(
+            @RequestParam(defaultValue = "CACHED") CountMode count,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PaginationUtil.createPageRequest(page, size);
-        Response<Permission> permissions = permissionService.getAllPermissions(pageable);
+        Response<Permission> permissions = permissionService.getAllPermissions(pageable, count);
         return ResponseEntity.ok(permissions);
     }
 
@@ -15,8 +15,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.pg.customercare.dto.PositionSalaryDTO;
 import com.pg.customercare.model.PositionSalary;
 import com.pg.customercare.service.PositionSalaryService;
+import com.pg.customercare.util.CountMode;
 import com.pg.customercare.util.PaginationUtil;
 import com.pg.customercare.util.Response;
+import com.pg.customercare.util.SearchMode;
 
 @RestController
 @RequestMapping("/api/position-salaries")
@@ -36,32 +38,37 @@ public class PositionSalaryController {
 
     @GetMapping
     public ResponseEntity<Response<PositionSalaryDTO>> getAllPositionSalaries(
+            @RequestParam(defaultValue = "CACHED") CountMode count,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PaginationUtil.createPageRequest(page, size);
-        Response<PositionSalaryDTO> positionSalaries = positionSalaryService.getAllPositionSalaries(pageable);
+        Response<PositionSalaryDTO> positionSalaries = positionSalaryService.getAllPositionSalaries(pageable, count);
         return ResponseEntity.ok(positionSalaries);
     }
 
     @GetMapping("/search/by-position")
     public ResponseEntity<Response<PositionSalaryDTO>> getPositionSalariesByPosition(
             @RequestParam String position,
+            @RequestParam(defaultValue = "PREFIX") SearchMode mode,
+            @RequestParam(defaultValue = "CACHED") CountMode count,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PaginationUtil.createPageRequest(page, size);
         Response<PositionSalaryDTO> positionSalaries = positionSalaryService.getPositionSalariesByPosition(position,
-                pageable);
+                mode, pageable, count);
         return ResponseEntity.ok(positionSalaries);
     }
 
     @GetMapping("/search/by-role")
     public ResponseEntity<Response<PositionSalaryDTO>> getPositionSalariesByRoleName(
             @RequestParam String roleName,
+            @RequestParam(defaultValue = "PREFIX") SearchMode mode,
+            @RequestParam(defaultValue = "CACHED") CountMode count,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PaginationUtil.createPageRequest(page, size);
         Response<PositionSalaryDTO> positionSalaries = positionSalaryService.getPositionSalariesByRoleName(roleName,
-                pageable);
+                mode, pageable, count);
         return ResponseEntity.ok(positionSalaries);
     }
 
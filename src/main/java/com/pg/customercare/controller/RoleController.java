@@ -15,8 +15,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.pg.customercare.dto.RoleNameDTO;
 import com.pg.customercare.model.Role;
 import com.pg.customercare.service.RoleService;
+import com.pg.customercare.util.CountMode;
 import com.pg.customercare.util.PaginationUtil;
 import com.pg.customercare.util.Response;
+import com.pg.customercare.util.SearchMode;
 
 @RestController
 @RequestMapping("/api/roles")
@@ -49,29 +51,34 @@ public class RoleController {
 
     @GetMapping
     public ResponseEntity<Response<RoleNameDTO>> getAllRoles(
+            @RequestParam(defaultValue = "CACHED") CountMode count,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PaginationUtil.createPageRequest(page, size);
-        Response<RoleNameDTO> roles = roleService.getAllRoles(pageable);
+        Response<RoleNameDTO> roles = roleService.getAllRoles(pageable, count);
         return ResponseEntity.ok(roles);
     }
 
     @GetMapping("/search/by-name")
     public Response<RoleNameDTO> getRolesByName(
             @RequestParam String name,
+            @RequestParam(defaultValue = "PREFIX") SearchMode mode,
+            @RequestParam(defaultValue = "CACHED") CountMode count,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PaginationUtil.createPageRequest(page, size);
-        return roleService.getRolesByName(name, pageable);
+        return roleService.getRolesByName(name, mode, pageable, count);
     }
 
     @GetMapping("/search/by-permission")
     public Response<RoleNameDTO> getRolesByPermissionName(
             @RequestParam String permissionName,
+            @RequestParam(defaultValue = "PREFIX") SearchMode mode,
+            @RequestParam(defaultValue = "CACHED") CountMode count,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PaginationUtil.createPageRequest(page, size);
-        return roleService.getRolesByPermissionName(permissionName, pageable);
+        return roleService.getRolesByPermissionName(permissionName, mode, pageable, count);
     }
 
     @GetMapping("/{id}")
@@ -1,13 +1,18 @@
 package com.pg.customercare.controller;
 
+import java.io.IOException;
 import java.util.List;
 
 import javax.validation.Valid;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -16,18 +21,46 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.pg.customercare.dto.FileDownloadDTO;
+import com.pg.customercare.dto.TicketBulkUpdateDTO;
+import com.pg.customercare.dto.TicketBulkUpdateReportDTO;
+import com.pg.customercare.dto.TicketFilterDTO;
+import com.pg.customercare.dto.TicketSearchHitDTO;
+import com.pg.customercare.dto.TicketStatsDTO;
+import com.pg.customercare.dto.TicketSummaryDTO;
 import com.pg.customercare.model.Ticket;
+import com.pg.customercare.service.TicketSearchService;
 import com.pg.customercare.service.TicketService;
+import com.pg.customercare.service.TicketStatsService;
+import com.pg.customercare.service.TicketStreamService;
+import com.pg.customercare.util.CursorResponse;
+import com.pg.customercare.util.FileDownloadUtil;
+import com.pg.customercare.util.MergePatchUtil;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/api/tickets")
 public class TicketController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final TicketService ticketService;
+    private final TicketSearchService ticketSearchService;
+    private final TicketStatsService ticketStatsService;
+    private final TicketStreamService ticketStreamService;
 
-    public TicketController(TicketService ticketService) {
+    public TicketController(TicketService ticketService, TicketSearchService ticketSearchService,
+            TicketStatsService ticketStatsService, TicketStreamService ticketStreamService) {
         this.ticketService = ticketService;
+        this.ticketSearchService = ticketSearchService;
+        this.ticketStatsService = ticketStatsService;
+        this.ticketStreamService = ticketStreamService;
     }
 
     @PostMapping
@@ -39,23 +72,94 @@ public class TicketController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Ticket>> getAllTickets() {
-        var tickets = ticketService.getAllTickets();
+    public ResponseEntity<CursorResponse<TicketSummaryDTO>> getTickets(
+            @ModelAttribute TicketFilterDTO filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        var tickets = ticketService.getTickets(filter, cursor, size);
         return ResponseEntity.ok(tickets);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTickets() {
+        // The body runs on an async thread, where exportTickets opens its own read-only transaction
+        StreamingResponseBody body = outputStream -> ticketService.exportTickets(outputStream);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets.ndjson\"")
+                .body(body);
+    }
+
+    // Ranked by relevance; matches in the subject weigh the most
+    @GetMapping("/search")
+    public ResponseEntity<List<TicketSearchHitDTO>> searchTickets(
+            @RequestParam("q") String text,
+            @RequestParam(defaultValue = "20") int size) {
+        var hits = ticketSearchService.search(text, size);
+        return ResponseEntity.ok(hits);
+    }
+
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        boolean started = ticketSearchService.rebuildAsync();
+        return started ? ResponseEntity.accepted().build() : ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    // Served from memory; see TicketStatsService
+    @GetMapping("/stats")
+    public ResponseEntity<TicketStatsDTO> getTicketStats() {
+        return ResponseEntity.ok(ticketStatsService.getStats());
+    }
+
+    // Change events for open ticket lists, instead of polling; see TicketStreamService
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTicketChanges() {
+        return ticketStreamService.subscribe();
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<TicketBulkUpdateReportDTO> bulkUpdateTickets(@RequestBody TicketBulkUpdateDTO request) {
+        return ResponseEntity.ok(ticketService.bulkUpdateTickets(request));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Ticket> getTicketById(@PathVariable Long id) {
         var ticket = ticketService.getTicketById(id);
         return ResponseEntity.ok(ticket);
     }
 
+    @GetMapping("/{ticketId}/files/{fileId}")
+    public void downloadTicketFile(
+            @PathVariable Long ticketId,
+            @PathVariable Long fileId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        FileDownloadDTO file = ticketService.getTicketFile(ticketId, fileId);
+        FileDownloadUtil.write(file, request, response);
+    }
+
+    @GetMapping("/{ticketId}/files/{fileId}/thumbnail")
+    public void downloadTicketFileThumbnail(
+            @PathVariable Long ticketId,
+            @PathVariable Long fileId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        FileDownloadDTO file = ticketService.getTicketFileThumbnail(ticketId, fileId);
+        FileDownloadUtil.write(file, request, response);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Ticket> updateTicket(@Valid @RequestBody Ticket ticket) {
         var updatedTicket = ticketService.updateTicket(ticket);
         return ResponseEntity.ok(updatedTicket);
     }
 
+    @PatchMapping(value = "/{id}", consumes = MergePatchUtil.MEDIA_TYPE)
+    public ResponseEntity<Ticket> patchTicket(@PathVariable Long id, @RequestBody JsonNode patch) {
+        Ticket patchedTicket = ticketService.patchTicket(id, patch);
+        return ResponseEntity.ok(patchedTicket);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTicket(@PathVariable Long id) {
         ticketService.deleteTicket(id);
@@ -0,0 +1,21 @@
+package com.pg.customercare.dto;
+
+import com.pg.customercare.model.ENUM.CustomerType;
+import com.pg.customercare.model.ENUM.Situation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerFilterDTO {
+    // Prefix match, so the (name, id) index can be used
+    private String name;
+    private String cpf;
+    private String cnpj;
+    private String contractNumber;
+    private CustomerType customerType;
+    private Situation situation;
+}
@@ -0,0 +1,24 @@
+package com.pg.customercare.dto;
+
+import com.pg.customercare.model.ENUM.CustomerType;
+import com.pg.customercare.model.ENUM.Situation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerSummaryDTO {
+    private Long id;
+    private String name;
+    private String cpf;
+    private String cnpj;
+    private String contractNumber;
+    private String tradeName;
+    private String corporateEmail;
+    private String phone;
+    private CustomerType customerType;
+    private Situation situation;
+}
@@ -0,0 +1,17 @@
+package com.pg.customercare.dto;
+
+import java.nio.file.Path;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FileDownloadDTO {
+    private String fileName;
+    private Path path;
+    private long size;
+    private String etag;
+}
@@ -0,0 +1,14 @@
+package com.pg.customercare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportErrorDTO {
+    // 1-based line of the input, header included
+    private long row;
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.pg.customercare.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ImportReportDTO {
+    private long processed;
+    private long imported;
+    private long failed;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+    // True when more rows failed than the report lists
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,16 @@
+package com.pg.customercare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One role/permission pair; the permission fields are null for a role without permissions
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RolePermissionDTO {
+    private Long roleId;
+    private String roleName;
+    private Long permissionId;
+    private String permissionName;
+}
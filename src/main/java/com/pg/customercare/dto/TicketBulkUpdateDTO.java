@@ -0,0 +1,20 @@
+package com.pg.customercare.dto;
+
+import java.util.List;
+
+import com.pg.customercare.model.ENUM.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Selects tickets by ids or by filter, and sets the status, the owner or both
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketBulkUpdateDTO {
+    private List<Long> ids;
+    private TicketFilterDTO filter;
+    private Status status;
+    private Long ticketOwnerId;
+}
@@ -0,0 +1,15 @@
+package com.pg.customercare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketBulkUpdateReportDTO {
+    // Tickets found for the ids or filter
+    private long matched;
+    private long statusChanged;
+    private long reassigned;
+}
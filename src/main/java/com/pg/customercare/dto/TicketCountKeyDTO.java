@@ -0,0 +1,20 @@
+package com.pg.customercare.dto;
+
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The fields a ticket is counted by in TicketStatsService
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketCountKeyDTO {
+    private Status status;
+    private Priority priority;
+    private Classification classification;
+    private Long ticketOwnerId;
+}
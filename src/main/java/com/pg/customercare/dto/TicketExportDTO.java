@@ -0,0 +1,29 @@
+package com.pg.customercare.dto;
+
+import java.time.LocalDate;
+
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketExportDTO {
+    private Long id;
+    private String contactName;
+    private String subject;
+    private String description;
+    private LocalDate openingDate;
+    private LocalDate dueDate;
+    private Classification classification;
+    private Priority priority;
+    private Status status;
+    private String solution;
+    private Long customerId;
+    private Long ticketOwnerId;
+}
@@ -0,0 +1,20 @@
+package com.pg.customercare.dto;
+
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketFilterDTO {
+    private Status status;
+    private Priority priority;
+    private Classification classification;
+    private Long customerId;
+    private Long employeeId;
+}
@@ -0,0 +1,17 @@
+package com.pg.customercare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketSearchHitDTO {
+    private Long id;
+    private String subject;
+    private String contactName;
+    private String status;
+    private String openingDate;
+    private float score;
+}
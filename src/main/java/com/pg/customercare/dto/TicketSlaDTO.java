@@ -0,0 +1,18 @@
+package com.pg.customercare.dto;
+
+import java.time.LocalDate;
+
+import com.pg.customercare.model.ENUM.Priority;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketSlaDTO {
+    private Long id;
+    private LocalDate dueDate;
+    private Priority priority;
+}
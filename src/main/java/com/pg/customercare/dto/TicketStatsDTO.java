@@ -0,0 +1,24 @@
+package com.pg.customercare.dto;
+
+import java.util.Map;
+
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketStatsDTO {
+    private long total;
+    private Map<Status, Long> byStatus;
+    private Map<Priority, Long> byPriority;
+    private Map<Classification, Long> byClassification;
+    // Tickets of each owner by status; tickets without an owner are counted in unassigned
+    private Map<Long, Map<Status, Long>> byOwner;
+    private Map<Status, Long> unassigned;
+}
@@ -0,0 +1,20 @@
+package com.pg.customercare.dto;
+
+import java.util.List;
+
+import com.pg.customercare.model.ENUM.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Tickets changed by one chunk of a bulk update; status and ticketOwnerId are null when not changed
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketStreamBulkEventDTO {
+    private TicketStreamEventDTO.Type type;
+    private List<Long> ticketIds;
+    private Status status;
+    private Long ticketOwnerId;
+}
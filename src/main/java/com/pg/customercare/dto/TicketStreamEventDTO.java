@@ -0,0 +1,30 @@
+package com.pg.customercare.dto;
+
+import com.pg.customercare.model.ENUM.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Pushed to /api/tickets/stream subscribers; clients fetch the ticket itself when they need more
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketStreamEventDTO {
+    private Type type;
+    private Long ticketId;
+    private Status status;
+    private Long ticketOwnerId;
+    private Status previousStatus;
+    private Long previousTicketOwnerId;
+
+    public enum Type {
+        CREATED,
+        STATUS_CHANGED,
+        REASSIGNED,
+        UPDATED,
+        DELETED,
+        // Sent as TicketStreamBulkEventDTO, one per chunk of a bulk update
+        BULK_UPDATED
+    }
+}
@@ -0,0 +1,29 @@
+package com.pg.customercare.dto;
+
+import java.time.LocalDate;
+
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketSummaryDTO {
+    private Long id;
+    private String subject;
+    private String contactName;
+    private LocalDate openingDate;
+    private LocalDate dueDate;
+    private Classification classification;
+    private Priority priority;
+    private Status status;
+    private Long customerId;
+    private String customerName;
+    private Long ticketOwnerId;
+    private String ticketOwnerName;
+}
@@ -0,0 +1,15 @@
+package com.pg.customercare.event;
+
+import com.pg.customercare.dto.TicketExportDTO;
+
+/**
+ * Published by TicketService whenever a ticket is created, updated or deleted.
+ * The snapshot is taken inside the transaction so listeners running after the
+ * commit never touch the entity; it is null when the ticket was deleted.
+ */
+public record TicketChangedEvent(Long ticketId, TicketExportDTO ticket) {
+
+    public boolean isDeleted() {
+        return ticket == null;
+    }
+}
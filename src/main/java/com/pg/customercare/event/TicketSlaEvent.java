@@ -0,0 +1,17 @@
+package com.pg.customercare.event;
+
+import java.time.LocalDate;
+
+import com.pg.customercare.model.ENUM.Priority;
+
+/**
+ * Published by SlaService when a tracked ticket enters the warning window
+ * before its due date, and again when the due date has passed.
+ */
+public record TicketSlaEvent(Long ticketId, Type type, Priority priority, LocalDate dueDate) {
+
+    public enum Type {
+        NEAR_BREACH,
+        BREACH
+    }
+}
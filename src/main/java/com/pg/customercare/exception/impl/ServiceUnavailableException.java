@@ -0,0 +1,10 @@
+package com.pg.customercare.exception.impl;
+
+import com.pg.customercare.exception.WebException;
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends WebException {
+  public ServiceUnavailableException(final String message) {
+    super(message, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+}
@@ -0,0 +1,57 @@
+package com.pg.customercare.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Attachment waiting for the post-processing pipeline.
+ *
+ * The row is written in the same transaction as its ticket file and deleted
+ * once the file is ready or has failed for good, so pending work survives a
+ * restart. A claimed row has its next attempt moved to the end of the lease,
+ * which makes it due again if the worker dies before finishing.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "attachment_outbox", indexes = @Index(name = "idx_attachment_outbox_next_attempt", columnList = "next_attempt_at"))
+public class AttachmentOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "attachment_outbox_id")
+    @TableGenerator(name = "attachment_outbox_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "attachment_outbox", allocationSize = IdGenerators.ALLOCATION_SIZE)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    // Plain column rather than a foreign key, so deleting a ticket never waits on the pipeline
+    @Column(name = "ticket_file_id", nullable = false)
+    private Long ticketFileId;
+
+    @Column(name = "staged_path", nullable = false)
+    private String stagedPath;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    // Set by a failed attempt that got as far as hashing, so a retry can use the stored blob
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+}
@@ -4,6 +4,8 @@ import java.time.LocalDate;
 
 import javax.validation.constraints.Past;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import com.pg.customercare.model.ENUM.CustomerType;
 import com.pg.customercare.model.ENUM.Situation;
 
@@ -11,6 +13,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,7 +25,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @EqualsAndHashCode(callSuper = true)
 @Entity
-@Table(name = "customer")
+@DynamicUpdate
+@Table(name = "customer", indexes = {
+    @Index(name = "idx_customer_cnpj", columnList = "cnpj"),
+    @Index(name = "idx_customer_contract_number", columnList = "contract_number"),
+    @Index(name = "idx_customer_type_situation", columnList = "customer_type, situation")
+})
 public class Customer extends Person {
 
   @Column(name = "contract_number")
@@ -0,0 +1,7 @@
+package com.pg.customercare.model.ENUM;
+
+public enum AttachmentStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,19 @@
+package com.pg.customercare.model;
+
+/**
+ * Shared settings of the table-based id generators.
+ *
+ * Ids are reserved in blocks of ALLOCATION_SIZE from one row per entity table,
+ * so Hibernate knows them before the INSERT and can batch the statements.
+ * IdGeneratorInitializer keeps each row ahead of the ids already in use.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generator";
+    public static final String PK_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
@@ -6,6 +6,9 @@ import java.util.List;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Past;
 
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.pg.customercare.model.ENUM.Gender;
 
 import jakarta.persistence.CascadeType;
@@ -16,18 +19,28 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.Data;
 
 @Data
 @Entity
+@DynamicUpdate
 @Inheritance(strategy = InheritanceType.JOINED)
+@Table(name = "person", indexes = {
+        @Index(name = "idx_person_name_id", columnList = "name, id"),
+        @Index(name = "idx_person_cpf", columnList = "cpf")
+})
 public abstract class Person {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "person_id")
+    @TableGenerator(name = "person_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "person", allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -52,6 +65,9 @@ public abstract class Person {
     private String otherInformation;
 
     private String photoName;
+
+    // Set by the photo upload only: it holds a reference to a stored blob
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private String photoAddress;
 
 }
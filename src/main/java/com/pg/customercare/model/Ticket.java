@@ -3,6 +3,9 @@ package com.pg.customercare.model;
 import java.time.LocalDate;
 import java.util.List;
 
+import org.hibernate.annotations.DynamicUpdate;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.pg.customercare.model.ENUM.Classification;
 import com.pg.customercare.model.ENUM.Priority;
 import com.pg.customercare.model.ENUM.Status;
@@ -12,13 +15,19 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -27,10 +36,40 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "ticket")
+@DynamicUpdate
+@NamedEntityGraph(name = Ticket.GRAPH_LIST, attributeNodes = {
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "ticketOwner", subgraph = "owner")
+}, subgraphs = @NamedSubgraph(name = "owner", attributeNodes = {
+        @NamedAttributeNode("positionSalary"),
+        @NamedAttributeNode("user")
+}))
+@NamedEntityGraph(name = Ticket.GRAPH_DETAIL, attributeNodes = {
+        @NamedAttributeNode("customer"),
+        @NamedAttributeNode(value = "ticketOwner", subgraph = "owner"),
+        @NamedAttributeNode("ticketFiles")
+}, subgraphs = @NamedSubgraph(name = "owner", attributeNodes = {
+        @NamedAttributeNode("positionSalary"),
+        @NamedAttributeNode("user")
+}))
+@Table(name = "ticket", indexes = {
+        @Index(name = "idx_ticket_opening_date_id", columnList = "opening_date, id"),
+        @Index(name = "idx_ticket_status_opening_date_id", columnList = "status, opening_date, id"),
+        @Index(name = "idx_ticket_priority_opening_date_id", columnList = "priority, opening_date, id"),
+        @Index(name = "idx_ticket_classification_opening_date_id", columnList = "classification, opening_date, id"),
+        @Index(name = "idx_ticket_customer_opening_date_id", columnList = "customer_id, opening_date, id"),
+        @Index(name = "idx_ticket_employee_opening_date_id", columnList = "employee_id, opening_date, id")
+})
 public class Ticket {
+    // Fetch plans: the list graph joins the to-one side only, so it stays pageable in SQL;
+    // the detail graph adds the attachments. Person.addresses are batch fetched.
+    public static final String GRAPH_LIST = "Ticket.list";
+    public static final String GRAPH_DETAIL = "Ticket.detail";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ticket_id")
+    @TableGenerator(name = "ticket_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "ticket", allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -60,12 +99,14 @@ public class Ticket {
 
     private String solution;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id")
+    @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
     private Employee ticketOwner;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
+    @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
     private Customer customer;
 
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
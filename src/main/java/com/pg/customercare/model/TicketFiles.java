@@ -1,13 +1,21 @@
 package com.pg.customercare.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.pg.customercare.model.ENUM.AttachmentStatus;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,18 +27,39 @@ import lombok.NoArgsConstructor;
 @Table(name = "ticket_files")
 public class TicketFiles {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ticket_files_id")
+    @TableGenerator(name = "ticket_files_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.PK_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "ticket_files", allocationSize = IdGenerators.ALLOCATION_SIZE)
     @Column(name = "id", nullable = false)
     private Long id;
 
     @Column(name = "file_name")
     private String fileName;
 
+    // Null until the attachment pipeline has moved the upload into the blob store
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     @Column(name = "file_path")
     private String filePath;
 
-    @ManyToOne
+    // Rows stored before the pipeline existed have no status and are ready
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20)
+    private AttachmentStatus status;
+
+    // SHA-256 of the content, hex encoded
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "checksum", length = 64)
+    private String checksum;
+
+    // Only set for images; like the columns above it is written by the attachment pipeline only
+    @JsonIgnore
+    @Column(name = "thumbnail_path")
+    private String thumbnailPath;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ticket_id")
+    @JsonIgnore
     private Ticket ticket;
 
 }
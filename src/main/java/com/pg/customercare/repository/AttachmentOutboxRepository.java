@@ -0,0 +1,35 @@
+package com.pg.customercare.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.pg.customercare.model.AttachmentOutbox;
+
+public interface AttachmentOutboxRepository extends JpaRepository<AttachmentOutbox, Long> {
+
+    @Query("SELECT o.id FROM AttachmentOutbox o WHERE o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt")
+    List<Long> findDueIds(@Param("now") Instant now, Pageable pageable);
+
+    // Only one worker gets 1 back for a due row; the lease makes the row due again if it never finishes
+    @Modifying
+    @Query("""
+            UPDATE AttachmentOutbox o SET o.nextAttemptAt = :leaseUntil, o.attempts = o.attempts + 1
+            WHERE o.id = :id AND o.nextAttemptAt <= :now
+            """)
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+
+    @Modifying
+    @Query("""
+            UPDATE AttachmentOutbox o SET o.nextAttemptAt = :nextAttemptAt, o.lastError = :lastError,
+                o.checksum = :checksum
+            WHERE o.id = :id
+            """)
+    int reschedule(@Param("id") Long id, @Param("nextAttemptAt") Instant nextAttemptAt,
+            @Param("lastError") String lastError, @Param("checksum") String checksum);
+}
@@ -1,9 +1,45 @@
 package com.pg.customercare.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.pg.customercare.dto.CustomerSummaryDTO;
 import com.pg.customercare.model.Customer;
+import com.pg.customercare.model.ENUM.CustomerType;
+import com.pg.customercare.model.ENUM.Situation;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long>{
-    
+
+    // Keyset page ordered by (name, id); the cursor is the last row of the previous page.
+    // The name is matched with a SearchMode pattern
+    @Query("""
+            SELECT new com.pg.customercare.dto.CustomerSummaryDTO(
+                c.id, c.name, c.cpf, c.cnpj, c.contractNumber, c.tradeName, c.corporateEmail, c.phone,
+                c.customerType, c.situation)
+            FROM Customer c
+            WHERE (:namePattern IS NULL OR c.name LIKE :namePattern ESCAPE '!')
+              AND (:cpf IS NULL OR c.cpf = :cpf)
+              AND (:cnpj IS NULL OR c.cnpj = :cnpj)
+              AND (:contractNumber IS NULL OR c.contractNumber = :contractNumber)
+              AND (:customerType IS NULL OR c.customerType = :customerType)
+              AND (:situation IS NULL OR c.situation = :situation)
+              AND (:cursorName IS NULL
+                   OR c.name > :cursorName
+                   OR (c.name = :cursorName AND c.id > :cursorId))
+            ORDER BY c.name, c.id
+            """)
+    List<CustomerSummaryDTO> findSummaries(
+            @Param("namePattern") String namePattern,
+            @Param("cpf") String cpf,
+            @Param("cnpj") String cnpj,
+            @Param("contractNumber") String contractNumber,
+            @Param("customerType") CustomerType customerType,
+            @Param("situation") Situation situation,
+            @Param("cursorName") String cursorName,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
 }
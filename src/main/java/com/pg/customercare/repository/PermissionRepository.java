@@ -1,10 +1,15 @@
 package com.pg.customercare.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.pg.customercare.model.Permission;
 
 public interface PermissionRepository extends JpaRepository<Permission, Long>{
 
-    
+    // The total is counted separately, only when requested
+    @Query("SELECT p FROM Permission p ORDER BY p.id")
+    Slice<Permission> findSlice(Pageable pageable);
 }
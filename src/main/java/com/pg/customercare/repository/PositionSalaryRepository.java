@@ -1,17 +1,52 @@
 package com.pg.customercare.repository;
 
-import org.springframework.data.domain.Page;
+import java.util.Optional;
+
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.pg.customercare.dto.PositionSalaryDTO;
 import com.pg.customercare.model.PositionSalary;
 
 public interface PositionSalaryRepository extends JpaRepository<PositionSalary, Long> {
 
-    Page<PositionSalary> findByPositionContainingIgnoreCase(String position, Pageable pageable);
+    // Listings are projected straight into the DTO; patterns come from SearchMode and
+    // totals are counted separately, only when requested
+    @Query("""
+            SELECT new com.pg.customercare.dto.PositionSalaryDTO(ps.id, ps.position, ps.salary, ps.commission, r.name)
+            FROM PositionSalary ps JOIN ps.role r
+            ORDER BY ps.id
+            """)
+    Slice<PositionSalaryDTO> findSummaries(Pageable pageable);
+
+    // Ordered like idx_position_salary_position, so a prefix page is read straight from the index
+    @Query("""
+            SELECT new com.pg.customercare.dto.PositionSalaryDTO(ps.id, ps.position, ps.salary, ps.commission, r.name)
+            FROM PositionSalary ps JOIN ps.role r
+            WHERE ps.position LIKE :pattern ESCAPE '!'
+            ORDER BY ps.position, ps.id
+            """)
+    Slice<PositionSalaryDTO> findSummariesByPosition(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT COUNT(ps) FROM PositionSalary ps WHERE ps.position LIKE :pattern ESCAPE '!'")
+    long countByPosition(@Param("pattern") String pattern);
+
+    @Query("""
+            SELECT new com.pg.customercare.dto.PositionSalaryDTO(ps.id, ps.position, ps.salary, ps.commission, r.name)
+            FROM PositionSalary ps JOIN ps.role r
+            WHERE r.name LIKE :pattern ESCAPE '!'
+            ORDER BY ps.id
+            """)
+    Slice<PositionSalaryDTO> findSummariesByRoleName(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT COUNT(ps) FROM PositionSalary ps JOIN ps.role r WHERE r.name LIKE :pattern ESCAPE '!'")
+    long countByRoleName(@Param("pattern") String pattern);
 
-    @Query("SELECT ps FROM PositionSalary ps JOIN ps.role r WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', :roleName, '%'))")
-    Page<PositionSalary> findByRoleName(@Param("roleName") String roleName, Pageable pageable);
+    // Loads the position with its role and permissions so it can be kept outside the session
+    @EntityGraph(attributePaths = { "role", "role.permissions" })
+    Optional<PositionSalary> findWithRoleById(Long id);
 }
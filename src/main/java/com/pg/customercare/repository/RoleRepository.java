@@ -1,11 +1,17 @@
 package com.pg.customercare.repository;
 
-import org.springframework.data.domain.Page;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.pg.customercare.dto.RolePermissionDTO;
 import com.pg.customercare.model.Permission;
 import com.pg.customercare.model.Role;
 
@@ -14,10 +20,47 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN TRUE ELSE FALSE END FROM Role r JOIN r.permissions p WHERE p = :permission")
     boolean existsByPermissionsContaining(@Param("permission") Permission permission);
 
-    Page<Role> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    @Query("SELECT COALESCE(r.permissionsVersion, 0) FROM Role r WHERE r.id = :id")
+    Optional<Long> findPermissionsVersionById(@Param("id") Long id);
+
+    // Role pages are read in two steps: a slice of ids here, then findRolePermissions for those ids.
+    // Patterns come from SearchMode; totals are counted separately, only when requested.
+    @Query("SELECT r.id FROM Role r ORDER BY r.id")
+    Slice<Long> findIds(Pageable pageable);
+
+    // Ordered like idx_role_name, so a prefix page is read straight from the index
+    @Query("SELECT r.id FROM Role r WHERE r.name LIKE :pattern ESCAPE '!' ORDER BY r.name, r.id")
+    Slice<Long> findIdsByName(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT COUNT(r) FROM Role r WHERE r.name LIKE :pattern ESCAPE '!'")
+    long countByName(@Param("pattern") String pattern);
+
+    // The subquery keeps a role matching several permissions from appearing more than once
+    @Query("""
+            SELECT r.id FROM Role r
+            WHERE r.id IN (SELECT r2.id FROM Role r2 JOIN r2.permissions p
+                           WHERE p.name LIKE :pattern ESCAPE '!')
+            ORDER BY r.id
+            """)
+    Slice<Long> findIdsByPermissionName(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("""
+            SELECT COUNT(r) FROM Role r
+            WHERE r.id IN (SELECT r2.id FROM Role r2 JOIN r2.permissions p
+                           WHERE p.name LIKE :pattern ESCAPE '!')
+            """)
+    long countByPermissionName(@Param("pattern") String pattern);
+
+    @Query("""
+            SELECT new com.pg.customercare.dto.RolePermissionDTO(r.id, r.name, p.id, p.name)
+            FROM Role r LEFT JOIN r.permissions p
+            WHERE r.id IN :roleIds
+            ORDER BY r.id, p.id
+            """)
+    List<RolePermissionDTO> findRolePermissions(@Param("roleIds") Collection<Long> roleIds);
 
-    
-    @Query("SELECT r FROM Role r JOIN r.permissions p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :permissionName, '%'))")
-    Page<Role> findByPermissionName(@Param("permissionName") String permissionName, Pageable pageable);
+    // Loads the role with its permissions so it can be kept outside the session
+    @EntityGraph(attributePaths = "permissions")
+    Optional<Role> findWithPermissionsById(Long id);
 
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.pg.customercare.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.pg.customercare.model.StoredBlob;
+
+import jakarta.persistence.LockModeType;
+
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    // Atomic upsert: the row lock it takes serializes concurrent acquire/release of the same blob
+    @Modifying
+    @Query(value = "INSERT INTO stored_blob (hash, size, reference_count) VALUES (:hash, :size, 1) "
+            + "ON DUPLICATE KEY UPDATE reference_count = reference_count + 1", nativeQuery = true)
+    void acquire(@Param("hash") String hash, @Param("size") long size);
+
+    @Modifying
+    @Query("UPDATE StoredBlob b SET b.referenceCount = b.referenceCount - 1 WHERE b.hash = :hash AND b.referenceCount > 0")
+    int release(@Param("hash") String hash);
+
+    @Modifying
+    @Query("DELETE FROM StoredBlob b WHERE b.hash = :hash AND b.referenceCount <= 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+
+    // Locks the row, or the gap where it would be, so no acquire of the hash can commit meanwhile
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.hash = :hash")
+    Optional<StoredBlob> lockByHash(@Param("hash") String hash);
+}
@@ -1,9 +1,31 @@
 package com.pg.customercare.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.pg.customercare.model.TicketFiles;
 
+import jakarta.persistence.LockModeType;
+
 public interface TicketFilesRepository extends JpaRepository<TicketFiles, Long> {
 
+    List<TicketFiles> findByTicketId(Long ticketId);
+
+    Optional<TicketFiles> findByIdAndTicketId(Long id, Long ticketId);
+
+    // The attachment pipeline and the ticket's update and delete lock the rows before touching their blobs,
+    // so a file stored while its ticket is deleted is either released by the delete or skipped by the pipeline
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM TicketFiles f WHERE f.id = :id")
+    Optional<TicketFiles> lockById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM TicketFiles f WHERE f.ticket.id = :ticketId")
+    List<TicketFiles> lockByTicketId(@Param("ticketId") Long ticketId);
+
 }
@@ -1,9 +1,159 @@
 package com.pg.customercare.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.pg.customercare.dto.TicketCountDTO;
+import com.pg.customercare.dto.TicketCountKeyDTO;
+import com.pg.customercare.dto.TicketExportDTO;
+import com.pg.customercare.dto.TicketSlaDTO;
+import com.pg.customercare.dto.TicketSummaryDTO;
+import com.pg.customercare.model.Employee;
 import com.pg.customercare.model.Ticket;
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+
+import jakarta.persistence.QueryHint;
 
 public interface TicketRepository extends JpaRepository<Ticket, Long>{
-    
+
+    @Override
+    @EntityGraph(Ticket.GRAPH_LIST)
+    List<Ticket> findAll();
+
+    @Override
+    @EntityGraph(Ticket.GRAPH_LIST)
+    Page<Ticket> findAll(Pageable pageable);
+
+    @EntityGraph(Ticket.GRAPH_DETAIL)
+    Optional<Ticket> findWithDetailsById(Long id);
+
+    // Keyset page ordered by (opening_date, id) descending; the cursor is the last row of the previous page.
+    // Legacy rows without an opening date sort last, as MySQL orders nulls in a descending sort, and are
+    // paged by id; a cursor on one of them has a null cursorDate
+    @Query("""
+            SELECT new com.pg.customercare.dto.TicketSummaryDTO(
+                t.id, t.subject, t.contactName, t.openingDate, t.dueDate,
+                t.classification, t.priority, t.status,
+                c.id, c.name, o.id, o.name)
+            FROM Ticket t
+            JOIN t.customer c
+            LEFT JOIN t.ticketOwner o
+            WHERE (:status IS NULL OR t.status = :status)
+              AND (:priority IS NULL OR t.priority = :priority)
+              AND (:classification IS NULL OR t.classification = :classification)
+              AND (:customerId IS NULL OR t.customer.id = :customerId)
+              AND (:employeeId IS NULL OR t.ticketOwner.id = :employeeId)
+              AND (:cursorId IS NULL
+                   OR (:cursorDate IS NULL AND t.openingDate IS NULL AND t.id < :cursorId)
+                   OR (:cursorDate IS NOT NULL
+                       AND (t.openingDate < :cursorDate
+                            OR (t.openingDate = :cursorDate AND t.id < :cursorId)
+                            OR t.openingDate IS NULL)))
+            ORDER BY t.openingDate DESC, t.id DESC
+            """)
+    List<TicketSummaryDTO> findSummaries(
+            @Param("status") Status status,
+            @Param("priority") Priority priority,
+            @Param("classification") Classification classification,
+            @Param("customerId") Long customerId,
+            @Param("employeeId") Long employeeId,
+            @Param("cursorDate") LocalDate cursorDate,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one by one instead of buffering the result set
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.pg.customercare.dto.TicketExportDTO(
+                t.id, t.contactName, t.subject, t.description, t.openingDate, t.dueDate,
+                t.classification, t.priority, t.status, t.solution,
+                t.customer.id, t.ticketOwner.id)
+            FROM Ticket t
+            ORDER BY t.id
+            """)
+    Stream<TicketExportDTO> streamAllForExport();
+
+    // Read once at startup by SlaService; the status prefix of idx_ticket_status_opening_date_id applies
+    @Query("""
+            SELECT new com.pg.customercare.dto.TicketSlaDTO(t.id, t.dueDate, t.priority)
+            FROM Ticket t
+            WHERE t.status IN :statuses AND t.dueDate IS NOT NULL
+            """)
+    List<TicketSlaDTO> findSlaTracked(@Param("statuses") Collection<Status> statuses);
+
+    // Counted fields of one ticket; also serves as the existence check before an update or delete
+    @Query("""
+            SELECT new com.pg.customercare.dto.TicketCountKeyDTO(t.status, t.priority, t.classification, o.id)
+            FROM Ticket t LEFT JOIN t.ticketOwner o
+            WHERE t.id = :id
+            """)
+    Optional<TicketCountKeyDTO> findCountKeyById(@Param("id") Long id);
+
+    // Tickets a bulk update applies to, with the filters of findSummaries
+    @Query("""
+            SELECT t.id FROM Ticket t
+            WHERE (:status IS NULL OR t.status = :status)
+              AND (:priority IS NULL OR t.priority = :priority)
+              AND (:classification IS NULL OR t.classification = :classification)
+              AND (:customerId IS NULL OR t.customer.id = :customerId)
+              AND (:employeeId IS NULL OR t.ticketOwner.id = :employeeId)
+            ORDER BY t.id
+            """)
+    List<Long> findIds(
+            @Param("status") Status status,
+            @Param("priority") Priority priority,
+            @Param("classification") Classification classification,
+            @Param("customerId") Long customerId,
+            @Param("employeeId") Long employeeId,
+            Pageable pageable);
+
+    // State of one bulk update chunk before it is changed
+    @Query("""
+            SELECT new com.pg.customercare.dto.TicketExportDTO(
+                t.id, t.contactName, t.subject, t.description, t.openingDate, t.dueDate,
+                t.classification, t.priority, t.status, t.solution,
+                t.customer.id, t.ticketOwner.id)
+            FROM Ticket t
+            WHERE t.id IN :ids
+            """)
+    List<TicketExportDTO> findExportByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Locks the rows until the transaction ends, so no edit can commit between a read and a bulk UPDATE of them
+    @Query(value = "SELECT id FROM ticket WHERE id IN (:ids) FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.status = :status WHERE t.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    @Modifying
+    @Query("UPDATE Ticket t SET t.ticketOwner = :owner WHERE t.id IN :ids")
+    int updateOwner(@Param("ids") Collection<Long> ids, @Param("owner") Employee owner);
+
+    // One row per combination; TicketStatsService is rebuilt from it
+    @Query("""
+            SELECT new com.pg.customercare.dto.TicketCountDTO(t.status, t.priority, t.classification, o.id, COUNT(t))
+            FROM Ticket t LEFT JOIN t.ticketOwner o
+            GROUP BY t.status, t.priority, t.classification, o.id
+            """)
+    List<TicketCountDTO> countByDimensions();
 }
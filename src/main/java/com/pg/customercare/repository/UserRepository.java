@@ -1,10 +1,18 @@
 package com.pg.customercare.repository;
 
 import com.pg.customercare.model.User;
+
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     User findByEmail(String email);
+
+    @Query("SELECT u.role.id FROM User u WHERE u.email = :email")
+    Optional<Long> findRoleIdByEmail(@Param("email") String email);
 }
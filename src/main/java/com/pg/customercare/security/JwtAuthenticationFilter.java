@@ -5,6 +5,7 @@ import java.io.IOException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -13,6 +14,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import com.pg.customercare.service.UserService;
 import com.pg.customercare.util.JwtUtil;
 
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,33 +30,59 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RoleVersionRegistry roleVersionRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
         String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
+        Claims claims = null;
 
-        // Extrai o token do cabeçalho
+        // Extrai o token do cabeçalho e verifica a assinatura uma única vez
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            username = jwtUtil.extractUsername(jwt); // Extrai o campo "sub" do token
+            String jwt = authorizationHeader.substring(7);
+            claims = jwtUtil.extractClaims(jwt);
+            username = claims.getSubject(); // Campo "sub" do token
         }
 
         // Se o username for válido e a autenticação ainda não estiver configurada
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(username);
-
-            // Valida o token antes de configurar o contexto de segurança
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            if (jwtUtil.hasEmbeddedAuthorities(claims)) {
+                // Modo stateless: as autoridades vêm do próprio token, sem consultar o banco
+                if (jwtUtil.validateToken(claims, username) && isRoleVersionCurrent(claims)) {
+                    UserDetails userDetails = User.withUsername(username)
+                            .password("")
+                            .authorities(claims.get(JwtUtil.ROLE_CLAIM, String.class))
+                            .build();
+                    authenticate(request, userDetails);
+                }
+            } else {
+                UserDetails userDetails = userService.loadUserByUsername(username);
+
+                // Valida o token antes de configurar o contexto de segurança
+                if (jwtUtil.validateToken(claims, userDetails.getUsername())) {
+                    authenticate(request, userDetails);
+                }
             }
         }
 
         chain.doFilter(request, response);
     }
+
+    // Rejeita tokens emitidos antes da última alteração da role, ou da troca de role do usuário
+    private boolean isRoleVersionCurrent(Claims claims) {
+        Long roleId = claims.get(JwtUtil.ROLE_ID_CLAIM, Long.class);
+        return roleVersionRegistry.isCurrent(roleId, claims.get(JwtUtil.PERMISSIONS_VERSION_CLAIM, Long.class))
+                && roleVersionRegistry.holdsRole(claims.getSubject(), roleId);
+    }
+
+    private void authenticate(HttpServletRequest request, UserDetails userDetails) {
+        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    }
 }
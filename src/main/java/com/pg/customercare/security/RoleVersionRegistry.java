@@ -0,0 +1,85 @@
+package com.pg.customercare.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pg.customercare.repository.RoleRepository;
+import com.pg.customercare.repository.UserRepository;
+import com.pg.customercare.util.CacheUtil;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-node view of the permission-set version of each role, and of the role
+ * each user holds.
+ *
+ * Tokens issued with embedded authorities carry their role and its version at
+ * login time. A token is only honoured while that version is still current and
+ * the user still holds that role, so changing a role, or moving a user to
+ * another one, revokes the affected tokens immediately on this node and within
+ * the refresh interval on the others.
+ */
+@Component
+public class RoleVersionRegistry {
+
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+
+    @Value("${jwt.role-version.refresh-interval:PT30S}")
+    private Duration refreshInterval;
+
+    private Cache<Long, Long> versions;
+    private Cache<String, Long> userRoles;
+    private final AtomicLong generation = new AtomicLong();
+
+    public RoleVersionRegistry(RoleRepository roleRepository, UserRepository userRepository) {
+        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        versions = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(refreshInterval)
+                .build();
+        userRoles = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(refreshInterval)
+                .build();
+    }
+
+    public boolean isCurrent(Long roleId, Long permissionsVersion) {
+        if (roleId == null || permissionsVersion == null) {
+            return false;
+        }
+        // Deleted roles are not cached, so they keep being rejected
+        Long currentVersion = CacheUtil.getOrLoad(versions, generation, roleId,
+                id -> roleRepository.findPermissionsVersionById(id).orElse(null));
+        return permissionsVersion.equals(currentVersion);
+    }
+
+    // Users without a role, or deleted ones, are not cached either
+    public boolean holdsRole(String email, Long roleId) {
+        if (email == null || roleId == null) {
+            return false;
+        }
+        Long currentRoleId = CacheUtil.getOrLoad(userRoles, generation, email,
+                key -> userRepository.findRoleIdByEmail(key).orElse(null));
+        return roleId.equals(currentRoleId);
+    }
+
+    // Callers repeat these once the change commits, see TransactionUtil.runNowAndAfterCommit
+    public void invalidate(Long roleId) {
+        CacheUtil.invalidate(generation, () -> versions.invalidate(roleId));
+    }
+
+    public void invalidateUser(String email) {
+        CacheUtil.invalidate(generation, () -> userRoles.invalidate(email));
+    }
+}
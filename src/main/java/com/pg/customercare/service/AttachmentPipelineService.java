@@ -0,0 +1,336 @@
+package com.pg.customercare.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pg.customercare.model.AttachmentOutbox;
+import com.pg.customercare.model.Ticket;
+import com.pg.customercare.model.TicketFiles;
+import com.pg.customercare.model.ENUM.AttachmentStatus;
+import com.pg.customercare.repository.AttachmentOutboxRepository;
+import com.pg.customercare.repository.TicketFilesRepository;
+import com.pg.customercare.util.TransactionUtil;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Post-processing of ticket attachments after the ticket has committed: the
+ * checksum, a thumbnail for images and the move into the blob store.
+ *
+ * Pending work is kept in the attachment_outbox table, written together with
+ * the ticket files. Committed rows go to a fixed pool of workers through a
+ * bounded queue; when the queue is full a row just stays in the outbox until
+ * the next poll, so uploads never wait for the workers. Failed attempts are
+ * retried with exponential backoff, and the file is marked FAILED after the
+ * last one.
+ */
+@Service
+public class AttachmentPipelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttachmentPipelineService.class);
+
+    // Larger pictures are not decoded for a thumbnail
+    private static final long MAX_THUMBNAIL_SOURCE_PIXELS = 40_000_000L;
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final AttachmentOutboxRepository attachmentOutboxRepository;
+    private final TicketFilesRepository ticketFilesRepository;
+    private final BlobStoreService blobStoreService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Rows handed to the executor and not finished yet, so a poll does not queue them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Value("${attachments.pipeline.workers:2}")
+    private int workers;
+
+    @Value("${attachments.pipeline.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${attachments.pipeline.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${attachments.pipeline.retry-backoff:PT10S}")
+    private Duration retryBackoff;
+
+    @Value("${attachments.pipeline.lease:PT5M}")
+    private Duration lease;
+
+    @Value("${attachments.pipeline.thumbnail-size:256}")
+    private int thumbnailSize;
+
+    private ThreadPoolExecutor executor;
+
+    public AttachmentPipelineService(AttachmentOutboxRepository attachmentOutboxRepository,
+            TicketFilesRepository ticketFilesRepository, BlobStoreService blobStoreService,
+            PlatformTransactionManager transactionManager) {
+        this.attachmentOutboxRepository = attachmentOutboxRepository;
+        this.ticketFilesRepository = ticketFilesRepository;
+        this.blobStoreService = blobStoreService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // An upload copied to the staging area by BlobStoreService.stage
+    public record StagedFile(String fileName, Path path) {
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "attachment-worker-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Interrupted work becomes due again when its lease runs out
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records the staged uploads as pending files of the ticket, in the caller's
+     * transaction, and hands them to the workers once it commits.
+     */
+    public void enqueue(Ticket ticket, List<StagedFile> stagedFiles) {
+        List<TicketFiles> ticketFiles = new ArrayList<>();
+        for (StagedFile stagedFile : stagedFiles) {
+            TicketFiles ticketFile = new TicketFiles();
+            ticketFile.setFileName(stagedFile.fileName());
+            ticketFile.setStatus(AttachmentStatus.PENDING);
+            ticketFile.setTicket(ticket);
+            ticketFiles.add(ticketFile);
+        }
+        List<TicketFiles> savedFiles = ticketFilesRepository.saveAll(ticketFiles);
+
+        Instant now = Instant.now();
+        List<AttachmentOutbox> outbox = new ArrayList<>();
+        for (int i = 0; i < savedFiles.size(); i++) {
+            outbox.add(new AttachmentOutbox(null, savedFiles.get(i).getId(),
+                    stagedFiles.get(i).path().toString(), 0, now, null, null));
+        }
+        List<Long> outboxIds = attachmentOutboxRepository.saveAll(outbox).stream()
+                .map(AttachmentOutbox::getId)
+                .toList();
+
+        TransactionUtil.runAfterCommit(() -> outboxIds.forEach(this::submit));
+    }
+
+    // Never blocks: a row that does not fit in the queue waits for the next poll
+    public void submit(Long outboxId) {
+        if (!inFlight.add(outboxId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(outboxId);
+                } finally {
+                    inFlight.remove(outboxId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(outboxId);
+            logger.debug("Attachment queue full, outbox row {} left for the next poll", outboxId);
+        }
+    }
+
+    // Picks up rows left by a restart, a full queue, an expired lease or a scheduled retry
+    @Scheduled(fixedDelayString = "${attachments.pipeline.poll-interval-ms:10000}")
+    public void pollOutbox() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        attachmentOutboxRepository.findDueIds(Instant.now(), PageRequest.of(0, capacity))
+                .forEach(this::submit);
+    }
+
+    /**
+     * Runs one attempt for the outbox row, unless it is no longer due because
+     * another worker claimed or finished it.
+     */
+    public void process(Long outboxId) {
+        Instant now = Instant.now();
+        AttachmentOutbox task = transactionTemplate.execute(status ->
+                attachmentOutboxRepository.claim(outboxId, now, now.plus(lease)) == 1
+                        ? attachmentOutboxRepository.findById(outboxId).orElse(null)
+                        : null);
+        if (task == null) {
+            return;
+        }
+
+        Path stagedFile = Paths.get(task.getStagedPath());
+        // An earlier attempt may have stored the file without its outcome being recorded; the blob then stands in
+        Path storedFile = Files.exists(stagedFile) ? null : blobStoreService.find(task.getChecksum());
+        String checksum = task.getChecksum();
+        Path thumbnail = null;
+        try {
+            // The file is read before the transaction, which then only links files and updates rows
+            if (storedFile == null) {
+                checksum = blobStoreService.checksum(stagedFile);
+            }
+            thumbnail = createThumbnail(storedFile == null ? stagedFile : storedFile);
+            String thumbnailChecksum = thumbnail == null ? null : blobStoreService.checksum(thumbnail);
+
+            String fileChecksum = checksum;
+            Path stagedThumbnail = thumbnail;
+            transactionTemplate.executeWithoutResult(status -> complete(task, stagedFile, storedFile != null,
+                    fileChecksum, stagedThumbnail, thumbnailChecksum));
+        } catch (IOException | RuntimeException e) {
+            blobStoreService.discard(thumbnail);
+            fail(task, checksum, e);
+        }
+    }
+
+    // Exponential backoff: retryBackoff after the first failure, doubled after each further one
+    public Duration backoff(int attempts) {
+        return retryBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 16));
+    }
+
+    // auxiliary methods
+    // The staged files are only deleted once this commits, so a failed attempt can be repeated
+    private void complete(AttachmentOutbox task, Path stagedFile, boolean alreadyStored, String checksum,
+            Path thumbnail, String thumbnailChecksum) {
+        // Locked first: a ticket delete waiting on the row then sees the stored file and releases it
+        Optional<TicketFiles> ticketFile = ticketFilesRepository.lockById(task.getTicketFileId());
+        attachmentOutboxRepository.deleteById(task.getId());
+        if (ticketFile.isEmpty()) {
+            // The ticket was deleted while the file was waiting
+            TransactionUtil.runAfterCommit(() -> {
+                blobStoreService.discard(stagedFile);
+                blobStoreService.discard(thumbnail);
+            });
+            return;
+        }
+
+        try {
+            TicketFiles file = ticketFile.get();
+            Path blobPath = alreadyStored
+                    ? blobStoreService.storeExisting(checksum)
+                    : blobStoreService.storeStaged(stagedFile, checksum);
+            file.setFilePath(blobPath.toString());
+            file.setChecksum(checksum);
+            if (thumbnail != null) {
+                file.setThumbnailPath(blobStoreService.storeStaged(thumbnail, thumbnailChecksum).toString());
+            }
+            file.setStatus(AttachmentStatus.READY);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void fail(AttachmentOutbox task, String checksum, Exception cause) {
+        String error = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        String lastError = error;
+
+        // attempts already counts the one that just failed
+        int attempts = task.getAttempts();
+        try {
+            if (attempts >= maxAttempts) {
+                logger.error("Attachment {} failed after {} attempts", task.getTicketFileId(), attempts, cause);
+                transactionTemplate.executeWithoutResult(status -> {
+                    ticketFilesRepository.lockById(task.getTicketFileId())
+                            .ifPresent(file -> file.setStatus(AttachmentStatus.FAILED));
+                    attachmentOutboxRepository.deleteById(task.getId());
+                    TransactionUtil.runAfterCommit(() -> blobStoreService.discard(Paths.get(task.getStagedPath())));
+                });
+            } else {
+                Instant nextAttemptAt = Instant.now().plus(backoff(attempts));
+                logger.warn("Attachment {} failed on attempt {}, retrying at {}: {}",
+                        task.getTicketFileId(), attempts, nextAttemptAt, lastError);
+                transactionTemplate.executeWithoutResult(status ->
+                        attachmentOutboxRepository.reschedule(task.getId(), nextAttemptAt, lastError, checksum));
+            }
+        } catch (RuntimeException e) {
+            // The row stays claimed and is retried once its lease runs out
+            logger.error("Could not record the failure of attachment {}", task.getTicketFileId(), e);
+        }
+    }
+
+    // Scaled-down PNG of an image attachment, staged for the store; null for anything else
+    private Path createThumbnail(Path file) throws IOException {
+        BufferedImage image = readImage(file);
+        if (image == null) {
+            return null;
+        }
+        double scale = Math.min(1.0, (double) thumbnailSize / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, "png", outputStream);
+        return blobStoreService.stage(new ByteArrayInputStream(outputStream.toByteArray()), Long.MAX_VALUE);
+    }
+
+    // A file that is not a readable image simply gets no thumbnail
+    private BufferedImage readImage(Path file) {
+        try (ImageInputStream inputStream = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = inputStream == null ? null : ImageIO.getImageReaders(inputStream);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(inputStream, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_THUMBNAIL_SOURCE_PIXELS) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("No thumbnail for {}", file, e);
+            return null;
+        }
+    }
+}
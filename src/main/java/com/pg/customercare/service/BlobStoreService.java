@@ -0,0 +1,325 @@
+package com.pg.customercare.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.pg.customercare.dto.FileDownloadDTO;
+import com.pg.customercare.exception.impl.NotFoundException;
+import com.pg.customercare.repository.StoredBlobRepository;
+import com.pg.customercare.util.FileStreamUtil;
+import com.pg.customercare.util.TransactionUtil;
+
+/**
+ * Content-addressed store for uploaded files.
+ *
+ * Each distinct content is written once under its SHA-256 and shared by every
+ * ticket file or photo that uploads it. The stored_blob table keeps a reference
+ * count so the file is only removed when its last owner releases it.
+ */
+@Service
+public class BlobStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlobStoreService.class);
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final TransactionTemplate cleanupTransaction;
+
+    @Value("${storage.blobs.dir}")
+    private String blobFolder;
+
+    // Where files were written before the blob store; only these may still be read or deleted by path
+    @Value("${storage.legacy.dirs:}")
+    private String[] legacyFolders = new String[0];
+
+    public BlobStoreService(StoredBlobRepository storedBlobRepository, PlatformTransactionManager transactionManager) {
+        this.storedBlobRepository = storedBlobRepository;
+        // Cleanups run once the caller's transaction has ended, so they need one of their own
+        this.cleanupTransaction = new TransactionTemplate(transactionManager);
+        this.cleanupTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Streams the file into the store, hashing it on the way, and returns the
+     * path of the blob holding its content.
+     */
+    @Transactional
+    public Path store(MultipartFile file, long maxBytes) throws IOException {
+        Path root = root();
+        Path tempDirectory = Files.createDirectories(root.resolve("tmp"));
+        Path tempFile = tempDirectory.resolve(UUID.randomUUID() + ".part");
+
+        MessageDigest digest = sha256();
+        long size;
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            size = FileStreamUtil.copyToFile(inputStream, tempFile, maxBytes);
+        }
+        return moveIntoStore(tempFile, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    /**
+     * Copies the input to a staging file next to the store without touching the
+     * database, so uploads can be taken before a transaction is opened. The
+     * staged file is later added with storeStaged or deleted by the caller.
+     */
+    public Path stage(InputStream inputStream, long maxBytes) throws IOException {
+        Path stagingDirectory = Files.createDirectories(root().resolve("staging"));
+        Path stagedFile = stagingDirectory.resolve(UUID.randomUUID() + ".part");
+        FileStreamUtil.copyToFile(inputStream, stagedFile, maxBytes);
+        return stagedFile;
+    }
+
+    // Deletes a staged file that will not be stored; failures are only logged
+    public void discard(Path stagedFile) {
+        if (stagedFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(stagedFile);
+        } catch (IOException e) {
+            logger.warn("Could not delete staged file {}", stagedFile, e);
+        }
+    }
+
+    // SHA-256 of a file, hex encoded; read outside any transaction
+    public String checksum(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Adds a staged file whose checksum is already known to the store. Only the
+     * reference count and a hard link happen here, so the transaction stays short.
+     * The staged file is deleted once the transaction commits; after a rollback it
+     * is still there for the next attempt.
+     */
+    @Transactional
+    public Path storeStaged(Path stagedFile, String hash) throws IOException {
+        long size = Files.size(stagedFile);
+        storedBlobRepository.acquire(hash, size);
+        TransactionUtil.runAfterRollback(() -> deleteIfOrphaned(hash));
+
+        Path blobPath = blobPath(hash);
+        if (!Files.exists(blobPath)) {
+            Files.createDirectories(blobPath.getParent());
+            try {
+                Files.createLink(blobPath, stagedFile);
+            } catch (FileAlreadyExistsException e) {
+                // Stored concurrently with the same content
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                copyIntoStore(stagedFile, blobPath);
+            }
+        }
+        TransactionUtil.runAfterCommit(() -> discard(stagedFile));
+        return blobPath;
+    }
+
+    /**
+     * Adds a reference to content already in the store, for a retry whose staged
+     * file is gone. Fails when the store does not hold the content.
+     */
+    @Transactional
+    public Path storeExisting(String hash) throws IOException {
+        Path blobPath = blobPath(hash);
+        storedBlobRepository.acquire(hash, Files.size(blobPath));
+        // Checked again under the row lock, in case a release deleted it in between
+        if (!Files.isRegularFile(blobPath)) {
+            throw new NoSuchFileException(blobPath.toString());
+        }
+        return blobPath;
+    }
+
+    // Path of the blob with the given content hash, or null when the store does not hold it
+    public Path find(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return null;
+        }
+        Path blobPath = blobPath(hash);
+        return Files.isRegularFile(blobPath) ? blobPath : null;
+    }
+
+    /**
+     * Drops one reference to the file at the given path, deleting the blob when
+     * nothing else uses it. Files stored before the blob store are deleted directly.
+     * Files are only deleted once the transaction commits, so a rollback keeps them.
+     */
+    @Transactional
+    public void release(String path) throws IOException {
+        if (path == null) {
+            return;
+        }
+        String hash = hashOf(path);
+        if (hash == null) {
+            Path legacyFile = storedFile(path);
+            if (legacyFile == null) {
+                logger.warn("Not deleting {}: outside the blob store and the legacy directories", path);
+                return;
+            }
+            TransactionUtil.runAfterCommit(() -> delete(legacyFile));
+            return;
+        }
+        storedBlobRepository.release(hash);
+        if (storedBlobRepository.deleteIfUnreferenced(hash) > 0) {
+            TransactionUtil.runAfterCommit(() -> deleteIfOrphaned(hash));
+        }
+    }
+
+    /**
+     * Describes a stored file for download. Blobs are tagged by their content hash;
+     * files stored before the blob store fall back to size and modification time.
+     * Paths outside the store and the legacy directories are reported as missing.
+     */
+    public FileDownloadDTO describe(String fileName, String path) throws IOException {
+        Path filePath = path == null ? null : storedFile(path);
+        if (filePath == null || !Files.isRegularFile(filePath)) {
+            throw new NotFoundException("Stored file not found: " + fileName);
+        }
+        long size = Files.size(filePath);
+        String etag = hashOf(path);
+        if (etag == null) {
+            etag = Long.toHexString(size) + "-" + Long.toHexString(Files.getLastModifiedTime(filePath).toMillis());
+        }
+        return new FileDownloadDTO(fileName, filePath, size, etag);
+    }
+
+    // Returns the content hash when the path points inside the store, null otherwise
+    public String hashOf(String path) {
+        Path filePath;
+        try {
+            filePath = Paths.get(path).toAbsolutePath().normalize();
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        if (!filePath.startsWith(root())) {
+            return null;
+        }
+        String fileName = filePath.getFileName().toString();
+        return HASH_PATTERN.matcher(fileName).matches() ? fileName : null;
+    }
+
+    // auxiliary methods
+    // Paths come from columns clients can write, e.g. Person.photoAddress, so anything else is refused
+    private Path storedFile(String path) {
+        Path filePath;
+        try {
+            filePath = Paths.get(path).toAbsolutePath().normalize();
+        } catch (InvalidPathException e) {
+            return null;
+        }
+        if (hashOf(filePath.toString()) != null) {
+            return filePath;
+        }
+        if (filePath.startsWith(root())) {
+            // Staging and temporary files are never served
+            return null;
+        }
+        for (String legacyFolder : legacyFolders) {
+            if (!legacyFolder.isBlank() && filePath.startsWith(Paths.get(legacyFolder).toAbsolutePath().normalize())) {
+                return filePath;
+            }
+        }
+        return null;
+    }
+
+    private Path moveIntoStore(Path tempFile, String hash, long size) throws IOException {
+        // Take the reference first: the row lock keeps a concurrent release from deleting the file
+        storedBlobRepository.acquire(hash, size);
+        TransactionUtil.runAfterRollback(() -> deleteIfOrphaned(hash));
+
+        Path blobPath = blobPath(hash);
+        try {
+            if (Files.exists(blobPath)) {
+                Files.delete(tempFile);
+            } else {
+                Files.createDirectories(blobPath.getParent());
+                Files.move(tempFile, blobPath, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(tempFile);
+        }
+        return blobPath;
+    }
+
+    // For file systems without hard links: copy next to the store, then rename into place
+    private void copyIntoStore(Path source, Path blobPath) throws IOException {
+        Path tempFile = Files.createDirectories(root().resolve("tmp")).resolve(UUID.randomUUID() + ".part");
+        try {
+            Files.copy(source, tempFile);
+            Files.move(tempFile, blobPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Stored concurrently with the same content
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Deletes the blob file unless a row references it again. Runs in its own
+     * transaction, where the row lock holds back a concurrent acquire until the
+     * file is gone. Failures are only logged; the file is then left behind.
+     */
+    private void deleteIfOrphaned(String hash) {
+        try {
+            cleanupTransaction.executeWithoutResult(status -> {
+                if (storedBlobRepository.lockByHash(hash).isEmpty()) {
+                    delete(blobPath(hash));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not clean up blob {}", hash, e);
+        }
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete file {}", file, e);
+        }
+    }
+
+    private Path root() {
+        return Paths.get(blobFolder).toAbsolutePath().normalize();
+    }
+
+    private Path blobPath(String hash) {
+        return root().resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.pg.customercare.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pg.customercare.dto.ImportErrorDTO;
+import com.pg.customercare.dto.ImportReportDTO;
+import com.pg.customercare.exception.impl.BadRequestException;
+import com.pg.customercare.model.Customer;
+import com.pg.customercare.util.CsvUtil;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+/**
+ * Streams customers from CSV or NDJSON into the database.
+ *
+ * Rows are read one line at a time and saved in chunk-sized transactions, so
+ * memory use depends on the chunk size and not on the size of the input.
+ */
+@Service
+public class CustomerImportService {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    // Matches hibernate.jdbc.batch_size, so each flush sends full batches
+    private static final int FLUSH_INTERVAL = 50;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final Set<String> CSV_COLUMNS = Set.of(
+            "name", "privateEmail", "cpf", "phone", "birthDate", "gender", "otherInformation",
+            "contractNumber", "contractDate", "corporateEmail", "cnpj", "tradeName", "situation", "customerType");
+
+    private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${customers.import.chunk-size:500}")
+    private int chunkSize = 500;
+
+    public CustomerImportService(CustomerService customerService, ObjectMapper objectMapper,
+            EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.customerService = customerService;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ImportReportDTO importCustomers(InputStream inputStream, Format format) throws IOException {
+        ImportReportDTO report = new ImportReportDTO();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+        List<String> header = null;
+        long lineNumber = 0;
+        if (format == Format.CSV) {
+            header = readHeader(reader.readLine());
+            lineNumber++;
+        }
+
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            report.setProcessed(report.getProcessed() + 1);
+
+            try {
+                Customer customer = parse(line, header);
+                List<String> problems = validate(customer);
+                if (problems.isEmpty()) {
+                    chunk.add(new PendingRow(lineNumber, line, customer));
+                } else {
+                    addError(report, lineNumber, String.join("; ", problems));
+                }
+            } catch (JsonProcessingException e) {
+                addError(report, lineNumber, "Malformed row: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                addError(report, lineNumber, "Malformed row: " + e.getMessage());
+            }
+
+            if (chunk.size() >= chunkSize) {
+                persist(chunk, header, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persist(chunk, header, report);
+        }
+
+        return report;
+    }
+
+    // One transaction per chunk; when it fails, its rows are retried one by one to find the bad ones
+    private void persist(List<PendingRow> chunk, List<String> header, ImportReportDTO report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> persistAll(chunk));
+            report.setImported(report.getImported() + chunk.size());
+        } catch (DataAccessException | PersistenceException e) {
+            for (PendingRow row : chunk) {
+                try {
+                    // Parsed again because the failed attempt already assigned ids
+                    Customer customer = parse(row.line(), header);
+                    customerService.validateGender(customer);
+                    transactionTemplate.executeWithoutResult(status -> entityManager.persist(customer));
+                    report.setImported(report.getImported() + 1);
+                } catch (DataAccessException | PersistenceException | JsonProcessingException ex) {
+                    addError(report, row.lineNumber(),
+                            "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+                }
+            }
+        }
+    }
+
+    private void persistAll(List<PendingRow> rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            entityManager.persist(rows.get(i).customer());
+            if ((i + 1) % FLUSH_INTERVAL == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+
+    private Customer parse(String line, List<String> header) throws JsonProcessingException {
+        Customer customer = header == null
+                ? objectMapper.readValue(line, Customer.class)
+                : objectMapper.convertValue(toFields(header, line), Customer.class);
+        // Imports always create new customers
+        customer.setId(null);
+        return customer;
+    }
+
+    // Same rules as the Customer entity and CustomerService.saveCustomer
+    private List<String> validate(Customer customer) {
+        List<String> problems = new ArrayList<>();
+        if (customer.getName() == null || customer.getName().isBlank()) {
+            problems.add("Name is mandatory");
+        }
+        if (customer.getCustomerType() == null) {
+            problems.add("Customer type is mandatory");
+        }
+        if (customer.getBirthDate() != null && !customer.getBirthDate().isBefore(LocalDate.now())) {
+            problems.add("Birth date must be in the past");
+        }
+        if (customer.getContractDate() != null && !customer.getContractDate().isBefore(LocalDate.now())) {
+            problems.add("The contract date must be in the past");
+        }
+        customerService.validateGender(customer);
+        return problems;
+    }
+
+    // auxiliary methods
+    private List<String> readHeader(String line) {
+        if (line == null || line.isBlank()) {
+            throw new BadRequestException("CSV input must start with a header line");
+        }
+        List<String> header = CsvUtil.parseLine(line.strip());
+        for (String column : header) {
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new BadRequestException("Unknown CSV column: " + column);
+            }
+        }
+        return header;
+    }
+
+    private Map<String, String> toFields(List<String> header, String line) {
+        List<String> values = CsvUtil.parseLine(line);
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = values.get(i).strip();
+            if (!value.isEmpty()) {
+                fields.put(header.get(i), value);
+            }
+        }
+        return fields;
+    }
+
+    private void addError(ImportReportDTO report, long lineNumber, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new ImportErrorDTO(lineNumber, message));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private record PendingRow(long lineNumber, String line, Customer customer) {
+    }
+}
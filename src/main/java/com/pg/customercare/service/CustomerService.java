@@ -1,21 +1,40 @@
 package com.pg.customercare.service;
 
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pg.customercare.dto.CustomerFilterDTO;
+import com.pg.customercare.dto.CustomerSummaryDTO;
+import com.pg.customercare.exception.impl.BadRequestException;
 import com.pg.customercare.exception.impl.NotFoundException;
 import com.pg.customercare.model.Customer;
 import com.pg.customercare.model.ENUM.CustomerType;
 import com.pg.customercare.repository.CustomerRepository;
+import com.pg.customercare.util.CursorResponse;
+import com.pg.customercare.util.KeysetCursor;
+import com.pg.customercare.util.MergePatchUtil;
+import com.pg.customercare.util.PaginationUtil;
+import com.pg.customercare.util.SearchMode;
 
 @Service
 public class CustomerService {
 
+    // Columns of customer and person; addresses keep going through the full update
+    private static final Set<String> PATCH_FIELDS = Set.of(
+            "name", "privateEmail", "cpf", "phone", "birthDate", "gender", "otherInformation",
+            "contractNumber", "contractDate", "corporateEmail", "cnpj", "tradeName", "situation", "customerType");
+
     private final CustomerRepository customerRepository;
+    private final ObjectMapper objectMapper;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, ObjectMapper objectMapper) {
         this.customerRepository = customerRepository;
+        this.objectMapper = objectMapper;
     }
 
     public Customer saveCustomer(Customer customer) {
@@ -30,8 +49,31 @@ public class CustomerService {
         customerRepository.deleteById(id);
     }
 
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+    public CursorResponse<CustomerSummaryDTO> getCustomers(CustomerFilterDTO filter, String cursor, int size) {
+        int pageSize = PaginationUtil.clampPageSize(size);
+
+        String cursorName = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+            cursorName = keysetCursor.key();
+            cursorId = keysetCursor.id();
+        }
+
+        String name = blankToNull(filter.getName());
+        List<CustomerSummaryDTO> rows = customerRepository.findSummaries(
+                name == null ? null : SearchMode.PREFIX.toPattern(name),
+                blankToNull(filter.getCpf()),
+                blankToNull(filter.getCnpj()),
+                blankToNull(filter.getContractNumber()),
+                filter.getCustomerType(),
+                filter.getSituation(),
+                cursorName,
+                cursorId,
+                PaginationUtil.createKeysetRequest(pageSize));
+
+        return PaginationUtil.toCursorResponse(rows, pageSize,
+                last -> KeysetCursor.encode(last.getName(), last.getId()));
     }
 
     public Customer getCustomerById(Long id) {
@@ -48,8 +90,25 @@ public class CustomerService {
         return customerRepository.save(customer);
     }
 
-    // Auxiliary method
-    private void validateGender(Customer customer) {
+    // The customer is loaded once and changed in place; the flush writes only the changed columns
+    @Transactional
+    public Customer patchCustomer(Long id, JsonNode patch) {
+        Customer customer = getCustomerById(id);
+        MergePatchUtil.apply(objectMapper, customer, patch, PATCH_FIELDS, Set.of());
+        if (customer.getCustomerType() == null) {
+            throw new BadRequestException("Customer type is required");
+        }
+        validateGender(customer);
+        return customer;
+    }
+
+    // Auxiliary methods
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    // Also applied to imported rows
+    void validateGender(Customer customer) {
         if (customer.getCustomerType() == CustomerType.CORPORATE) {
             customer.setGender(null);
         }
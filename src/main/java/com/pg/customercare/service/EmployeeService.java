@@ -1,18 +1,25 @@
 package com.pg.customercare.service;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pg.customercare.dto.FileDownloadDTO;
 import com.pg.customercare.exception.impl.BadRequestException;
 import com.pg.customercare.exception.impl.InternalServerException;
 import com.pg.customercare.exception.impl.NotFoundException;
@@ -23,45 +30,68 @@ import com.pg.customercare.model.Person;
 import com.pg.customercare.model.PositionSalary;
 import com.pg.customercare.repository.EmployeeRepository;
 import com.pg.customercare.repository.PositionSalaryRepository;
+import com.pg.customercare.util.FileStreamUtil;
+import com.pg.customercare.util.MergePatchUtil;
 
 @Service
 public class EmployeeService {
 
+  // Columns of employee and person; addresses, dependents and the photo keep going through the full update
+  private static final Set<String> PATCH_FIELDS = Set.of(
+      "name", "privateEmail", "cpf", "phone", "birthDate", "gender", "otherInformation",
+      "hireDate", "companyEmail", "hasDependents");
+
   private EmployeeRepository employeeRepository;
   private PositionSalaryRepository positionSalaryRepository;
+  private BlobStoreService blobStoreService;
+  private ReferenceDataCache referenceDataCache;
+  private ObjectMapper objectMapper;
+  private TransactionTemplate transactionTemplate;
+
+  private static final long MAX_PHOTO_SIZE = 5 * 1024 * 1024; // 5MB
 
   public EmployeeService(
-      EmployeeRepository employeeRepository, PositionSalaryRepository positionSalaryRepository) {
+      EmployeeRepository employeeRepository, PositionSalaryRepository positionSalaryRepository,
+      BlobStoreService blobStoreService, ReferenceDataCache referenceDataCache, ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager) {
     this.employeeRepository = employeeRepository;
     this.positionSalaryRepository = positionSalaryRepository;
+    this.blobStoreService = blobStoreService;
+    this.referenceDataCache = referenceDataCache;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
   }
 
-  private final String UPLOAD_FOLDER = "C:\\Uploads\\";
-
-  @Transactional
+  // Photos are copied to disk before the transaction opens; it only adds their blob references
   public Employee saveEmployee(Employee employee, MultipartFile photo, Map<String, MultipartFile> files)
       throws Exception {
+    List<StagedPhoto> stagedPhotos = new ArrayList<>();
     try {
       validateEmployee(employee);
+      setDependentsAndValidate(employee);
 
       if (photo != null && !photo.isEmpty()) {
-        savePhoto(employee, photo);
+        stagedPhotos.add(stagePhoto(employee, photo));
       }
-
-      PositionSalary positionSalary = getPositionSalary(employee.getPositionSalary());
-      employee.setPositionSalary(positionSalary);
-
-      setDependentsAndValidate(employee);
-
       if (employee.getDependents() != null && !employee.getDependents().isEmpty() && files != null
           && !files.isEmpty()) {
-        processDependentFiles(employee, files);
+        stageDependentFiles(employee, files, stagedPhotos);
       }
 
-      return employeeRepository.save(employee);
+      return transactionTemplate.execute(status -> {
+        PositionSalary positionSalary = getPositionSalary(employee.getPositionSalary());
+        employee.setPositionSalary(positionSalary);
+        stagedPhotos.forEach(this::storePhoto);
+        return employeeRepository.save(employee);
+      });
     } catch (ValidationException | NotFoundException | IOException e) {
+      discard(stagedPhotos);
       throw e;
+    } catch (UncheckedIOException e) {
+      discard(stagedPhotos);
+      throw e.getCause();
     } catch (Exception e) {
+      discard(stagedPhotos);
       throw new BadRequestException("Failed to save employee due to an unexpected error", e);
     }
   }
@@ -73,9 +103,8 @@ public class EmployeeService {
         .orElseThrow(() -> new NotFoundException("Employee not found with id " + id));
 
     if (employee.getPhotoAddress() != null) {
-      Path photoPath = Paths.get(employee.getPhotoAddress());
       try {
-        Files.deleteIfExists(photoPath);
+        blobStoreService.release(employee.getPhotoAddress());
       } catch (IOException e) {
         throw new InternalServerException(
             "Failed to delete employee photo at address: " + employee.getPhotoAddress(), e);
@@ -84,9 +113,8 @@ public class EmployeeService {
 
     employee.getDependents().forEach(dependent -> {
       if (dependent.getPhotoAddress() != null) {
-        Path dependentPhotoPath = Paths.get(dependent.getPhotoAddress());
         try {
-          Files.deleteIfExists(dependentPhotoPath);
+          blobStoreService.release(dependent.getPhotoAddress());
         } catch (IOException e) {
           throw new InternalServerException(
               "Failed to delete dependent photo at address: " + dependent.getPhotoAddress(), e);
@@ -111,11 +139,24 @@ public class EmployeeService {
         .orElseThrow(() -> new NotFoundException("Employee not found with id " + id));
   }
 
-  public Employee updateEmployee(Employee employee) {
-    if (!employeeRepository.existsById(employee.getId())) {
-      throw new NotFoundException(
-          "Employee not found with id " + employee.getId());
+  public FileDownloadDTO getEmployeePhoto(Long id) {
+    Employee employee = getEmployeeById(id);
+    if (employee.getPhotoAddress() == null) {
+      throw new NotFoundException("Photo not found for employee with id " + id);
+    }
+    try {
+      return blobStoreService.describe(employee.getPhotoName(), employee.getPhotoAddress());
+    } catch (IOException e) {
+      throw new InternalServerException("Failed to read photo at: " + employee.getPhotoAddress(), e);
     }
+  }
+
+  // Photos are only changed by uploads, so the stored ones are kept; those of dropped dependents are released
+  @Transactional
+  public Employee updateEmployee(Employee employee) {
+    Employee stored = employeeRepository
+        .findById(employee.getId())
+        .orElseThrow(() -> new NotFoundException("Employee not found with id " + employee.getId()));
 
     validateEmployee(employee);
 
@@ -125,7 +166,55 @@ public class EmployeeService {
 
     setDependentsAndValidate(employee);
 
-    return employeeRepository.save(employee);
+    employee.setPhotoName(stored.getPhotoName());
+    employee.setPhotoAddress(stored.getPhotoAddress());
+    Map<Long, Dependent> storedDependents = new HashMap<>();
+    if (stored.getDependents() != null) {
+      stored.getDependents().forEach(dependent -> storedDependents.put(dependent.getId(), dependent));
+    }
+    List<String> droppedPhotos = new ArrayList<>();
+    if (employee.getDependents() != null) {
+      for (Dependent dependent : employee.getDependents()) {
+        Dependent storedDependent = dependent.getId() == null ? null : storedDependents.remove(dependent.getId());
+        if (storedDependent == null) {
+          // Ids of another employee's dependents are taken as new ones
+          dependent.setId(null);
+          dependent.setPhotoName(null);
+          dependent.setPhotoAddress(null);
+        } else {
+          dependent.setPhotoName(storedDependent.getPhotoName());
+          dependent.setPhotoAddress(storedDependent.getPhotoAddress());
+        }
+      }
+    }
+    storedDependents.values().forEach(dependent -> droppedPhotos.add(dependent.getPhotoAddress()));
+
+    Employee updatedEmployee = employeeRepository.save(employee);
+    for (String photoAddress : droppedPhotos) {
+      try {
+        blobStoreService.release(photoAddress);
+      } catch (IOException e) {
+        throw new InternalServerException("Failed to delete dependent photo at address: " + photoAddress, e);
+      }
+    }
+    return updatedEmployee;
+  }
+
+  // The employee is loaded once and changed in place; the flush writes only the changed columns
+  @Transactional
+  public Employee patchEmployee(Long id, JsonNode patch) {
+    Employee employee = getEmployeeById(id);
+    MergePatchUtil.apply(objectMapper, employee, patch, PATCH_FIELDS, Set.of("positionSalary"));
+
+    if (patch.has("positionSalary")) {
+      Long positionSalaryId = MergePatchUtil.referenceId(patch, "positionSalary");
+      employee.setPositionSalary(positionSalaryId == null ? null : referenceDataCache
+          .findPositionSalary(positionSalaryId)
+          .orElseThrow(() -> new NotFoundException("PositionSalary not found")));
+    }
+
+    validateEmployee(employee);
+    return employee;
   }
 
   public List<Employee> getEmployeesByPosition(String position) {
@@ -157,7 +246,8 @@ public class EmployeeService {
           new HashMap<>());
     }
 
-    if (hireDate.isBefore(birthDate)) {
+    // The hire date is optional, a patch may clear it
+    if (hireDate != null && hireDate.isBefore(birthDate)) {
       throw new ValidationException(
           "Hire date must be after birth date",
           new HashMap<>());
@@ -168,8 +258,9 @@ public class EmployeeService {
     if (positionSalary.getId() == null) {
       return positionSalaryRepository.save(positionSalary);
     } else {
-      return positionSalaryRepository
-          .findById(positionSalary.getId())
+      // The cached copy is enough, the employee only stores its id
+      return referenceDataCache
+          .findPositionSalary(positionSalary.getId())
           .orElseThrow(() -> new NotFoundException("PositionSalary not found"));
     }
   }
@@ -193,41 +284,52 @@ public class EmployeeService {
     }
   }
 
-  private void savePhoto(Person person, MultipartFile file) throws IOException {
-    final long MAX_SIZE = 5 * 1024 * 1024; // 5MB
-
-    if (file != null && !file.isEmpty()) {
-      if (file.getSize() > MAX_SIZE) {
-        throw new ValidationException(
-            "File size exceeds the maximum limit of " + MAX_SIZE / (1024 / 1024) + "MB.", new HashMap<>());
-      }
-      String originalFileName = file.getOriginalFilename();
-      String photoName = System.currentTimeMillis() + "_" + originalFileName;
-      String photoAddress = UPLOAD_FOLDER + photoName;
-
-      // Create the directory if it does not exist
-      Path directoryPath = Paths.get(UPLOAD_FOLDER);
-      if (!Files.exists(directoryPath)) {
-        Files.createDirectories(directoryPath);
-      }
-
-      // Save the file to the directory
-      Path filePath = Paths.get(photoAddress);
-      Files.write(filePath, file.getBytes());
+  // Copies the photo to the staging area and hashes it, both outside any transaction
+  private StagedPhoto stagePhoto(Person person, MultipartFile file) throws IOException {
+    if (file.getSize() > MAX_PHOTO_SIZE) {
+      throw FileStreamUtil.sizeExceeded(MAX_PHOTO_SIZE);
+    }
 
-      // Set the photo to the person
-      person.setPhotoName(photoName);
-      person.setPhotoAddress(photoAddress);
+    Path stagedPath;
+    try (InputStream inputStream = file.getInputStream()) {
+      stagedPath = blobStoreService.stage(inputStream, MAX_PHOTO_SIZE);
+    }
+    try {
+      return new StagedPhoto(person, file.getOriginalFilename(), stagedPath, blobStoreService.checksum(stagedPath));
+    } catch (IOException | RuntimeException e) {
+      blobStoreService.discard(stagedPath);
+      throw e;
     }
   }
 
-  private void processDependentFiles(Employee employee, Map<String, MultipartFile> files) throws IOException {
+  private void stageDependentFiles(Employee employee, Map<String, MultipartFile> files,
+      List<StagedPhoto> stagedPhotos) throws IOException {
     for (Dependent dependent : employee.getDependents()) {
       String key = "dependents[" + employee.getDependents().indexOf(dependent) + "].file";
       MultipartFile file = files.get(key);
       if (file != null && !file.isEmpty()) {
-        savePhoto(dependent, file);
+        stagedPhotos.add(stagePhoto(dependent, file));
       }
     }
   }
+
+  // Identical photos share one blob
+  private void storePhoto(StagedPhoto stagedPhoto) {
+    try {
+      Path photoAddress = blobStoreService.storeStaged(stagedPhoto.path(), stagedPhoto.checksum());
+      stagedPhoto.person().setPhotoName(stagedPhoto.fileName());
+      stagedPhoto.person().setPhotoAddress(photoAddress.toString());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Staged photos are deleted once stored; after a failure they are deleted here
+  private void discard(List<StagedPhoto> stagedPhotos) {
+    stagedPhotos.forEach(stagedPhoto -> blobStoreService.discard(stagedPhoto.path()));
+  }
+
+  // auxiliary types
+  private record StagedPhoto(Person person, String fileName, Path path, String checksum) {
+  }
 }
\ No newline at end of file
@@ -4,14 +4,16 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import com.pg.customercare.exception.impl.NotFoundException;
 import com.pg.customercare.model.Permission;
 import com.pg.customercare.repository.PermissionRepository;
 import com.pg.customercare.repository.RoleRepository;
+import com.pg.customercare.util.CountMode;
+import com.pg.customercare.util.PaginationUtil;
 import com.pg.customercare.util.Response;
 
 import jakarta.transaction.Transactional;
@@ -21,10 +23,15 @@ public class PermissionService {
 
     private final PermissionRepository permissionRepository;
     private final RoleRepository roleRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final TotalCountCache totalCountCache;
 
-    public PermissionService(PermissionRepository permissionRepository, RoleRepository roleRepository) {
+    public PermissionService(PermissionRepository permissionRepository, RoleRepository roleRepository,
+            ReferenceDataCache referenceDataCache, TotalCountCache totalCountCache) {
         this.permissionRepository = permissionRepository;
         this.roleRepository = roleRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.totalCountCache = totalCountCache;
     }
 
     @Transactional
@@ -39,26 +46,37 @@ public class PermissionService {
             throw new IllegalStateException("Cannot delete permission assigned to a role.");
         }
         permissionRepository.deleteById(id);
+        referenceDataCache.evictPermission(id);
+        // Roles are also searched by the names of their permissions
+        totalCountCache.invalidate(TotalCountCache.ROLES);
+        totalCountCache.invalidate(TotalCountCache.PERMISSIONS);
     }
 
     public Permission updatePermission(Permission permission) {
         if (!permissionRepository.existsById(permission.getId())) {
             throw new NotFoundException("Permission not found with id " + permission.getId());
         }
-        return permissionRepository.save(permission);
+        Permission updatedPermission = permissionRepository.save(permission);
+        referenceDataCache.evictPermission(updatedPermission.getId());
+        totalCountCache.invalidate(TotalCountCache.ROLES);
+        return updatedPermission;
     }
 
     public Permission savePermission(Permission permission) {
-        return permissionRepository.save(permission);
+        Permission savedPermission = permissionRepository.save(permission);
+        referenceDataCache.evictPermission(savedPermission.getId());
+        totalCountCache.invalidate(TotalCountCache.ROLES);
+        totalCountCache.invalidate(TotalCountCache.PERMISSIONS);
+        return savedPermission;
     }
 
     public Permission getPermissionById(Long id) {
-        return permissionRepository.findById(id)
+        return referenceDataCache.findPermission(id)
                 .orElseThrow(() -> new NotFoundException("Permission not found with id " + id));
     }
 
-    public Response<Permission> getAllPermissions(Pageable pageable) {
-        Page<Permission> page = permissionRepository.findAll(pageable);
+    public Response<Permission> getAllPermissions(Pageable pageable, CountMode countMode) {
+        Slice<Permission> page = permissionRepository.findSlice(pageable);
 
         // Transforming to ensure that the return is consistent with the expected
         // structure
@@ -72,12 +90,8 @@ public class PermissionService {
             return transformedPermission;
         }).collect(Collectors.toList());
 
-        return Response.<Permission>builder()
-                .items(permissions)
-                .itemsPerPage((long) pageable.getPageSize())
-                .currentPage((long) pageable.getPageNumber())
-                .totalRecordsQuantity(page.getTotalElements())
-                .build();
+        return PaginationUtil.toResponse(page, permissions, countMode, totalCountCache.counter(
+                countMode, TotalCountCache.PERMISSIONS, "all", permissionRepository::count));
     }
 
 }
@@ -1,10 +1,7 @@
 package com.pg.customercare.service;
 
 import java.util.HashMap;
-import java.util.List;
-import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
@@ -15,7 +12,10 @@ import com.pg.customercare.model.PositionSalary;
 import com.pg.customercare.model.Role;
 import com.pg.customercare.repository.PositionSalaryRepository;
 import com.pg.customercare.repository.RoleRepository;
+import com.pg.customercare.util.CountMode;
+import com.pg.customercare.util.PaginationUtil;
 import com.pg.customercare.util.Response;
+import com.pg.customercare.util.SearchMode;
 
 import jakarta.transaction.Transactional;
 
@@ -24,29 +24,41 @@ public class PositionSalaryService {
 
     private final PositionSalaryRepository positionSalaryRepository;
     private final RoleRepository roleRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final TotalCountCache totalCountCache;
 
-    public PositionSalaryService(PositionSalaryRepository positionSalaryRepository, RoleRepository roleRepository) {
+    public PositionSalaryService(PositionSalaryRepository positionSalaryRepository, RoleRepository roleRepository,
+            ReferenceDataCache referenceDataCache, TotalCountCache totalCountCache) {
         this.positionSalaryRepository = positionSalaryRepository;
         this.roleRepository = roleRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.totalCountCache = totalCountCache;
     }
 
-    public Response<PositionSalaryDTO> getAllPositionSalaries(Pageable pageable) {
-        Page<PositionSalary> page = positionSalaryRepository.findAll(pageable);
-        return convertPageToResponse(page, pageable);
+    public Response<PositionSalaryDTO> getAllPositionSalaries(Pageable pageable, CountMode countMode) {
+        return PaginationUtil.toResponse(positionSalaryRepository.findSummaries(pageable), countMode,
+                totalCountCache.counter(countMode, TotalCountCache.POSITION_SALARIES, "all",
+                        positionSalaryRepository::count));
     }
 
-    public Response<PositionSalaryDTO> getPositionSalariesByPosition(String position, Pageable pageable) {
-        Page<PositionSalary> page = positionSalaryRepository.findByPositionContainingIgnoreCase(position, pageable);
-        return convertPageToResponse(page, pageable);
+    public Response<PositionSalaryDTO> getPositionSalariesByPosition(String position, SearchMode mode,
+            Pageable pageable, CountMode countMode) {
+        String pattern = mode.toPattern(position);
+        return PaginationUtil.toResponse(positionSalaryRepository.findSummariesByPosition(pattern, pageable),
+                countMode, totalCountCache.counter(countMode, TotalCountCache.POSITION_SALARIES,
+                        "position:" + pattern, () -> positionSalaryRepository.countByPosition(pattern)));
     }
 
-    public Response<PositionSalaryDTO> getPositionSalariesByRoleName(String roleName, Pageable pageable) {
-        Page<PositionSalary> page = positionSalaryRepository.findByRoleName(roleName, pageable);
-        return convertPageToResponse(page, pageable);
+    public Response<PositionSalaryDTO> getPositionSalariesByRoleName(String roleName, SearchMode mode,
+            Pageable pageable, CountMode countMode) {
+        String pattern = mode.toPattern(roleName);
+        return PaginationUtil.toResponse(positionSalaryRepository.findSummariesByRoleName(pattern, pageable),
+                countMode, totalCountCache.counter(countMode, TotalCountCache.POSITION_SALARIES,
+                        "role:" + pattern, () -> positionSalaryRepository.countByRoleName(pattern)));
     }
 
     public PositionSalary getPositionSalaryById(Long id) {
-        return positionSalaryRepository.findById(id)
+        return referenceDataCache.findPositionSalary(id)
                 .orElseThrow(() -> new NotFoundException("Position Salary not found with id " + id));
     }
 
@@ -60,14 +72,18 @@ public class PositionSalaryService {
         if (role.getId() == null) {
             // If Role does not have an ID, persist it first
             role = roleRepository.save(role);
+            totalCountCache.invalidate(TotalCountCache.ROLES);
         } else {
-            // If Role already has an ID, merge it to ensure it is managed
-            role = roleRepository.findById(role.getId())
+            // If Role already has an ID, only its id is needed for the foreign key
+            role = referenceDataCache.findRole(role.getId())
                     .orElseThrow(() -> new NotFoundException("Role not found"));
         }
         positionSalary.setRole(role);
 
-        return positionSalaryRepository.save(positionSalary);
+        PositionSalary savedPositionSalary = positionSalaryRepository.save(positionSalary);
+        referenceDataCache.evictPositionSalary(savedPositionSalary.getId());
+        totalCountCache.invalidate(TotalCountCache.POSITION_SALARIES);
+        return savedPositionSalary;
     }
 
     public void deletePositionSalary(Long id) {
@@ -75,6 +91,8 @@ public class PositionSalaryService {
             throw new NotFoundException("Position not found with id " + id);
         }
         positionSalaryRepository.deleteById(id);
+        referenceDataCache.evictPositionSalary(id);
+        totalCountCache.invalidate(TotalCountCache.POSITION_SALARIES);
     }
 
     @Transactional
@@ -90,33 +108,18 @@ public class PositionSalaryService {
         if (role.getId() == null) {
             // If Role does not have an ID, persist it first
             role = roleRepository.save(role);
+            totalCountCache.invalidate(TotalCountCache.ROLES);
         } else {
             // If Role already has an ID, ensure it exists
-            role = roleRepository.findById(role.getId())
+            role = referenceDataCache.findRole(role.getId())
                     .orElseThrow(() -> new NotFoundException("Role not found"));
         }
         positionSalary.setRole(role);
 
-        return positionSalaryRepository.save(positionSalary);
-    }
-
-    // auxiliary methods
-    private Response<PositionSalaryDTO> convertPageToResponse(Page<PositionSalary> page, Pageable pageable) {
-        List<PositionSalaryDTO> positionSalaries = page.getContent().stream()
-                .map(positionSalary -> new PositionSalaryDTO(
-                        positionSalary.getId(),
-                        positionSalary.getPosition(),
-                        positionSalary.getSalary(),
-                        positionSalary.getCommission(),
-                        positionSalary.getRole().getName()))
-                .collect(Collectors.toList());
-
-        return Response.<PositionSalaryDTO>builder()
-                .items(positionSalaries)
-                .itemsPerPage((long) pageable.getPageSize())
-                .currentPage((long) pageable.getPageNumber())
-                .totalRecordsQuantity(page.getTotalElements())
-                .build();
+        PositionSalary updatedPositionSalary = positionSalaryRepository.save(positionSalary);
+        referenceDataCache.evictPositionSalary(updatedPositionSalary.getId());
+        totalCountCache.invalidate(TotalCountCache.POSITION_SALARIES);
+        return updatedPositionSalary;
     }
 
 }
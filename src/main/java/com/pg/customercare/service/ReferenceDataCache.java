@@ -0,0 +1,160 @@
+package com.pg.customercare.service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pg.customercare.model.Permission;
+import com.pg.customercare.model.PositionSalary;
+import com.pg.customercare.model.Role;
+import com.pg.customercare.repository.PermissionRepository;
+import com.pg.customercare.repository.PositionSalaryRepository;
+import com.pg.customercare.repository.RoleRepository;
+import com.pg.customercare.util.CacheUtil;
+import com.pg.customercare.util.TransactionUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Read-through cache of roles, permissions and position salaries.
+ *
+ * Entries are detached snapshots loaded with their associations, and every
+ * read returns a fresh copy, so callers may modify what they receive. The
+ * services evict an entry, and every snapshot that embeds it, after each write.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private final RoleRepository roleRepository;
+    private final PermissionRepository permissionRepository;
+    private final PositionSalaryRepository positionSalaryRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${reference-data.cache.max-size:1000}")
+    private long maxSize;
+
+    @Value("${reference-data.cache.ttl:PT10M}")
+    private Duration ttl;
+
+    private Cache<Long, Role> roles;
+    private Cache<Long, Permission> permissions;
+    private Cache<Long, PositionSalary> positionSalaries;
+
+    // Shared by the three caches, since evicting one entry may evict snapshots in the others
+    private final AtomicLong generation = new AtomicLong();
+
+    public ReferenceDataCache(RoleRepository roleRepository, PermissionRepository permissionRepository,
+            PositionSalaryRepository positionSalaryRepository, MeterRegistry meterRegistry) {
+        this.roleRepository = roleRepository;
+        this.permissionRepository = permissionRepository;
+        this.positionSalaryRepository = positionSalaryRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        roles = newCache("roles");
+        permissions = newCache("permissions");
+        positionSalaries = newCache("positionSalaries");
+    }
+
+    // Missing ids are not cached, so they are looked up again on the next call
+    public Optional<Role> findRole(Long id) {
+        Role role = CacheUtil.getOrLoad(roles, generation, id, key -> roleRepository.findWithPermissionsById(key)
+                .map(this::copyRole)
+                .orElse(null));
+        return Optional.ofNullable(role).map(this::copyRole);
+    }
+
+    public Optional<Permission> findPermission(Long id) {
+        Permission permission = CacheUtil.getOrLoad(permissions, generation, id, key -> permissionRepository.findById(key)
+                .map(this::copyPermission)
+                .orElse(null));
+        return Optional.ofNullable(permission).map(this::copyPermission);
+    }
+
+    public Optional<PositionSalary> findPositionSalary(Long id) {
+        PositionSalary positionSalary = CacheUtil.getOrLoad(positionSalaries, generation, id,
+                key -> positionSalaryRepository.findWithRoleById(key)
+                        .map(this::copyPositionSalary)
+                        .orElse(null));
+        return Optional.ofNullable(positionSalary).map(this::copyPositionSalary);
+    }
+
+    public void evictRole(Long id) {
+        TransactionUtil.runNowAndAfterCommit(() -> CacheUtil.invalidate(generation, () -> {
+            roles.invalidate(id);
+            positionSalaries.asMap().values()
+                    .removeIf(positionSalary -> positionSalary.getRole() != null
+                            && id.equals(positionSalary.getRole().getId()));
+        }));
+    }
+
+    public void evictPermission(Long id) {
+        TransactionUtil.runNowAndAfterCommit(() -> CacheUtil.invalidate(generation, () -> {
+            permissions.invalidate(id);
+            roles.asMap().values().removeIf(role -> containsPermission(role, id));
+            positionSalaries.asMap().values()
+                    .removeIf(positionSalary -> containsPermission(positionSalary.getRole(), id));
+        }));
+    }
+
+    public void evictPositionSalary(Long id) {
+        TransactionUtil.runNowAndAfterCommit(
+                () -> CacheUtil.invalidate(generation, () -> positionSalaries.invalidate(id)));
+    }
+
+    // auxiliary methods
+    private <V> Cache<Long, V> newCache(String name) {
+        Cache<Long, V> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        return cache;
+    }
+
+    private boolean containsPermission(Role role, Long permissionId) {
+        return role != null && role.getPermissions().stream()
+                .anyMatch(permission -> permissionId.equals(permission.getId()));
+    }
+
+    private Role copyRole(Role role) {
+        Role copy = new Role();
+        copy.setId(role.getId());
+        copy.setName(role.getName());
+        copy.setPermissionsVersion(role.getPermissionsVersion());
+        Set<Permission> permissionCopies = new HashSet<>();
+        role.getPermissions().forEach(permission -> permissionCopies.add(copyPermission(permission)));
+        copy.setPermissions(permissionCopies);
+        return copy;
+    }
+
+    // The inverse side is left empty, as in the permission listing
+    private Permission copyPermission(Permission permission) {
+        Permission copy = new Permission();
+        copy.setId(permission.getId());
+        copy.setName(permission.getName());
+        return copy;
+    }
+
+    private PositionSalary copyPositionSalary(PositionSalary positionSalary) {
+        PositionSalary copy = new PositionSalary();
+        copy.setId(positionSalary.getId());
+        copy.setPosition(positionSalary.getPosition());
+        copy.setSalary(positionSalary.getSalary());
+        copy.setCommission(positionSalary.getCommission());
+        copy.setRole(positionSalary.getRole() == null ? null : copyRole(positionSalary.getRole()));
+        return copy;
+    }
+}
@@ -1,22 +1,33 @@
 package com.pg.customercare.service;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import com.pg.customercare.dto.PermissionDTO;
 import com.pg.customercare.dto.RoleNameDTO;
+import com.pg.customercare.dto.RolePermissionDTO;
 import com.pg.customercare.exception.impl.NotFoundException;
 import com.pg.customercare.model.Permission;
 import com.pg.customercare.model.Role;
 import com.pg.customercare.repository.PermissionRepository;
 import com.pg.customercare.repository.RoleRepository;
+import com.pg.customercare.security.RoleVersionRegistry;
+import com.pg.customercare.util.CountMode;
+import com.pg.customercare.util.PaginationUtil;
 import com.pg.customercare.util.Response;
+import com.pg.customercare.util.SearchMode;
+import com.pg.customercare.util.TransactionUtil;
 
 import jakarta.transaction.Transactional;
 
@@ -25,44 +36,45 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
-
-    public RoleService(RoleRepository roleRepository, PermissionRepository permissionRepository) {
+    private final UserService userService;
+    private final RoleVersionRegistry roleVersionRegistry;
+    private final ReferenceDataCache referenceDataCache;
+    private final TotalCountCache totalCountCache;
+
+    public RoleService(RoleRepository roleRepository, PermissionRepository permissionRepository,
+            UserService userService, RoleVersionRegistry roleVersionRegistry,
+            ReferenceDataCache referenceDataCache, TotalCountCache totalCountCache) {
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
+        this.userService = userService;
+        this.roleVersionRegistry = roleVersionRegistry;
+        this.referenceDataCache = referenceDataCache;
+        this.totalCountCache = totalCountCache;
     }
 
-    public Response<RoleNameDTO> getAllRoles(Pageable pageable) {
-        Page<Role> page = roleRepository.findAll(pageable);
-
-        List<RoleNameDTO> roles = page.getContent().stream()
-                .map(role -> {
-                    List<PermissionDTO> permissions = role.getPermissions().stream()
-                            .map(permission -> new PermissionDTO(permission.getId(), permission.getName()))
-                            .collect(Collectors.toList());
-                    return new RoleNameDTO(role.getId(), role.getName(), permissions);
-                })
-                .collect(Collectors.toList());
-
-        return Response.<RoleNameDTO>builder()
-                .items(roles)
-                .itemsPerPage((long) pageable.getPageSize())
-                .currentPage((long) pageable.getPageNumber())
-                .totalRecordsQuantity(page.getTotalElements())
-                .build();
+    public Response<RoleNameDTO> getAllRoles(Pageable pageable, CountMode countMode) {
+        Slice<Long> ids = roleRepository.findIds(pageable);
+        return convertSliceToResponse(ids, countMode,
+                totalCountCache.counter(countMode, TotalCountCache.ROLES, "all", roleRepository::count));
     }
 
-    public Response<RoleNameDTO> getRolesByName(String name, Pageable pageable) {
-        Page<Role> page = roleRepository.findByNameContainingIgnoreCase(name, pageable);
-        return convertPageToResponse(page, pageable);
+    public Response<RoleNameDTO> getRolesByName(String name, SearchMode mode, Pageable pageable, CountMode countMode) {
+        String pattern = mode.toPattern(name);
+        Slice<Long> ids = roleRepository.findIdsByName(pattern, pageable);
+        return convertSliceToResponse(ids, countMode, totalCountCache.counter(countMode, TotalCountCache.ROLES,
+                "name:" + pattern, () -> roleRepository.countByName(pattern)));
     }
 
-    public Response<RoleNameDTO> getRolesByPermissionName(String permissionName, Pageable pageable) {
-        Page<Role> page = roleRepository.findByPermissionName(permissionName, pageable);
-        return convertPageToResponse(page, pageable);
+    public Response<RoleNameDTO> getRolesByPermissionName(String permissionName, SearchMode mode, Pageable pageable,
+            CountMode countMode) {
+        String pattern = mode.toPattern(permissionName);
+        Slice<Long> ids = roleRepository.findIdsByPermissionName(pattern, pageable);
+        return convertSliceToResponse(ids, countMode, totalCountCache.counter(countMode, TotalCountCache.ROLES,
+                "permission:" + pattern, () -> roleRepository.countByPermissionName(pattern)));
     }
 
     public Role getRoleById(Long id) {
-        return roleRepository.findById(id)
+        return referenceDataCache.findRole(id)
                 .orElseThrow(() -> new NotFoundException("Role not found with id " + id));
     }
 
@@ -83,7 +95,10 @@ public class RoleService {
             role.setPermissions(new HashSet<>());
         }
 
-        return roleRepository.save(role);
+        Role savedRole = roleRepository.save(role);
+        referenceDataCache.evictRole(savedRole.getId());
+        evictCounts();
+        return savedRole;
     }
 
     public void deleteRole(Long id) {
@@ -91,6 +106,10 @@ public class RoleService {
             throw new NotFoundException("Role not found with id " + id);
         }
         roleRepository.deleteById(id);
+        TransactionUtil.runNowAndAfterCommit(() -> userService.evictUsersWithRole(id));
+        TransactionUtil.runNowAndAfterCommit(() -> roleVersionRegistry.invalidate(id));
+        referenceDataCache.evictRole(id);
+        evictCounts();
     }
 
     @Transactional
@@ -111,26 +130,49 @@ public class RoleService {
             existingRole.getPermissions().addAll(newPermissions);
         }
 
-        return roleRepository.save(existingRole);
+        // Bump the version so tokens with the previous authorities are rejected
+        Long currentVersion = existingRole.getPermissionsVersion();
+        existingRole.setPermissionsVersion(currentVersion == null ? 1L : currentVersion + 1);
+
+        Role updatedRole = roleRepository.save(existingRole);
+        TransactionUtil.runNowAndAfterCommit(() -> userService.evictUsersWithRole(updatedRole.getId()));
+        TransactionUtil.runNowAndAfterCommit(() -> roleVersionRegistry.invalidate(updatedRole.getId()));
+        referenceDataCache.evictRole(updatedRole.getId());
+        evictCounts();
+        return updatedRole;
     }
 
-    // auxiliary method
-    private Response<RoleNameDTO> convertPageToResponse(Page<Role> page, Pageable pageable) {
-        List<RoleNameDTO> roles = page.getContent().stream()
-                .map(role -> {
-                    List<PermissionDTO> permissions = role.getPermissions().stream()
-                            .map(permission -> new PermissionDTO(permission.getId(), permission.getName()))
-                            .collect(Collectors.toList());
-                    return new RoleNameDTO(role.getId(), role.getName(), permissions);
-                })
+    // auxiliary methods
+    // Position salaries are also searched by the name of their role
+    private void evictCounts() {
+        totalCountCache.invalidate(TotalCountCache.ROLES);
+        totalCountCache.invalidate(TotalCountCache.POSITION_SALARIES);
+    }
+
+    // Loads the permissions of every role on the page with a single query, keeping the page order
+    private Response<RoleNameDTO> convertSliceToResponse(Slice<Long> ids, CountMode countMode, LongSupplier total) {
+        Map<Long, RoleNameDTO> rolesById = new LinkedHashMap<>();
+        ids.getContent().forEach(id -> rolesById.put(id, null));
+
+        if (ids.hasContent()) {
+            for (RolePermissionDTO row : roleRepository.findRolePermissions(ids.getContent())) {
+                RoleNameDTO role = rolesById.get(row.getRoleId());
+                if (role == null) {
+                    role = new RoleNameDTO(row.getRoleId(), row.getRoleName(), new ArrayList<>());
+                    rolesById.put(row.getRoleId(), role);
+                }
+                if (row.getPermissionId() != null) {
+                    role.getPermissions().add(new PermissionDTO(row.getPermissionId(), row.getPermissionName()));
+                }
+            }
+        }
+
+        // A role deleted between the two queries is left out of the page
+        List<RoleNameDTO> roles = rolesById.values().stream()
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
-        return Response.<RoleNameDTO>builder()
-                .items(roles)
-                .itemsPerPage((long) pageable.getPageSize())
-                .currentPage((long) pageable.getPageNumber())
-                .totalRecordsQuantity(page.getTotalElements())
-                .build();
+        return PaginationUtil.toResponse(ids, roles, countMode, total);
     }
 
 }
@@ -0,0 +1,198 @@
+package com.pg.customercare.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.pg.customercare.dto.TicketExportDTO;
+import com.pg.customercare.dto.TicketSlaDTO;
+import com.pg.customercare.event.TicketChangedEvent;
+import com.pg.customercare.event.TicketSlaEvent;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+import com.pg.customercare.repository.TicketRepository;
+import com.pg.customercare.util.TimingWheel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Watches the due date of every unresolved ticket and publishes a
+ * TicketSlaEvent when one nears or passes it.
+ *
+ * A ticket is due at the end of its due date. Open and escalated tickets are
+ * tracked; on-hold and closed ones are not. Their timers live in a timing wheel
+ * filled from the database at startup and kept current from TicketChangedEvents,
+ * so a tick only touches the timers that fire. Each node tracks every ticket
+ * and publishes its own events.
+ */
+@Service
+public class SlaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlaService.class);
+
+    private static final Set<Status> TRACKED_STATUSES = EnumSet.of(Status.OPEN, Status.ESCALATED);
+
+    private final TicketRepository ticketRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sla.tick:PT1M}")
+    private Duration tick;
+
+    @Value("${sla.wheel-size:60}")
+    private int wheelSize;
+
+    @Value("${sla.zone:UTC}")
+    private ZoneId zone;
+
+    // How long before the due date each priority gets its near-breach event
+    @Value("${sla.near-breach.high:PT24H}")
+    private Duration highPriorityWarning;
+
+    @Value("${sla.near-breach.medium:PT12H}")
+    private Duration mediumPriorityWarning;
+
+    @Value("${sla.near-breach.low:PT4H}")
+    private Duration lowPriorityWarning;
+
+    private final Map<Long, TrackedTicket> trackedTickets = new HashMap<>();
+    private final Map<TicketSlaEvent.Type, Counter> eventCounters = new EnumMap<>(TicketSlaEvent.Type.class);
+    private TimingWheel<SlaTimer> timers;
+
+    public SlaService(TicketRepository ticketRepository, ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.ticketRepository = ticketRepository;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private record SlaTimer(Long ticketId, TicketSlaEvent.Type type) {
+    }
+
+    private record TrackedTicket(LocalDate dueDate, Priority priority) {
+    }
+
+    // Runs before the web server starts, so no ticket change can be applied ahead of the load
+    @PostConstruct
+    public void init() {
+        Instant now = Instant.now();
+        timers = new TimingWheel<>(tick.toMillis(), wheelSize, now.toEpochMilli());
+
+        List<TicketSlaDTO> tickets = ticketRepository.findSlaTracked(TRACKED_STATUSES);
+        synchronized (this) {
+            // Deadlines passed while the application was down were reported before, or are past reporting
+            tickets.forEach(ticket -> track(ticket.getId(),
+                    new TrackedTicket(ticket.getDueDate(), ticket.getPriority()), now, false));
+        }
+
+        for (TicketSlaEvent.Type type : TicketSlaEvent.Type.values()) {
+            eventCounters.put(type, Counter.builder("tickets.sla.events")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("tickets.sla.tracked", this, SlaService::trackedCount).register(meterRegistry);
+        logger.info("SLA engine tracking {} tickets", tickets.size());
+    }
+
+    @Scheduled(fixedRateString = "${sla.tick:PT1M}")
+    public void tick() {
+        tick(Instant.now());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        TicketExportDTO ticket = event.ticket();
+        synchronized (this) {
+            if (ticket == null || ticket.getDueDate() == null || !TRACKED_STATUSES.contains(ticket.getStatus())) {
+                untrack(event.ticketId());
+                return;
+            }
+            // Edits that keep the due date and priority leave the timers, fired or not, as they are
+            TrackedTicket trackedTicket = new TrackedTicket(ticket.getDueDate(), ticket.getPriority());
+            if (!trackedTicket.equals(trackedTickets.get(event.ticketId()))) {
+                track(event.ticketId(), trackedTicket, Instant.now(), true);
+            }
+        }
+    }
+
+    public synchronized int trackedCount() {
+        return trackedTickets.size();
+    }
+
+    // Advances the wheel to the given time and publishes the events of every timer that fired
+    void tick(Instant now) {
+        List<TicketSlaEvent> events = new ArrayList<>();
+        synchronized (this) {
+            for (SlaTimer timer : timers.advance(now.toEpochMilli())) {
+                TrackedTicket trackedTicket = trackedTickets.get(timer.ticketId());
+                if (trackedTicket != null) {
+                    events.add(new TicketSlaEvent(timer.ticketId(), timer.type(),
+                            trackedTicket.priority(), trackedTicket.dueDate()));
+                }
+            }
+        }
+
+        // Published outside the lock, so a slow listener never holds up ticket changes
+        for (TicketSlaEvent event : events) {
+            eventCounters.get(event.type()).increment();
+            logger.warn("Ticket {} {} (priority {}, due {})",
+                    event.ticketId(), event.type(), event.priority(), event.dueDate());
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    // auxiliary methods
+    private void track(Long ticketId, TrackedTicket trackedTicket, Instant now, boolean firePassed) {
+        trackedTickets.put(ticketId, trackedTicket);
+
+        Instant breachAt = trackedTicket.dueDate().plusDays(1).atStartOfDay(zone).toInstant();
+        Instant nearBreachAt = breachAt.minus(warningFor(trackedTicket.priority()));
+
+        // A ticket already past its due date only reports the breach
+        schedule(new SlaTimer(ticketId, TicketSlaEvent.Type.NEAR_BREACH), nearBreachAt,
+                breachAt.isAfter(now) && (firePassed || nearBreachAt.isAfter(now)));
+        schedule(new SlaTimer(ticketId, TicketSlaEvent.Type.BREACH), breachAt,
+                firePassed || breachAt.isAfter(now));
+    }
+
+    private void schedule(SlaTimer timer, Instant at, boolean enabled) {
+        if (enabled) {
+            timers.schedule(timer, at.toEpochMilli());
+        } else {
+            timers.cancel(timer);
+        }
+    }
+
+    private void untrack(Long ticketId) {
+        if (trackedTickets.remove(ticketId) != null) {
+            timers.cancel(new SlaTimer(ticketId, TicketSlaEvent.Type.NEAR_BREACH));
+            timers.cancel(new SlaTimer(ticketId, TicketSlaEvent.Type.BREACH));
+        }
+    }
+
+    private Duration warningFor(Priority priority) {
+        if (priority == Priority.HIGH) {
+            return highPriorityWarning;
+        }
+        return priority == Priority.LOW ? lowPriorityWarning : mediumPriorityWarning;
+    }
+}
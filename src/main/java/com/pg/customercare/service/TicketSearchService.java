@@ -0,0 +1,335 @@
+package com.pg.customercare.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pg.customercare.dto.TicketExportDTO;
+import com.pg.customercare.dto.TicketSearchHitDTO;
+import com.pg.customercare.event.TicketChangedEvent;
+import com.pg.customercare.exception.impl.BadRequestException;
+import com.pg.customercare.exception.impl.InternalServerException;
+import com.pg.customercare.repository.TicketRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Full-text index over the ticket text, kept in a local Lucene directory.
+ *
+ * Ticket changes are applied after their transaction commits and become
+ * searchable at the next refresh. The index can always be rebuilt from the
+ * database, so a lost or corrupted directory only costs a rebuild. A rebuild
+ * rewrites the documents in place and keeps serving searches meanwhile; each
+ * document carries the generation of the rebuild it was written in, so what
+ * was not rewritten is known to be gone from the table.
+ */
+@Service
+public class TicketSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketSearchService.class);
+
+    private static final int MAX_RESULTS = 50;
+
+    private static final String ID = "id";
+    private static final String SUBJECT = "subject";
+    private static final String CONTACT_NAME = "contactName";
+    private static final String DESCRIPTION = "description";
+    private static final String SOLUTION = "solution";
+    private static final String STATUS = "status";
+    private static final String OPENING_DATE = "openingDate";
+    private static final String GENERATION = "generation";
+
+    // Matches in the subject weigh more than matches in the free text
+    private static final Map<String, Float> BOOSTS = Map.of(
+            SUBJECT, 3f, CONTACT_NAME, 2f, DESCRIPTION, 1f, SOLUTION, 1f);
+
+    private final TicketRepository ticketRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    // Stored in the commit data, so generations keep increasing across restarts
+    private final AtomicLong generation = new AtomicLong();
+
+    // Latest change per ticket while a rebuild streams its snapshot, an empty value for a delete;
+    // null when no rebuild runs. Guarded by changeLock, which also orders the index writes
+    private final Object changeLock = new Object();
+    private Map<Long, Optional<TicketExportDTO>> changesDuringRebuild;
+
+    @Value("${search.tickets.index-dir}")
+    private String indexDir;
+
+    private FSDirectory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+
+    public TicketSearchService(TicketRepository ticketRepository, PlatformTransactionManager transactionManager) {
+        this.ticketRepository = ticketRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path indexPath = Files.createDirectories(Paths.get(indexDir));
+        directory = FSDirectory.open(indexPath);
+        indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(indexWriter, null);
+
+        Iterable<Map.Entry<String, String>> commitData = indexWriter.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (GENERATION.equals(entry.getKey())) {
+                    generation.set(Long.parseLong(entry.getValue()));
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        rebuildExecutor.shutdownNow();
+        searcherManager.close();
+        indexWriter.close();
+        directory.close();
+    }
+
+    // A fresh or wiped index directory is filled in the background on startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (indexWriter.getDocStats().numDocs == 0 && ticketRepository.count() > 0) {
+            rebuildAsync();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        synchronized (changeLock) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(event.ticketId(), Optional.ofNullable(event.ticket()));
+            }
+            try {
+                apply(event.ticketId(), event.ticket());
+            } catch (IOException e) {
+                // The database is the source of truth; a rebuild repairs the index
+                logger.error("Failed to index ticket {}", event.ticketId(), e);
+            }
+        }
+    }
+
+    public List<TicketSearchHitDTO> search(String text, int size) {
+        if (text == null || text.isBlank()) {
+            throw new BadRequestException("Search text is required");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_RESULTS));
+
+        Query query = parse(text);
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(query, limit);
+            StoredFields storedFields = searcher.storedFields();
+
+            List<TicketSearchHitDTO> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document document = storedFields.document(scoreDoc.doc);
+                hits.add(new TicketSearchHitDTO(
+                        Long.valueOf(document.get(ID)),
+                        document.get(SUBJECT),
+                        document.get(CONTACT_NAME),
+                        document.get(STATUS),
+                        document.get(OPENING_DATE),
+                        scoreDoc.score));
+            }
+            return hits;
+        } catch (IOException e) {
+            throw new InternalServerException("Failed to search tickets", e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    // Returns false when a rebuild is already running
+    public boolean rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildExecutor.execute(() -> {
+            try {
+                long indexed = rebuild();
+                logger.info("Ticket search index rebuilt with {} tickets", indexed);
+            } catch (RuntimeException | IOException e) {
+                logger.error("Failed to rebuild the ticket search index", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Brings the index in line with the ticket table without emptying it first,
+     * so searches and intermediate commits always see a complete index. Changes
+     * committed while the snapshot is streamed are applied again on top of it,
+     * and documents the rebuild did not write are deleted at the end.
+     */
+    long rebuild() throws IOException {
+        long rebuildGeneration;
+        synchronized (changeLock) {
+            changesDuringRebuild = new HashMap<>();
+            rebuildGeneration = generation.incrementAndGet();
+        }
+        indexWriter.setLiveCommitData(Map.of(GENERATION, Long.toString(rebuildGeneration)).entrySet());
+        try {
+            Long indexed = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<TicketExportDTO> tickets = ticketRepository.streamAllForExport()) {
+                    for (TicketExportDTO ticket : (Iterable<TicketExportDTO>) tickets::iterator) {
+                        index(ticket);
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+
+            synchronized (changeLock) {
+                // The snapshot may predate these changes, e.g. still hold a ticket deleted meanwhile
+                for (Map.Entry<Long, Optional<TicketExportDTO>> change : changesDuringRebuild.entrySet()) {
+                    apply(change.getKey(), change.getValue().orElse(null));
+                }
+                indexWriter.deleteDocuments(new BooleanQuery.Builder()
+                        .add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+                        .add(LongPoint.newRangeQuery(GENERATION, rebuildGeneration, Long.MAX_VALUE),
+                                BooleanClause.Occur.MUST_NOT)
+                        .build());
+            }
+            indexWriter.commit();
+            searcherManager.maybeRefresh();
+            return indexed == null ? 0 : indexed;
+        } finally {
+            synchronized (changeLock) {
+                changesDuringRebuild = null;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.tickets.refresh-interval-ms:1000}")
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+
+    @Scheduled(fixedDelayString = "${search.tickets.commit-interval-ms:30000}")
+    public void commit() throws IOException {
+        if (indexWriter.hasUncommittedChanges()) {
+            indexWriter.commit();
+        }
+    }
+
+    // auxiliary methods
+    private void apply(Long ticketId, TicketExportDTO ticket) throws IOException {
+        if (ticket == null) {
+            indexWriter.deleteDocuments(new Term(ID, ticketId.toString()));
+        } else {
+            index(ticket);
+        }
+    }
+
+    private void index(TicketExportDTO ticket) throws IOException {
+        String id = ticket.getId().toString();
+        Document document = new Document();
+        document.add(new StringField(ID, id, Field.Store.YES));
+        document.add(new LongPoint(GENERATION, generation.get()));
+        addText(document, SUBJECT, ticket.getSubject(), Field.Store.YES);
+        addText(document, CONTACT_NAME, ticket.getContactName(), Field.Store.YES);
+        addText(document, DESCRIPTION, ticket.getDescription(), Field.Store.NO);
+        addText(document, SOLUTION, ticket.getSolution(), Field.Store.NO);
+        if (ticket.getStatus() != null) {
+            document.add(new StoredField(STATUS, ticket.getStatus().name()));
+        }
+        if (ticket.getOpeningDate() != null) {
+            document.add(new StoredField(OPENING_DATE, ticket.getOpeningDate().toString()));
+        }
+        indexWriter.updateDocument(new Term(ID, id), document);
+    }
+
+    private void addText(Document document, String field, String value, Field.Store store) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, store));
+        }
+    }
+
+    // User text is escaped and every term must match, which keeps queries cheap and predictable
+    private Query parse(String text) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                BOOSTS.keySet().toArray(new String[0]), analyzer, BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            return parser.parse(QueryParser.escape(text));
+        } catch (ParseException e) {
+            throw new BadRequestException("Invalid search text: " + text, e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            logger.warn("Failed to release index searcher", e);
+        }
+    }
+}
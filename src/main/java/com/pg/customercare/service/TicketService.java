@@ -1,82 +1,320 @@
 package com.pg.customercare.service;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pg.customercare.dto.FileDownloadDTO;
+import com.pg.customercare.dto.TicketBulkUpdateDTO;
+import com.pg.customercare.dto.TicketBulkUpdateReportDTO;
+import com.pg.customercare.dto.TicketCountKeyDTO;
+import com.pg.customercare.dto.TicketExportDTO;
+import com.pg.customercare.dto.TicketFilterDTO;
+import com.pg.customercare.dto.TicketSummaryDTO;
+import com.pg.customercare.event.TicketChangedEvent;
+import com.pg.customercare.exception.impl.BadRequestException;
+import com.pg.customercare.exception.impl.InternalServerException;
 import com.pg.customercare.exception.impl.NotFoundException;
-import com.pg.customercare.exception.impl.ValidationException;
+import com.pg.customercare.model.Employee;
 import com.pg.customercare.model.Ticket;
 import com.pg.customercare.model.TicketFiles;
+import com.pg.customercare.model.ENUM.AttachmentStatus;
 import com.pg.customercare.model.ENUM.Status;
+import com.pg.customercare.repository.EmployeeRepository;
 import com.pg.customercare.repository.TicketFilesRepository;
 import com.pg.customercare.repository.TicketRepository;
+import com.pg.customercare.service.AttachmentPipelineService.StagedFile;
+import com.pg.customercare.util.CursorResponse;
+import com.pg.customercare.util.FileStreamUtil;
+import com.pg.customercare.util.KeysetCursor;
+import com.pg.customercare.util.MergePatchUtil;
+import com.pg.customercare.util.PaginationUtil;
 
 @Service
 public class TicketService {
 
     private final TicketRepository ticketRepository;
     private final TicketFilesRepository ticketFilesRepository;
+    private final ObjectMapper objectMapper;
+    private final BlobStoreService blobStoreService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AttachmentPipelineService attachmentPipelineService;
+    private final TicketStatsService ticketStatsService;
+    private final TicketStreamService ticketStreamService;
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
 
-    public TicketService(TicketRepository ticketRepository, TicketFilesRepository ticketFilesRepository) {
+    @Value("${tickets.bulk.chunk-size:500}")
+    private int bulkChunkSize = 500;
+
+    @Value("${tickets.bulk.max-tickets:5000}")
+    private int bulkMaxTickets = 5000;
+
+    public TicketService(TicketRepository ticketRepository, TicketFilesRepository ticketFilesRepository,
+            EmployeeRepository employeeRepository, ObjectMapper objectMapper, BlobStoreService blobStoreService, ApplicationEventPublisher eventPublisher,
+            AttachmentPipelineService attachmentPipelineService, TicketStatsService ticketStatsService,
+            TicketStreamService ticketStreamService, PlatformTransactionManager transactionManager) {
         this.ticketRepository = ticketRepository;
         this.ticketFilesRepository = ticketFilesRepository;
+        this.employeeRepository = employeeRepository;
+        this.objectMapper = objectMapper;
+        this.blobStoreService = blobStoreService;
+        this.eventPublisher = eventPublisher;
+        this.attachmentPipelineService = attachmentPipelineService;
+        this.ticketStatsService = ticketStatsService;
+        this.ticketStreamService = ticketStreamService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    private final String UPLOAD_FOLDER = "C:\\TicketFiles\\";
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+    // Columns a merge patch may set; customer and files keep going through the full update
+    private static final Set<String> PATCH_FIELDS = Set.of(
+            "contactName", "subject", "description", "openingDate", "dueDate",
+            "classification", "priority", "status", "solution");
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
 
-    @Transactional
+    // Uploads are copied to disk before the transaction opens; it only inserts the rows,
+    // and the attachments are processed by the pipeline once the ticket has committed
     public Ticket createTicket(Ticket ticket, MultipartFile[] files) {
 
         ticket.setStatus(Status.OPEN);
+        // Attachments only come from the uploads; bound rows could point at another owner's blob
+        ticket.setTicketFiles(null);
 
         validateTicket(ticket);
 
-        var savedTicket = ticketRepository.save(ticket);
+        List<StagedFile> stagedFiles = stageFiles(files);
 
-        if (files != null && files.length > 0) {
-            saveFiles(savedTicket, files);
-        }
+        try {
+            return transactionTemplate.execute(status -> {
+                var savedTicket = ticketRepository.save(ticket);
+
+                if (!stagedFiles.isEmpty()) {
+                    attachmentPipelineService.enqueue(savedTicket, stagedFiles);
+                }
 
-        return savedTicket;
+                recordChange(savedTicket.getId(), null, countKey(savedTicket));
+                publishChange(savedTicket);
+                return savedTicket;
+            });
+        } catch (RuntimeException e) {
+            stagedFiles.forEach(stagedFile -> blobStoreService.discard(stagedFile.path()));
+            throw e;
+        }
     }
 
     public Ticket getTicketById(Long id) {
-        return ticketRepository.findById(id)
+        return ticketRepository.findWithDetailsById(id)
                 .orElseThrow(() -> new NotFoundException("Ticket not found with id " + id));
     }
 
-    public List<Ticket> getAllTickets() {
-        return ticketRepository.findAll();
+    public FileDownloadDTO getTicketFile(Long ticketId, Long fileId) {
+        TicketFiles ticketFile = findReadyFile(ticketId, fileId);
+        try {
+            return blobStoreService.describe(ticketFile.getFileName(), ticketFile.getFilePath());
+        } catch (IOException e) {
+            throw new InternalServerException("Failed to read ticket file at: " + ticketFile.getFilePath(), e);
+        }
     }
 
-    public void deleteTicket(Long id) {
-        if (!ticketRepository.existsById(id)) {
-            throw new NotFoundException("Ticket not found with id " + id);
+    public FileDownloadDTO getTicketFileThumbnail(Long ticketId, Long fileId) {
+        TicketFiles ticketFile = findReadyFile(ticketId, fileId);
+        if (ticketFile.getThumbnailPath() == null) {
+            throw new NotFoundException("No thumbnail for file with id " + fileId);
+        }
+        try {
+            return blobStoreService.describe("thumbnail-" + ticketFile.getFileName() + ".png",
+                    ticketFile.getThumbnailPath());
+        } catch (IOException e) {
+            throw new InternalServerException("Failed to read thumbnail at: " + ticketFile.getThumbnailPath(), e);
+        }
+    }
+
+    public CursorResponse<TicketSummaryDTO> getTickets(TicketFilterDTO filter, String cursor, int size) {
+        int pageSize = PaginationUtil.clampPageSize(size);
+
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor keysetCursor = KeysetCursor.decode(cursor);
+            cursorDate = keysetCursor.keyAsDate();
+            cursorId = keysetCursor.id();
+        }
+
+        List<TicketSummaryDTO> rows = ticketRepository.findSummaries(
+                filter.getStatus(),
+                filter.getPriority(),
+                filter.getClassification(),
+                filter.getCustomerId(),
+                filter.getEmployeeId(),
+                cursorDate,
+                cursorId,
+                PaginationUtil.createKeysetRequest(pageSize));
+
+        return PaginationUtil.toCursorResponse(rows, pageSize,
+                last -> KeysetCursor.encode(last.getOpeningDate(), last.getId()));
+    }
+
+    // Writes every ticket as newline-delimited JSON without materializing the table
+    @Transactional(readOnly = true)
+    public long exportTickets(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TicketExportDTO.class);
+        long count = 0;
+
+        try (Stream<TicketExportDTO> tickets = ticketRepository.streamAllForExport()) {
+            Iterator<TicketExportDTO> iterator = tickets.iterator();
+            while (iterator.hasNext()) {
+                outputStream.write(writer.writeValueAsBytes(iterator.next()));
+                outputStream.write('\n');
+                if (++count % EXPORT_FLUSH_INTERVAL == 0) {
+                    outputStream.flush();
+                }
+            }
         }
+
+        outputStream.flush();
+        return count;
+    }
+
+    @Transactional
+    public void deleteTicket(Long id) {
+        TicketCountKeyDTO previous = ticketRepository.findCountKeyById(id)
+                .orElseThrow(() -> new NotFoundException("Ticket not found with id " + id));
+        // Locked so the attachment pipeline cannot store one of them after it was read
+        List<TicketFiles> ticketFiles = ticketFilesRepository.lockByTicketId(id);
         ticketRepository.deleteById(id);
+        recordChange(id, previous, null);
+        eventPublisher.publishEvent(new TicketChangedEvent(id, null));
+        releaseFiles(ticketFiles);
     }
 
-    public Ticket updateTicket(Ticket ticket) {
-        if (!ticketRepository.existsById(ticket.getId())) {
-            throw new NotFoundException("Ticket not found with id " + ticket.getId());
+    // The ticket is loaded once and changed in place, so a status change flushes as one narrow UPDATE
+    @Transactional
+    public Ticket patchTicket(Long id, JsonNode patch) {
+        Ticket ticket = ticketRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Ticket not found with id " + id));
+        TicketCountKeyDTO previous = countKey(ticket);
+        MergePatchUtil.apply(objectMapper, ticket, patch, PATCH_FIELDS, Set.of("ticketOwner"));
+
+        if (patch.has("ticketOwner")) {
+            Long ownerId = MergePatchUtil.referenceId(patch, "ticketOwner");
+            if (ownerId != null && !employeeRepository.existsById(ownerId)) {
+                throw new NotFoundException("Employee not found with id " + ownerId);
+            }
+            ticket.setTicketOwner(ownerId == null ? null : employeeRepository.getReferenceById(ownerId));
         }
+
+        validateTicket(ticket);
+        recordChange(id, previous, countKey(ticket));
+        publishChange(ticket);
+        return ticket;
+    }
+
+    // Shift handovers change hundreds of tickets at once. Each chunk is read with one query and
+    // changed with at most two UPDATE statements in its own transaction. Tickets that already have
+    // the requested status or owner are left alone, so a request that failed halfway can be repeated
+    public TicketBulkUpdateReportDTO bulkUpdateTickets(TicketBulkUpdateDTO request) {
+        List<Long> ids = resolveBulkUpdateIds(request);
+        if (request.getTicketOwnerId() != null && !employeeRepository.existsById(request.getTicketOwnerId())) {
+            throw new NotFoundException("Employee not found with id " + request.getTicketOwnerId());
+        }
+
+        TicketBulkUpdateReportDTO report = new TicketBulkUpdateReportDTO();
+        for (int from = 0; from < ids.size(); from += bulkChunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + bulkChunkSize, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> bulkUpdateChunk(chunk, request, report));
+        }
+        return report;
+    }
+
+    @Transactional
+    public Ticket updateTicket(Ticket ticket) {
+        TicketCountKeyDTO previous = ticketRepository.findCountKeyById(ticket.getId())
+                .orElseThrow(() -> new NotFoundException("Ticket not found with id " + ticket.getId()));
         validateTicket(ticket);
-        return ticketRepository.save(ticket);
+
+        // The files in the body only say which attachments to keep. The managed rows are merged
+        // in their place, since the body's copies lack the ticket and the pipeline's columns
+        Set<Long> keptFileIds = new HashSet<>();
+        if (ticket.getTicketFiles() != null) {
+            ticket.getTicketFiles().forEach(ticketFile -> keptFileIds.add(ticketFile.getId()));
+        }
+        List<TicketFiles> keptFiles = new ArrayList<>();
+        List<TicketFiles> droppedFiles = new ArrayList<>();
+        for (TicketFiles ticketFile : ticketFilesRepository.lockByTicketId(ticket.getId())) {
+            (keptFileIds.contains(ticketFile.getId()) ? keptFiles : droppedFiles).add(ticketFile);
+        }
+        ticket.setTicketFiles(keptFiles);
+
+        Ticket updatedTicket = ticketRepository.save(ticket);
+        recordChange(updatedTicket.getId(), previous, countKey(updatedTicket));
+        publishChange(updatedTicket);
+
+        // files left out of the update are removed as orphans, so their blobs lose a reference
+        releaseFiles(droppedFiles);
+        return updatedTicket;
+    }
+
+    // Auxiliary methods
+    // The blob files themselves are only deleted once the transaction commits
+    private void releaseFiles(List<TicketFiles> ticketFiles) {
+        for (TicketFiles ticketFile : ticketFiles) {
+            try {
+                blobStoreService.release(ticketFile.getFilePath());
+                blobStoreService.release(ticketFile.getThumbnailPath());
+            } catch (IOException e) {
+                throw new InternalServerException("Failed to release ticket file at: " + ticketFile.getFilePath(), e);
+            }
+        }
+    }
+
+    private void recordChange(Long ticketId, TicketCountKeyDTO previous, TicketCountKeyDTO current) {
+        ticketStatsService.record(previous, current);
+        ticketStreamService.publish(ticketId, previous, current);
+    }
+
+    private TicketCountKeyDTO countKey(TicketExportDTO ticket) {
+        return new TicketCountKeyDTO(ticket.getStatus(), ticket.getPriority(), ticket.getClassification(),
+                ticket.getTicketOwnerId());
+    }
+
+    private TicketCountKeyDTO countKey(Ticket ticket) {
+        return new TicketCountKeyDTO(ticket.getStatus(), ticket.getPriority(), ticket.getClassification(),
+                ticket.getTicketOwner() == null ? null : ticket.getTicketOwner().getId());
+    }
+
+    private void publishChange(Ticket ticket) {
+        eventPublisher.publishEvent(new TicketChangedEvent(ticket.getId(), new TicketExportDTO(
+                ticket.getId(), ticket.getContactName(), ticket.getSubject(), ticket.getDescription(),
+                ticket.getOpeningDate(), ticket.getDueDate(), ticket.getClassification(), ticket.getPriority(),
+                ticket.getStatus(), ticket.getSolution(),
+                ticket.getCustomer() == null ? null : ticket.getCustomer().getId(),
+                ticket.getTicketOwner() == null ? null : ticket.getTicketOwner().getId())));
     }
 
-    // Auxiliary method
     private void validateTicket(Ticket ticket) {
         Map<Boolean, String> validations = new LinkedHashMap<>();
         validations.put(ticket.getCustomer() == null, "Customer is required");
@@ -94,48 +332,120 @@ public class TicketService {
         });
     }
 
-    // save files
-    private void saveFiles(Ticket ticket, MultipartFile[] files) {
-        final long MAX_SIZE = 10 * 1024 * 1024; // 10MB
+    private List<Long> resolveBulkUpdateIds(TicketBulkUpdateDTO request) {
+        if (request.getStatus() == null && request.getTicketOwnerId() == null) {
+            throw new BadRequestException("Nothing to update: set status, ticketOwnerId or both");
+        }
+        if ((request.getIds() == null) == (request.getFilter() == null)) {
+            throw new BadRequestException("Select the tickets with either ids or filter");
+        }
 
-        List<TicketFiles> ticketFilesList = new ArrayList<>();
+        List<Long> ids;
+        if (request.getIds() != null) {
+            ids = request.getIds().stream().filter(Objects::nonNull).distinct().toList();
+        } else {
+            TicketFilterDTO filter = request.getFilter();
+            ids = ticketRepository.findIds(filter.getStatus(), filter.getPriority(), filter.getClassification(),
+                    filter.getCustomerId(), filter.getEmployeeId(), PageRequest.of(0, bulkMaxTickets + 1));
+        }
+        if (ids.size() > bulkMaxTickets) {
+            throw new BadRequestException("A bulk update can change at most " + bulkMaxTickets + " tickets");
+        }
+        return ids;
+    }
 
-        for (MultipartFile file : files) {
-            if (file.getSize() > MAX_SIZE) {
-                throw new ValidationException(
-                        "File size exceeds the maximum limit of " + MAX_SIZE / (1024 * 1024) + "MB.",
-                        new HashMap<>());
+    private void bulkUpdateChunk(List<Long> ids, TicketBulkUpdateDTO request, TicketBulkUpdateReportDTO report) {
+        // Locked before the read: the stats and the search index are given these values as the tickets' current
+        // ones, so an edit committed in between would be lost there. The read is the transaction's first plain
+        // one, so it sees every edit committed before the lock
+        ticketRepository.lockByIdIn(ids);
+        List<TicketExportDTO> tickets = ticketRepository.findExportByIdIn(ids);
+        Set<Long> statusIds = new HashSet<>();
+        Set<Long> ownerIds = new HashSet<>();
+        for (TicketExportDTO ticket : tickets) {
+            if (request.getStatus() != null && ticket.getStatus() != request.getStatus()) {
+                statusIds.add(ticket.getId());
+            }
+            if (request.getTicketOwnerId() != null && !request.getTicketOwnerId().equals(ticket.getTicketOwnerId())) {
+                ownerIds.add(ticket.getId());
             }
+        }
 
-            try {
-                String originalFileName = file.getOriginalFilename();
-                String fileName = System.currentTimeMillis() + "_" + originalFileName;
-                String fileAddress = UPLOAD_FOLDER + fileName;
-
-                // Create the directory if it does not exist
-                Path directoryPath = Paths.get(UPLOAD_FOLDER);
-                if (!Files.exists(directoryPath)) {
-                    Files.createDirectories(directoryPath);
-                }
+        report.setMatched(report.getMatched() + tickets.size());
+        if (!statusIds.isEmpty()) {
+            report.setStatusChanged(report.getStatusChanged()
+                    + ticketRepository.updateStatus(statusIds, request.getStatus()));
+        }
+        if (!ownerIds.isEmpty()) {
+            Employee owner = employeeRepository.getReferenceById(request.getTicketOwnerId());
+            report.setReassigned(report.getReassigned() + ticketRepository.updateOwner(ownerIds, owner));
+        }
+
+        // The UPDATE statements bypass the entities, so the listeners are told here
+        List<Long> changedIds = new ArrayList<>();
+        for (TicketExportDTO ticket : tickets) {
+            boolean statusChanged = statusIds.contains(ticket.getId());
+            boolean reassigned = ownerIds.contains(ticket.getId());
+            if (!statusChanged && !reassigned) {
+                continue;
+            }
+            TicketCountKeyDTO previous = countKey(ticket);
+            if (statusChanged) {
+                ticket.setStatus(request.getStatus());
+            }
+            if (reassigned) {
+                ticket.setTicketOwnerId(request.getTicketOwnerId());
+            }
+            ticketStatsService.record(previous, countKey(ticket));
+            eventPublisher.publishEvent(new TicketChangedEvent(ticket.getId(), ticket));
+            changedIds.add(ticket.getId());
+        }
+        // One stream message per chunk, rather than one per ticket that would overflow the subscriber buffers
+        if (!changedIds.isEmpty()) {
+            ticketStreamService.publishBulk(changedIds, request.getStatus(), request.getTicketOwnerId());
+        }
+    }
 
-                // save file to the directory
-                Path filePath = Paths.get(fileAddress);
-                Files.write(filePath, file.getBytes());
+    // Files still in the pipeline, or that failed in it, cannot be downloaded
+    private TicketFiles findReadyFile(Long ticketId, Long fileId) {
+        TicketFiles ticketFile = ticketFilesRepository.findByIdAndTicketId(fileId, ticketId)
+                .orElseThrow(() -> new NotFoundException("File not found with id " + fileId));
+        if (ticketFile.getStatus() == AttachmentStatus.PENDING) {
+            throw new NotFoundException("File with id " + fileId + " is still being processed");
+        }
+        if (ticketFile.getStatus() == AttachmentStatus.FAILED) {
+            throw new NotFoundException("File with id " + fileId + " could not be processed");
+        }
+        return ticketFile;
+    }
 
-                // create ticket file and associate it with the ticket
-                TicketFiles ticketFile = new TicketFiles();
-                ticketFile.setFileName(fileName);
-                ticketFile.setFilePath(filePath.toString());
-                ticketFile.setTicket(ticket);
+    // stage files
+    private List<StagedFile> stageFiles(MultipartFile[] files) {
+        List<StagedFile> stagedFiles = new ArrayList<>();
+        if (files == null) {
+            return stagedFiles;
+        }
 
-                ticketFilesList.add(ticketFile);
+        try {
+            for (MultipartFile file : files) {
+                // Reject early when the declared size is already too big
+                if (file.getSize() > MAX_FILE_SIZE) {
+                    throw FileStreamUtil.sizeExceeded(MAX_FILE_SIZE);
+                }
 
-            } catch (IOException e) {
-                throw new IllegalArgumentException("Error saving file: " + file.getOriginalFilename(), e);
+                try (InputStream inputStream = file.getInputStream()) {
+                    Path stagedPath = blobStoreService.stage(inputStream, MAX_FILE_SIZE);
+                    stagedFiles.add(new StagedFile(file.getOriginalFilename(), stagedPath));
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("Error saving file: " + file.getOriginalFilename(), e);
+                }
             }
+        } catch (RuntimeException e) {
+            stagedFiles.forEach(stagedFile -> blobStoreService.discard(stagedFile.path()));
+            throw e;
         }
 
-        ticketFilesRepository.saveAll(ticketFilesList);
+        return stagedFiles;
     }
 
 }
@@ -0,0 +1,211 @@
+package com.pg.customercare.service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.pg.customercare.dto.TicketCountDTO;
+import com.pg.customercare.dto.TicketCountKeyDTO;
+import com.pg.customercare.dto.TicketStatsDTO;
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+import com.pg.customercare.repository.TicketRepository;
+import com.pg.customercare.util.TransactionUtil;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Ticket counts for the dashboard, kept in memory and updated by TicketService.
+ *
+ * There is one LongAdder per status, priority and classification combination,
+ * and one per owner and status, so concurrent changes do not contend and a read
+ * costs no database work. The counts are rebuilt from a single grouped query at
+ * startup and after every reconcile interval, which also picks up changes made
+ * on other nodes. Changes recorded while the query runs are replayed onto the
+ * rebuilt counts, since the query may not have seen them.
+ */
+@Service
+public class TicketStatsService {
+
+    private static final Status[] STATUSES = Status.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final Classification[] CLASSIFICATIONS = Classification.values();
+
+    private final TicketRepository ticketRepository;
+
+    // Replaced as a whole by a rebuild, so a read never sees half of one
+    private volatile Counters counters = new Counters();
+
+    // Changes recorded since the running rebuild started; null when none is running
+    private Queue<TicketCountKeyDTO[]> pendingDeltas;
+
+    // Shared by record, held alone by a rebuild while it starts logging changes and swaps the counters
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    public TicketStatsService(TicketRepository ticketRepository) {
+        this.ticketRepository = ticketRepository;
+    }
+
+    // Runs before the web server starts, so no change is counted ahead of the load
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${tickets.stats.reconcile-interval:PT5M}",
+            fixedDelayString = "${tickets.stats.reconcile-interval:PT5M}")
+    public synchronized void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            pendingDeltas = new ConcurrentLinkedQueue<>();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+
+        Counters rebuilt = new Counters();
+        try {
+            for (TicketCountDTO row : ticketRepository.countByDimensions()) {
+                rebuilt.add(row.getStatus(), row.getPriority(), row.getClassification(), row.getTicketOwnerId(),
+                        row.getCount());
+            }
+        } catch (RuntimeException e) {
+            stopLogging(null);
+            throw e;
+        }
+        // A change committed just before the query started may be replayed on top of it; the next rebuild corrects that
+        stopLogging(rebuilt);
+    }
+
+    // Applied once the change commits; previous is null for a new ticket, current for a deleted one
+    public void record(TicketCountKeyDTO previous, TicketCountKeyDTO current) {
+        TransactionUtil.runAfterCommit(() -> {
+            rebuildLock.readLock().lock();
+            try {
+                apply(counters, previous, current);
+                if (pendingDeltas != null) {
+                    pendingDeltas.add(new TicketCountKeyDTO[] { previous, current });
+                }
+            } finally {
+                rebuildLock.readLock().unlock();
+            }
+        });
+    }
+
+    public TicketStatsDTO getStats() {
+        return counters.snapshot();
+    }
+
+    // auxiliary methods
+    // Replays the logged changes onto the rebuilt counters and swaps them in; rebuilt is null when the query failed
+    private void stopLogging(Counters rebuilt) {
+        rebuildLock.writeLock().lock();
+        try {
+            if (rebuilt != null) {
+                pendingDeltas.forEach(delta -> apply(rebuilt, delta[0], delta[1]));
+                counters = rebuilt;
+            }
+            pendingDeltas = null;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Counters target, TicketCountKeyDTO previous, TicketCountKeyDTO current) {
+        if (previous != null) {
+            target.add(previous.getStatus(), previous.getPriority(), previous.getClassification(),
+                    previous.getTicketOwnerId(), -1);
+        }
+        if (current != null) {
+            target.add(current.getStatus(), current.getPriority(), current.getClassification(),
+                    current.getTicketOwnerId(), 1);
+        }
+    }
+
+    // auxiliary types
+    private static final class Counters {
+        private final LongAdder[] combinations = newAdders(STATUSES.length * PRIORITIES.length * CLASSIFICATIONS.length);
+        private final Map<Long, LongAdder[]> owners = new ConcurrentHashMap<>();
+        private final LongAdder[] unassigned = newAdders(STATUSES.length);
+
+        // The counted columns are NOT NULL; a row missing one is left out
+        private void add(Status status, Priority priority, Classification classification, Long ownerId, long delta) {
+            if (status == null || priority == null || classification == null) {
+                return;
+            }
+            combinations[index(status, priority, classification)].add(delta);
+            LongAdder[] ownerCounts = ownerId == null
+                    ? unassigned
+                    : owners.computeIfAbsent(ownerId, id -> newAdders(STATUSES.length));
+            ownerCounts[status.ordinal()].add(delta);
+        }
+
+        private TicketStatsDTO snapshot() {
+            Map<Status, Long> byStatus = zeros(Status.class, STATUSES);
+            Map<Priority, Long> byPriority = zeros(Priority.class, PRIORITIES);
+            Map<Classification, Long> byClassification = zeros(Classification.class, CLASSIFICATIONS);
+            long total = 0;
+
+            for (Status status : STATUSES) {
+                for (Priority priority : PRIORITIES) {
+                    for (Classification classification : CLASSIFICATIONS) {
+                        long count = combinations[index(status, priority, classification)].sum();
+                        byStatus.merge(status, count, Long::sum);
+                        byPriority.merge(priority, count, Long::sum);
+                        byClassification.merge(classification, count, Long::sum);
+                        total += count;
+                    }
+                }
+            }
+
+            Map<Long, Map<Status, Long>> byOwner = new HashMap<>();
+            owners.forEach((ownerId, counts) -> {
+                Map<Status, Long> ownerCounts = byStatus(counts);
+                // Owners whose tickets were all reassigned or deleted are left out
+                if (ownerCounts.values().stream().anyMatch(count -> count != 0)) {
+                    byOwner.put(ownerId, ownerCounts);
+                }
+            });
+
+            return new TicketStatsDTO(total, byStatus, byPriority, byClassification, byOwner, byStatus(unassigned));
+        }
+
+        private static int index(Status status, Priority priority, Classification classification) {
+            return (status.ordinal() * PRIORITIES.length + priority.ordinal()) * CLASSIFICATIONS.length
+                    + classification.ordinal();
+        }
+
+        private static Map<Status, Long> byStatus(LongAdder[] counts) {
+            Map<Status, Long> result = new EnumMap<>(Status.class);
+            for (Status status : STATUSES) {
+                result.put(status, counts[status.ordinal()].sum());
+            }
+            return result;
+        }
+
+        private static <E extends Enum<E>> Map<E, Long> zeros(Class<E> type, E[] values) {
+            Map<E, Long> result = new EnumMap<>(type);
+            for (E value : values) {
+                result.put(value, 0L);
+            }
+            return result;
+        }
+
+        private static LongAdder[] newAdders(int size) {
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.pg.customercare.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pg.customercare.dto.TicketCountKeyDTO;
+import com.pg.customercare.dto.TicketStreamBulkEventDTO;
+import com.pg.customercare.dto.TicketStreamEventDTO;
+import com.pg.customercare.exception.impl.ServiceUnavailableException;
+import com.pg.customercare.model.ENUM.Status;
+import com.pg.customercare.util.TransactionUtil;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes ticket changes to the agents' browsers over Server-Sent Events, so
+ * their ticket lists no longer poll.
+ *
+ * TicketService reports every change, which goes out once it commits; a bulk
+ * update is reported as one message per chunk. Each event is serialized once
+ * and handed to every subscriber's bounded buffer; the buffers are written out
+ * on virtual threads, so a client that reads slowly never holds up the others.
+ * A subscriber whose buffer fills is disconnected instead of being sent a
+ * partial history. The browser then reconnects on its own and should reload
+ * its list. Heartbeats keep idle connections open through proxies and detect
+ * clients that went away.
+ *
+ * Subscribers are local to the node; changes made on another node are not
+ * pushed to them.
+ */
+@Service
+public class TicketStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TicketStreamService.class);
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${tickets.stream.max-subscribers:5000}")
+    private int maxSubscribers;
+
+    @Value("${tickets.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${tickets.stream.timeout:PT30M}")
+    private Duration timeout;
+
+    // Sent to the browser with the first message; how long it waits before reconnecting
+    @Value("${tickets.stream.reconnect-delay:PT3S}")
+    private Duration reconnectDelay;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // One virtual thread per drain, so a write blocked on one client costs no platform thread
+    private Executor sender = Executors.newVirtualThreadPerTaskExecutor();
+
+    public TicketStreamService(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("tickets.stream.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    // Ends the open streams, so the browsers reconnect to another node instead of waiting for a timeout
+    @PreDestroy
+    public void close() {
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscribers.remove(subscriber);
+            subscriber.buffer.clear();
+            try {
+                subscriber.emitter.complete();
+            } catch (RuntimeException e) {
+                logger.debug("Could not complete ticket stream: {}", e.getMessage());
+            }
+        }
+    }
+
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(timeout.toMillis()));
+    }
+
+    // Applied once the change commits; previous is null for a new ticket, current for a deleted one
+    public void publish(Long ticketId, TicketCountKeyDTO previous, TicketCountKeyDTO current) {
+        TicketStreamEventDTO event = new TicketStreamEventDTO(typeOf(previous, current), ticketId,
+                current == null ? null : current.getStatus(),
+                current == null ? null : current.getTicketOwnerId(),
+                previous == null ? null : previous.getStatus(),
+                previous == null ? null : previous.getTicketOwnerId());
+        TransactionUtil.runAfterCommit(() -> {
+            if (!subscribers.isEmpty()) {
+                broadcast(SseEmitter.event().name(event.getType().name()).data(toJson(event)).build());
+            }
+        });
+    }
+
+    // A whole chunk of a bulk update goes out as one message, so it takes a single slot in each buffer
+    public void publishBulk(List<Long> ticketIds, Status status, Long ticketOwnerId) {
+        TicketStreamBulkEventDTO event = new TicketStreamBulkEventDTO(TicketStreamEventDTO.Type.BULK_UPDATED,
+                List.copyOf(ticketIds), status, ticketOwnerId);
+        TransactionUtil.runAfterCommit(() -> {
+            if (!subscribers.isEmpty()) {
+                broadcast(SseEmitter.event().name(event.getType().name()).data(toJson(event)).build());
+            }
+        });
+    }
+
+    @Scheduled(fixedRateString = "${tickets.stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcast(SseEmitter.event().comment("heartbeat").build());
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many open ticket streams, try again later");
+        }
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Sends the response headers right away, so the browser reports the stream as open
+        subscriber.offer(SseEmitter.event().comment("connected").reconnectTime(reconnectDelay.toMillis()).build());
+        return emitter;
+    }
+
+    // auxiliary methods
+    private void broadcast(Set<DataWithMediaType> message) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(message)) {
+                drop(subscriber, "slow_consumer", null);
+            }
+        }
+    }
+
+    private void drop(Subscriber subscriber, String reason, IOException error) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        meterRegistry.counter("tickets.stream.dropped", "reason", reason).increment();
+        subscriber.buffer.clear();
+        // Completed on the sender, since a write in progress holds the emitter until it returns
+        sender.execute(() -> {
+            if (error == null) {
+                subscriber.emitter.complete();
+            } else {
+                subscriber.emitter.completeWithError(error);
+            }
+        });
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize ticket event " + event, e);
+        }
+    }
+
+    private static TicketStreamEventDTO.Type typeOf(TicketCountKeyDTO previous, TicketCountKeyDTO current) {
+        if (previous == null) {
+            return TicketStreamEventDTO.Type.CREATED;
+        }
+        if (current == null) {
+            return TicketStreamEventDTO.Type.DELETED;
+        }
+        if (previous.getStatus() != current.getStatus()) {
+            return TicketStreamEventDTO.Type.STATUS_CHANGED;
+        }
+        if (!Objects.equals(previous.getTicketOwnerId(), current.getTicketOwnerId())) {
+            return TicketStreamEventDTO.Type.REASSIGNED;
+        }
+        return TicketStreamEventDTO.Type.UPDATED;
+    }
+
+    // auxiliary types
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        // False when the buffer is full
+        private boolean offer(Set<DataWithMediaType> message) {
+            if (!buffer.offer(message)) {
+                return false;
+            }
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+            return true;
+        }
+
+        private void drain() {
+            do {
+                Set<DataWithMediaType> message;
+                while ((message = buffer.poll()) != null) {
+                    try {
+                        emitter.send(message);
+                    } catch (IOException | IllegalStateException e) {
+                        // The client went away or the emitter was already completed
+                        logger.debug("Ticket stream subscriber disconnected: {}", e.getMessage());
+                        draining.set(false);
+                        drop(this, "disconnected", e instanceof IOException io ? io : null);
+                        return;
+                    }
+                }
+                draining.set(false);
+                // A message offered after the last poll but before the flag was cleared is drained here
+            } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
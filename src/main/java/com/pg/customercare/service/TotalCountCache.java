@@ -0,0 +1,75 @@
+package com.pg.customercare.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pg.customercare.util.CacheUtil;
+import com.pg.customercare.util.CountMode;
+import com.pg.customercare.util.TransactionUtil;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Totals behind paged listings, so that moving between pages does not repeat
+ * the count query.
+ *
+ * Counts are grouped in regions, one per listed table. A write evicts every
+ * count of its region on this node; other nodes may show a stale total until
+ * the TTL expires, which only affects the reported number of records.
+ */
+@Component
+public class TotalCountCache {
+
+    public static final String ROLES = "roles";
+    public static final String POSITION_SALARIES = "positionSalaries";
+    public static final String PERMISSIONS = "permissions";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${pagination.count-cache.max-size:1000}")
+    private long maxSize;
+
+    @Value("${pagination.count-cache.ttl:PT1M}")
+    private Duration ttl;
+
+    private Cache<String, Long> counts;
+    private final AtomicLong generation = new AtomicLong();
+
+    public TotalCountCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "totalCounts");
+    }
+
+    // The query identifies the filter within the region, e.g. "name:adm%"
+    public long get(String region, String query, LongSupplier count) {
+        return CacheUtil.getOrLoad(counts, generation, region + ":" + query, key -> count.getAsLong());
+    }
+
+    // The count a listing should use: the cached one, or the query itself for EXACT
+    public LongSupplier counter(CountMode countMode, String region, String query, LongSupplier count) {
+        return countMode == CountMode.CACHED ? () -> get(region, query, count) : count;
+    }
+
+    public void invalidate(String region) {
+        String prefix = region + ":";
+        TransactionUtil.runNowAndAfterCommit(() -> CacheUtil.invalidate(generation,
+                () -> counts.asMap().keySet().removeIf(key -> key.startsWith(prefix))));
+    }
+}
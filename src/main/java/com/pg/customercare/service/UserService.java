@@ -1,19 +1,33 @@
 package com.pg.customercare.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder; 
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.pg.customercare.model.User;
 import com.pg.customercare.repository.UserRepository;
+import com.pg.customercare.security.RoleVersionRegistry;
+import com.pg.customercare.util.CacheUtil;
+import com.pg.customercare.util.TransactionUtil;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,8 +40,76 @@ public class UserService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RoleVersionRegistry roleVersionRegistry;
+
+    @Value("${security.user-cache.max-size:10000}")
+    private long userCacheMaxSize;
+
+    @Value("${security.user-cache.ttl:PT5M}")
+    private Duration userCacheTtl;
+
+    private Cache<String, CachedPrincipal> userCache;
+    private final AtomicLong userCacheGeneration = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        userCache = Caffeine.newBuilder()
+                .maximumSize(userCacheMaxSize)
+                .expireAfterWrite(userCacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "userDetails");
+    }
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        CachedPrincipal principal = CacheUtil.getOrLoad(userCache, userCacheGeneration, email, this::loadPrincipal);
+
+        // A new UserDetails is built on every call because Spring Security erases
+        // the password of the instance it authenticates, which would corrupt the cache
+        return org.springframework.security.core.userdetails.User.builder()
+                .username(principal.email())
+                .password(principal.password())
+                .authorities(principal.authorities())
+                .build();
+    }
+
+    public User findUserByEmail(String email) {
+        return userRepository.findByEmail(email);
+    }
+
+    public User saveUser(User user, PasswordEncoder passwordEncoder) {
+        // Read before the save, so a changed email is evicted under the old key too
+        String previousEmail = user.getId() == null ? null
+                : userRepository.findById(user.getId()).map(User::getEmail).orElse(null);
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        User savedUser = userRepository.save(user);
+
+        List<String> emails = Stream.of(previousEmail, savedUser.getEmail())
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        // Repeated after commit, since a read racing the transaction caches the old user again.
+        // Stateless tokens name the role they were issued with; a changed role revokes them
+        TransactionUtil.runNowAndAfterCommit(() -> {
+            CacheUtil.invalidate(userCacheGeneration, () -> userCache.invalidateAll(emails));
+            emails.forEach(roleVersionRegistry::invalidateUser);
+        });
+        return savedUser;
+    }
+
+    // Removes cached principals whose authorities came from the given role; callers repeat it after commit
+    public void evictUsersWithRole(Long roleId) {
+        CacheUtil.invalidate(userCacheGeneration,
+                () -> userCache.asMap().values().removeIf(principal -> roleId.equals(principal.roleId())));
+    }
+
+    // Auxiliary method
+    private CachedPrincipal loadPrincipal(String email) {
         logger.debug("Procurando usuário com email: {}", email);
         User user = userRepository.findByEmail(email);
         if (user == null) {
@@ -38,19 +120,9 @@ public class UserService implements UserDetailsService {
 
         List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(user.getRole().getName()));
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getEmail())
-                .password(user.getPassword())
-                .authorities(authorities)
-                .build();
-    }
-
-    public User findUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return new CachedPrincipal(user.getEmail(), user.getPassword(), authorities, user.getRole().getId());
     }
 
-    public User saveUser(User user, PasswordEncoder passwordEncoder) {
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+    private record CachedPrincipal(String email, String password, List<GrantedAuthority> authorities, Long roleId) {
     }
 }
@@ -0,0 +1,39 @@
+package com.pg.customercare.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+public class CacheUtil {
+
+    // Cache.get runs the loader inside ConcurrentHashMap.compute, whose synchronized block pins a
+    // virtual thread to its carrier for the whole query. Here the loader runs outside any lock;
+    // concurrent misses may load the same key twice. Null results are not cached.
+    //
+    // A load that overlaps an invalidation may have read the old row, so its result is dropped
+    // again when the generation moved on; every eviction of the cache must go through invalidate.
+    public static <K, V> V getOrLoad(Cache<K, V> cache, AtomicLong generation, K key,
+            Function<? super K, ? extends V> loader) {
+        V value = cache.getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        long loadedAt = generation.get();
+        value = loader.apply(key);
+        if (value != null) {
+            cache.put(key, value);
+            // Checked after the put: an invalidation either sees the entry or has already moved the generation
+            if (generation.get() != loadedAt) {
+                cache.asMap().remove(key, value);
+            }
+        }
+        return value;
+    }
+
+    // Moves the generation before evicting, so loads still running cannot put back what was evicted
+    public static void invalidate(AtomicLong generation, Runnable eviction) {
+        generation.incrementAndGet();
+        eviction.run();
+    }
+}
@@ -0,0 +1,14 @@
+package com.pg.customercare.util;
+
+// How the total of a paginated listing is obtained, chosen per request
+public enum CountMode {
+
+    // Runs the count query on every request
+    EXACT,
+
+    // Reuses the total from TotalCountCache, which may lag behind writes on other nodes
+    CACHED,
+
+    // Reports no total, only whether a next page exists
+    NONE
+}
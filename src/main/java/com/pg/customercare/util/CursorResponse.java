@@ -0,0 +1,15 @@
+package com.pg.customercare.util;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CursorResponse<T> {
+    private List<T> items;
+    private Long itemsPerPage;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,76 @@
+package com.pg.customercare.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.pg.customercare.exception.impl.ValidationException;
+
+public class FileStreamUtil {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int POOLED_BUFFERS = 64;
+
+    // Direct buffers are pooled instead of kept per thread: with virtual threads every request
+    // runs on a new thread, so a thread-local buffer would be allocated for each upload
+    private static final BlockingQueue<ByteBuffer> BUFFERS = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+
+    /**
+     * Streams the input into a new file, failing as soon as more than maxBytes
+     * have been read. The partially written file is removed on failure.
+     */
+    public static long copyToFile(InputStream inputStream, Path target, long maxBytes) throws IOException {
+        ByteBuffer buffer = acquireBuffer();
+        long written = 0;
+
+        try (ReadableByteChannel in = Channels.newChannel(inputStream);
+                FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            buffer.clear();
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                written += buffer.remaining();
+                if (written > maxBytes) {
+                    throw sizeExceeded(maxBytes);
+                }
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        } finally {
+            releaseBuffer(buffer);
+        }
+
+        return written;
+    }
+
+    // Falls back to a new buffer when every pooled one is in use
+    private static ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = BUFFERS.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    // A buffer that does not fit back in the pool is left to the garbage collector
+    private static void releaseBuffer(ByteBuffer buffer) {
+        buffer.clear();
+        BUFFERS.offer(buffer);
+    }
+
+    public static ValidationException sizeExceeded(long maxBytes) {
+        return new ValidationException(
+                "File size exceeds the maximum limit of " + maxBytes / (1024 * 1024) + "MB.",
+                new HashMap<>());
+    }
+}
@@ -1,62 +1,151 @@
 package com.pg.customercare.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.pg.customercare.model.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtUtil {
 
+  // Claims presentes apenas nos tokens emitidos com autoridades embutidas
+  public static final String ROLE_CLAIM = "role";
+  public static final String ROLE_ID_CLAIM = "rid";
+  public static final String PERMISSIONS_VERSION_CLAIM = "pv";
+
   private Key secretKey;
 
+  // O parser é imutável e thread-safe, então é construído uma única vez
+  private JwtParser jwtParser;
+
+  // Claims já verificadas, indexadas pelo SHA-256 do token e expiradas junto com ele
+  private Cache<String, Claims> claimsCache;
+
   @Value("${jwt.secret}")
   private String jwtSecret;
 
   @Value("${jwt.expiration}")
   private long jwtExpiration;
 
+  @Value("${jwt.claims-cache.max-size:10000}")
+  private long claimsCacheMaxSize;
+
+  @Value("${jwt.stateless-authorities:false}")
+  private boolean statelessAuthorities;
+
   @PostConstruct
   public void init() {
     this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    this.jwtParser = Jwts.parserBuilder()
+            .setSigningKey(secretKey)
+            .build();
+    this.claimsCache = Caffeine.newBuilder()
+            .maximumSize(claimsCacheMaxSize)
+            .expireAfter(new ClaimsExpiry())
+            .recordStats()
+            .build();
   }
 
   // Gera o token JWT com o e-mail como "sub"
   public String generateToken(String username) {
-    return Jwts.builder()
-            .setSubject(username)
-            .setIssuedAt(new Date())
-            .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-            .signWith(secretKey)
+    return baseToken(username).compact();
+  }
+
+  // No modo stateless, também assina a role e a versão das suas permissões
+  public String generateToken(String username, Role role) {
+    if (!statelessAuthorities || role == null) {
+      return generateToken(username);
+    }
+    Long permissionsVersion = role.getPermissionsVersion();
+    return baseToken(username)
+            .claim(ROLE_CLAIM, role.getName())
+            .claim(ROLE_ID_CLAIM, role.getId())
+            .claim(PERMISSIONS_VERSION_CLAIM, permissionsVersion == null ? 0L : permissionsVersion)
             .compact();
   }
 
+  // Indica se as autoridades podem ser lidas diretamente das claims
+  public boolean hasEmbeddedAuthorities(Claims claims) {
+    return statelessAuthorities && claims.get(ROLE_CLAIM) != null;
+  }
+
   // Extrai o campo "sub" do token (e-mail do usuário)
   public String extractUsername(String token) {
-    return getClaims(token).getSubject();
+    return extractClaims(token).getSubject();
   }
 
   // Valida o token comparando o username e verificando a expiração
   public boolean validateToken(String token, String username) {
-    String extractedUsername = extractUsername(token);
-    return extractedUsername.equals(username) && !isTokenExpired(token);
+    return validateToken(extractClaims(token), username);
+  }
+
+  // Valida claims já extraídas, evitando uma nova verificação da assinatura
+  public boolean validateToken(Claims claims, String username) {
+    return claims.getSubject().equals(username) && !isTokenExpired(claims);
+  }
+
+  // Extrai as Claims do token, verificando a assinatura apenas na primeira vez
+  public Claims extractClaims(String token) {
+    return claimsCache.get(digest(token), key -> jwtParser.parseClaimsJws(token).getBody());
+  }
+
+  private JwtBuilder baseToken(String username) {
+    return Jwts.builder()
+            .setSubject(username)
+            .setIssuedAt(new Date())
+            .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
+            .signWith(secretKey);
   }
 
   // Verifica se o token expirou
-  private boolean isTokenExpired(String token) {
-    return getClaims(token).getExpiration().before(new Date());
+  private boolean isTokenExpired(Claims claims) {
+    return claims.getExpiration().before(new Date());
   }
 
-  // Extrai as Claims do token
-  private Claims getClaims(String token) {
-    return Jwts.parserBuilder()
-            .setSigningKey(secretKey)
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+  private String digest(String token) {
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 algorithm not available", e);
+    }
+  }
+
+  // Mantém cada entrada no cache somente até o "exp" do próprio token
+  private class ClaimsExpiry implements Expiry<String, Claims> {
+
+    @Override
+    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+      Date expiration = claims.getExpiration();
+      long ttlMillis = expiration != null
+              ? expiration.getTime() - System.currentTimeMillis()
+              : jwtExpiration;
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+    }
+
+    @Override
+    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
   }
 }
@@ -0,0 +1,44 @@
+package com.pg.customercare.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.pg.customercare.exception.impl.BadRequestException;
+
+/**
+ * Opaque position of the last row of a keyset page: the value of the sort
+ * column plus the id used as tie-breaker.
+ */
+public record KeysetCursor(String key, Long id) {
+
+    private static final char SEPARATOR = ':';
+
+    public static String encode(Object key, Long id) {
+        String raw = (key == null ? "" : key.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    // Null for a row whose date is null, which encode writes as an empty key
+    public LocalDate keyAsDate() {
+        if (key.isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor date: " + key, e);
+        }
+    }
+}
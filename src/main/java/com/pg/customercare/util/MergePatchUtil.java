@@ -0,0 +1,63 @@
+package com.pg.customercare.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pg.customercare.exception.impl.BadRequestException;
+
+/**
+ * JSON Merge Patch (RFC 7386) for loaded entities.
+ *
+ * The patch is applied to the managed entity in place, so with @DynamicUpdate
+ * its flush writes only the columns that changed. Collections are not
+ * patchable: replacing a managed collection would rewrite every child, which
+ * is what the full update does.
+ */
+public class MergePatchUtil {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    // Sets the listed fields present in the patch; references are left to the caller
+    public static void apply(ObjectMapper objectMapper, Object target, JsonNode patch, Set<String> fields,
+            Set<String> references) {
+        if (patch == null || !patch.isObject()) {
+            throw new BadRequestException("A merge patch must be a JSON object");
+        }
+
+        List<String> rejected = new ArrayList<>();
+        patch.fieldNames().forEachRemaining(field -> {
+            if (!fields.contains(field) && !references.contains(field)) {
+                rejected.add(field);
+            }
+        });
+        if (!rejected.isEmpty()) {
+            throw new BadRequestException("Fields cannot be patched: " + String.join(", ", rejected));
+        }
+
+        ObjectNode values = ((ObjectNode) patch).deepCopy();
+        values.remove(references);
+        try {
+            objectMapper.readerForUpdating(target).readValue(values);
+        } catch (IOException e) {
+            throw new BadRequestException("Invalid merge patch: " + e.getMessage(), e);
+        }
+    }
+
+    // Id of the entity a reference field is patched to, given as {"id": ...}; null when the patch clears it
+    public static Long referenceId(JsonNode patch, String field) {
+        JsonNode value = patch.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        JsonNode id = value.get("id");
+        if (id == null || !id.canConvertToLong()) {
+            throw new BadRequestException(field + " must be null or an object with a numeric id");
+        }
+        return id.asLong();
+    }
+}
@@ -1,7 +1,12 @@
 package com.pg.customercare.util;
 
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public class PaginationUtil {
     private static final int MAX_PAGE_SIZE = 20;
@@ -10,4 +15,48 @@ public class PaginationUtil {
         size = Math.min(size, MAX_PAGE_SIZE);
         return PageRequest.of(page, size);
     }
+
+    public static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // Slices fetch one extra row for hasNext; the total is only queried when the page cannot tell it
+    public static <T> Response<T> toResponse(Slice<?> slice, List<T> items, CountMode countMode, LongSupplier total) {
+        Pageable pageable = slice.getPageable();
+        Response.ResponseBuilder<T> response = Response.<T>builder()
+                .items(items)
+                .itemsPerPage((long) pageable.getPageSize())
+                .currentPage((long) pageable.getPageNumber())
+                .hasNext(slice.hasNext());
+
+        if (countMode != CountMode.NONE) {
+            boolean pastTheEnd = !slice.hasContent() && pageable.getOffset() > 0;
+            response.totalRecordsQuantity(slice.hasNext() || pastTheEnd
+                    ? total.getAsLong()
+                    : pageable.getOffset() + slice.getNumberOfElements());
+        }
+        return response.build();
+    }
+
+    public static <T> Response<T> toResponse(Slice<T> slice, CountMode countMode, LongSupplier total) {
+        return toResponse(slice, slice.getContent(), countMode, total);
+    }
+
+    // Keyset queries fetch one extra row to find out whether a next page exists
+    public static Pageable createKeysetRequest(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    public static <T> CursorResponse<T> toCursorResponse(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(items.get(items.size() - 1)) : null;
+
+        return CursorResponse.<T>builder()
+                .items(items)
+                .itemsPerPage((long) pageSize)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
 }
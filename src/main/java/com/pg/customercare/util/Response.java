@@ -14,8 +14,14 @@ public class Response<T> {
     private Long itemsPerPage;
     private Long currentPage;
     private Long totalRecordsQuantity;
+    private Boolean hasNext;
 
     public Long getTotalPages() {
+        // Not known when the listing was requested without a total
+        if (this.totalRecordsQuantity == null) {
+            return null;
+        }
+
         long pages = this.totalRecordsQuantity / this.itemsPerPage;
 
         if (this.totalRecordsQuantity % this.itemsPerPage > 0) {
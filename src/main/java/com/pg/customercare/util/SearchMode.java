@@ -0,0 +1,19 @@
+package com.pg.customercare.util;
+
+// How a text filter is matched; queries using the pattern must declare ESCAPE '!'
+public enum SearchMode {
+
+    // Values starting with the text, which a column index can serve
+    PREFIX,
+
+    // The text anywhere in the value, which always scans the table
+    CONTAINS;
+
+    public String toPattern(String text) {
+        String escaped = text.trim()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return this == PREFIX ? escaped + "%" : "%" + escaped + "%";
+    }
+}
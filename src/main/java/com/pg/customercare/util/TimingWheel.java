@@ -0,0 +1,145 @@
+package com.pg.customercare.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel of keyed deadlines.
+ *
+ * The first level has wheelSize buckets of tickMillis each; every further
+ * level is created on demand and has buckets as wide as the whole level below
+ * it. Scheduling and cancelling are O(1). Advancing the clock costs one bucket
+ * per tick passed, plus the entries that expire or move down a level, however
+ * many entries are scheduled. Entries fire at the start of the tick containing
+ * their deadline, so up to one tick early.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class TimingWheel<K> {
+
+    private final int wheelSize;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private final Level root;
+
+    // Deadlines that had already passed when scheduled; returned by the next advance
+    private final List<K> overdue = new ArrayList<>();
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick must be positive and the wheel must have at least 2 buckets");
+        }
+        this.wheelSize = wheelSize;
+        this.root = new Level(tickMillis, startMillis);
+    }
+
+    // Replaces any deadline already scheduled for the key
+    public void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        Entry<K> entry = new Entry<>(key, deadlineMillis);
+        entries.put(key, entry);
+        if (!root.add(entry)) {
+            entries.remove(key);
+            overdue.add(key);
+        }
+    }
+
+    public boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return overdue.remove(key);
+        }
+        entry.bucket.remove(entry);
+        return true;
+    }
+
+    public boolean contains(K key) {
+        return entries.containsKey(key) || overdue.contains(key);
+    }
+
+    public int size() {
+        return entries.size() + overdue.size();
+    }
+
+    /**
+     * Moves the clock to the given time and returns the keys whose deadline has
+     * been reached. They are no longer scheduled.
+     */
+    public List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>(overdue);
+        overdue.clear();
+        root.advanceTo(nowMillis, entry -> {
+            // Entries of a passed bucket either fire or move to a finer level
+            if (!root.add(entry)) {
+                entries.remove(entry.key);
+                expired.add(entry.key);
+            }
+        });
+        return expired;
+    }
+
+    // auxiliary types
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadline;
+        private Set<Entry<K>> bucket;
+
+        private Entry(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+
+    private final class Level {
+        private final long tickMillis;
+        private final long interval;
+        private final List<Set<Entry<K>>> buckets;
+        private long currentTime;
+        private Level overflow;
+
+        private Level(long tickMillis, long startMillis) {
+            this.tickMillis = tickMillis;
+            this.interval = tickMillis * wheelSize;
+            this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new LinkedHashSet<>());
+            }
+        }
+
+        // False when the deadline falls in the current tick, i.e. the entry is due
+        private boolean add(Entry<K> entry) {
+            if (entry.deadline < currentTime + tickMillis) {
+                return false;
+            }
+            if (entry.deadline < currentTime + interval) {
+                Set<Entry<K>> bucket = buckets.get((int) Math.floorMod(entry.deadline / tickMillis, (long) wheelSize));
+                bucket.add(entry);
+                entry.bucket = bucket;
+                return true;
+            }
+            if (overflow == null) {
+                overflow = new Level(interval, currentTime);
+            }
+            return overflow.add(entry);
+        }
+
+        // Steps one tick at a time, emptying the bucket of every tick reached
+        private void advanceTo(long time, Consumer<Entry<K>> reinsert) {
+            while (time >= currentTime + tickMillis) {
+                currentTime += tickMillis;
+                Set<Entry<K>> bucket = buckets.get((int) Math.floorMod(currentTime / tickMillis, (long) wheelSize));
+                List<Entry<K>> passed = new ArrayList<>(bucket);
+                bucket.clear();
+                if (overflow != null) {
+                    overflow.advanceTo(currentTime, reinsert);
+                }
+                passed.forEach(reinsert);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.pg.customercare.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pg.customercare.model.Permission;
+import com.pg.customercare.repository.PermissionRepository;
+
+// Not transactional: the id generator reads its row in a separate transaction
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(IdGeneratorInitializer.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class IdGeneratorInitializerTest {
+
+    @Autowired
+    private IdGeneratorInitializer idGeneratorInitializer;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM permission");
+    }
+
+    @Test
+    void shouldContinueAfterIdsCreatedBeforeTheGenerator() {
+        // ARRANGE
+        jdbcTemplate.update("INSERT INTO permission (id, name) VALUES (?, ?)", 120L, "LEGACY_PRIVILEGES");
+
+        // ACT
+        idGeneratorInitializer.init();
+        Permission saved = permissionRepository.save(new Permission(null, "READ_PRIVILEGES", new HashSet<>()));
+
+        // ASSERT
+        assertEquals(121L, saved.getId());
+    }
+}
@@ -17,10 +17,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pg.customercare.dto.CustomerFilterDTO;
+import com.pg.customercare.dto.CustomerSummaryDTO;
 import com.pg.customercare.model.Customer;
 import com.pg.customercare.model.ENUM.CustomerType;
 import com.pg.customercare.model.ENUM.Gender;
+import com.pg.customercare.service.CustomerImportService;
 import com.pg.customercare.service.CustomerService;
+import com.pg.customercare.util.CursorResponse;
 
 @WebMvcTest(CustomerController.class)
 public class CustomerControllerTest {
@@ -31,6 +35,9 @@ public class CustomerControllerTest {
     @MockBean
     private CustomerService customerService;
 
+    @MockBean
+    private CustomerImportService customerImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -88,20 +95,27 @@ public class CustomerControllerTest {
     }
 
     @Test
-    void shouldGetAllCustomers() throws Exception {
+    void shouldGetCustomers() throws Exception {
         // ARRANGE
-        List<Customer> customers = new ArrayList<>();
-        customers.add(customer);
-        given(customerService.getAllCustomers()).willReturn(customers);
+        List<CustomerSummaryDTO> customers = new ArrayList<>();
+        customers.add(new CustomerSummaryDTO(customer.getId(), customer.getName(), null, null, null, null, null, null,
+                customer.getCustomerType(), null));
+        CursorResponse<CustomerSummaryDTO> page = CursorResponse.<CustomerSummaryDTO>builder()
+                .items(customers)
+                .itemsPerPage(20L)
+                .hasNext(false)
+                .build();
+        given(customerService.getCustomers(any(CustomerFilterDTO.class), isNull(), eq(20))).willReturn(page);
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/customers")
+                .param("customerType", "INDIVIDUAL")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(customer.getId()))
-                .andExpect(jsonPath("$[0].name").value(customer.getName()))
-                .andExpect(jsonPath("$[0].customerType").value(customer.getCustomerType().name()))
-                .andExpect(jsonPath("$[0].gender").value(customer.getGender().name()));
+                .andExpect(jsonPath("$.items[0].id").value(customer.getId()))
+                .andExpect(jsonPath("$.items[0].name").value(customer.getName()))
+                .andExpect(jsonPath("$.items[0].customerType").value(customer.getCustomerType().name()))
+                .andExpect(jsonPath("$.hasNext").value(false));
     }
 
     @Test
@@ -23,6 +23,7 @@ import com.pg.customercare.dto.PermissionDTO;
 import com.pg.customercare.dto.RoleNameDTO;
 import com.pg.customercare.model.Role;
 import com.pg.customercare.service.RoleService;
+import com.pg.customercare.util.CountMode;
 import com.pg.customercare.util.Response;
 
 @WebMvcTest(RoleController.class)
@@ -102,7 +103,7 @@ public class RoleControllerTest {
                 .totalRecordsQuantity((long) roleNameDTOs.size())
                 .build();
 
-        given(roleService.getAllRoles(pageable)).willReturn(response);
+        given(roleService.getAllRoles(pageable, CountMode.CACHED)).willReturn(response);
 
         // ACT & ASSERT
         mockMvc.perform(get("/api/roles")
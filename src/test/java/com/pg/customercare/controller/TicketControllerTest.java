@@ -24,7 +24,10 @@ import com.pg.customercare.model.Ticket;
 import com.pg.customercare.model.ENUM.Classification;
 import com.pg.customercare.model.ENUM.Priority;
 import com.pg.customercare.model.ENUM.Status;
+import com.pg.customercare.service.TicketSearchService;
 import com.pg.customercare.service.TicketService;
+import com.pg.customercare.service.TicketStatsService;
+import com.pg.customercare.service.TicketStreamService;
 
 @WebMvcTest(TicketController.class)
 public class TicketControllerTest {
@@ -35,6 +38,15 @@ public class TicketControllerTest {
     @MockBean
     private TicketService ticketService;
 
+    @MockBean
+    private TicketSearchService ticketSearchService;
+
+    @MockBean
+    private TicketStatsService ticketStatsService;
+
+    @MockBean
+    private TicketStreamService ticketStreamService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
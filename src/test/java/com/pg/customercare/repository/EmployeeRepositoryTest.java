@@ -0,0 +1,117 @@
+package com.pg.customercare.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import com.pg.customercare.model.Employee;
+import com.pg.customercare.model.PositionSalary;
+import com.pg.customercare.model.Role;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.pg.customercare.repository.EmployeeRepositoryTest$SqlCapture"
+})
+public class EmployeeRepositoryTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long employeeId;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(new Role(null, "AGENT", new HashSet<>(), new HashSet<>(), 0L));
+        PositionSalary positionSalary = entityManager.persist(new PositionSalary(null, "Analyst", 3000.0, 0.0, role));
+
+        Employee employee = new Employee();
+        employee.setName("John Doe");
+        employee.setCpf("12345678900");
+        employee.setPrivateEmail("john@home.com");
+        employee.setBirthDate(LocalDate.of(1990, 1, 1));
+        employee.setHireDate(LocalDate.of(2020, 1, 1));
+        employee.setCompanyEmail("john@customercare.com");
+        employee.setPositionSalary(positionSalary);
+        employeeId = entityManager.persist(employee).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    @Test
+    void shouldUpdateOnlyTheChangedEmployeeColumn() {
+        // ARRANGE
+        Employee employee = employeeRepository.findById(employeeId).orElseThrow();
+
+        // ACT
+        employee.setCompanyEmail("john.doe@customercare.com");
+        entityManager.flush();
+
+        // ASSERT
+        List<String> updates = updates();
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(1, updates.size());
+        assertTrue(updates.get(0).startsWith("update employee set company_email=? where id=?"), updates.get(0));
+    }
+
+    @Test
+    void shouldLeaveTheSubclassTableAloneWhenOnlyAPersonColumnChanges() {
+        // ARRANGE
+        Employee employee = employeeRepository.findById(employeeId).orElseThrow();
+
+        // ACT
+        employee.setName("John Smith");
+        entityManager.flush();
+
+        // ASSERT
+        List<String> updates = updates();
+        assertEquals(1, updates.size());
+        assertTrue(updates.get(0).startsWith("update person set name=? where id=?"), updates.get(0));
+    }
+
+    // auxiliary methods
+    private List<String> updates() {
+        return SqlCapture.STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim())
+                .filter(sql -> sql.startsWith("update "))
+                .toList();
+    }
+
+    // Created by Hibernate from the property above, so it records into a shared list
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.pg.customercare.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import com.pg.customercare.dto.RolePermissionDTO;
+import com.pg.customercare.model.Permission;
+import com.pg.customercare.model.Role;
+import com.pg.customercare.util.SearchMode;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class RoleRepositoryTest {
+
+    private static final int ROLES = 12;
+    private static final int PERMISSIONS_PER_ROLE = 3;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Every role has its own permissions, which is what used to fan out into one select per role
+        for (int i = 0; i < ROLES; i++) {
+            Set<Permission> permissions = new HashSet<>();
+            for (int j = 0; j < PERMISSIONS_PER_ROLE; j++) {
+                permissions.add(entityManager.persist(new Permission(null, "TICKET-" + i + "-" + j, new HashSet<>())));
+            }
+            entityManager.persist(new Role(null, "ROLE_" + i, new HashSet<>(), permissions, 0L));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldLoadRolePageWithFixedQueryCount() {
+        // ACT
+        Slice<Long> ids = roleRepository.findIds(PageRequest.of(0, 10));
+        List<RolePermissionDTO> rows = roleRepository.findRolePermissions(ids.getContent());
+
+        // ASSERT
+        // id slice + permissions of every role on the page; no count unless one is requested
+        assertEquals(10, ids.getNumberOfElements());
+        assertTrue(ids.hasNext());
+        assertEquals(10 * PERMISSIONS_PER_ROLE, rows.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldReturnRoleWithoutPermissions() {
+        // ARRANGE
+        Role emptyRole = entityManager.persistFlushFind(new Role(null, "ROLE_EMPTY", new HashSet<>(), new HashSet<>(), 0L));
+
+        // ACT
+        List<RolePermissionDTO> rows = roleRepository.findRolePermissions(List.of(emptyRole.getId()));
+
+        // ASSERT
+        assertEquals(1, rows.size());
+        assertEquals("ROLE_EMPTY", rows.get(0).getRoleName());
+        assertNull(rows.get(0).getPermissionId());
+    }
+
+    @Test
+    void shouldNotDuplicateRolesMatchingSeveralPermissions() {
+        // ACT
+        String pattern = SearchMode.PREFIX.toPattern("TICKET-1-");
+        Slice<Long> ids = roleRepository.findIdsByPermissionName(pattern, PageRequest.of(0, 10));
+
+        // ASSERT
+        // ROLE_1 matches through all three of its permissions
+        assertEquals(1, ids.getNumberOfElements());
+        assertEquals(1, roleRepository.countByPermissionName(pattern));
+    }
+
+    @Test
+    void shouldMatchNamesByPrefixUnlessContainsIsAsked() {
+        // ACT
+        Slice<Long> prefixIds = roleRepository.findIdsByName(SearchMode.PREFIX.toPattern("ROLE_1"), PageRequest.of(0, 10));
+        Slice<Long> containsIds = roleRepository.findIdsByName(SearchMode.CONTAINS.toPattern("_1"), PageRequest.of(0, 10));
+        Slice<Long> noIds = roleRepository.findIdsByName(SearchMode.PREFIX.toPattern("1"), PageRequest.of(0, 10));
+
+        // ASSERT
+        // ROLE_1, ROLE_10 and ROLE_11
+        assertEquals(3, prefixIds.getNumberOfElements());
+        assertEquals(3, containsIds.getNumberOfElements());
+        assertFalse(noIds.hasContent());
+        assertEquals(3, roleRepository.countByName(SearchMode.PREFIX.toPattern("ROLE_1")));
+    }
+}
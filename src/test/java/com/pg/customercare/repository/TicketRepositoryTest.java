@@ -0,0 +1,205 @@
+package com.pg.customercare.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.pg.customercare.dto.TicketExportDTO;
+import com.pg.customercare.dto.TicketSummaryDTO;
+import com.pg.customercare.model.Address;
+import com.pg.customercare.model.Customer;
+import com.pg.customercare.model.Employee;
+import com.pg.customercare.model.PositionSalary;
+import com.pg.customercare.model.Role;
+import com.pg.customercare.model.Ticket;
+import com.pg.customercare.model.TicketFiles;
+import com.pg.customercare.model.ENUM.AttachmentStatus;
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.CustomerType;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public class TicketRepositoryTest {
+
+    private static final int TICKETS = 12;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long firstTicketId;
+
+    @BeforeEach
+    void setUp() {
+        Role role = entityManager.persist(new Role(null, "AGENT", new HashSet<>(), new HashSet<>(), 0L));
+        PositionSalary positionSalary = entityManager.persist(new PositionSalary(null, "Analyst", 3000.0, 0.0, role));
+
+        // Every ticket has its own customer and owner, which is what used to fan out into N+1 selects
+        for (int i = 0; i < TICKETS; i++) {
+            Customer customer = new Customer();
+            customer.setName("Customer " + i);
+            customer.setCustomerType(CustomerType.INDIVIDUAL);
+            customer.setAddresses(new ArrayList<>(List.of(address("Street " + i))));
+            entityManager.persist(customer);
+
+            Employee owner = new Employee();
+            owner.setName("Employee " + i);
+            owner.setPositionSalary(positionSalary);
+            owner.setAddresses(new ArrayList<>(List.of(address("Avenue " + i))));
+            entityManager.persist(owner);
+
+            Ticket ticket = new Ticket();
+            ticket.setSubject("Ticket " + i);
+            ticket.setOpeningDate(LocalDate.of(2024, 1, 1).plusDays(i));
+            ticket.setClassification(Classification.OTHERS);
+            ticket.setPriority(Priority.HIGH);
+            ticket.setStatus(Status.OPEN);
+            ticket.setCustomer(customer);
+            ticket.setTicketOwner(owner);
+            entityManager.persist(ticket);
+
+            TicketFiles ticketFile = new TicketFiles(null, "log-" + i + ".txt", "/blobs/" + i,
+                    AttachmentStatus.READY, null, null, ticket);
+            entityManager.persist(ticketFile);
+
+            if (firstTicketId == null) {
+                firstTicketId = ticket.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldLoadTicketPageWithFixedQueryCount() {
+        // ACT
+        Page<Ticket> page = ticketRepository.findAll(PageRequest.of(0, 5));
+        page.forEach(this::touchListView);
+
+        // ASSERT
+        // page + count + one batch for the addresses of every customer and owner on the page
+        assertEquals(5, page.getNumberOfElements());
+        assertEquals(TICKETS, page.getTotalElements());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldNotDependOnPageSizeForQueryCount() {
+        // ACT
+        Page<Ticket> page = ticketRepository.findAll(PageRequest.of(0, 10));
+        page.forEach(this::touchListView);
+
+        // ASSERT
+        assertEquals(10, page.getNumberOfElements());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldLoadTicketDetailWithFixedQueryCount() {
+        // ACT
+        Ticket ticket = ticketRepository.findWithDetailsById(firstTicketId).orElseThrow();
+        touchListView(ticket);
+        ticket.getTicketFiles().forEach(TicketFiles::getFileName);
+
+        // ASSERT
+        // ticket with customer, owner and files + one batch for the addresses
+        assertEquals(1, ticket.getTicketFiles().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldBulkUpdateTicketsWithOneStatementEach() {
+        // ARRANGE
+        List<Long> ids = ticketRepository.findIds(null, null, null, null, null, PageRequest.of(0, TICKETS));
+        Long ownerId = ticketRepository.findExportByIdIn(List.of(firstTicketId)).get(0).getTicketOwnerId();
+        Employee owner = entityManager.getEntityManager().getReference(Employee.class, ownerId);
+        assertEquals(TICKETS, ticketRepository.lockByIdIn(ids).size());
+        statistics.clear();
+
+        // ACT
+        int reassigned = ticketRepository.updateOwner(ids, owner);
+        int statusChanged = ticketRepository.updateStatus(ids, Status.ESCALATED);
+
+        // ASSERT
+        assertEquals(TICKETS, reassigned);
+        assertEquals(TICKETS, statusChanged);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        List<TicketExportDTO> tickets = ticketRepository.findExportByIdIn(ids);
+        assertTrue(tickets.stream().allMatch(ticket -> ticket.getStatus() == Status.ESCALATED
+                && ownerId.equals(ticket.getTicketOwnerId())));
+    }
+
+    @Test
+    void shouldPageThroughTicketsWithoutOpeningDate() {
+        // ARRANGE
+        List<Long> ids = ticketRepository.findIds(null, null, null, null, null, PageRequest.of(0, TICKETS));
+        // Legacy rows stored before the opening date was required
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Ticket t SET t.openingDate = NULL WHERE t.id IN :ids")
+                .setParameter("ids", ids.subList(0, 3))
+                .executeUpdate();
+
+        // ACT
+        List<Long> seen = new ArrayList<>();
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        List<TicketSummaryDTO> rows;
+        do {
+            rows = ticketRepository.findSummaries(null, null, null, null, null, cursorDate, cursorId,
+                    PageRequest.of(0, 5));
+            rows.forEach(row -> seen.add(row.getId()));
+            if (!rows.isEmpty()) {
+                cursorDate = rows.get(rows.size() - 1).getOpeningDate();
+                cursorId = rows.get(rows.size() - 1).getId();
+            }
+        } while (rows.size() == 5);
+
+        // ASSERT
+        assertEquals(TICKETS, seen.size());
+        assertEquals(new HashSet<>(ids), new HashSet<>(seen));
+    }
+
+    // auxiliary methods
+
+    // Reads what the list and detail views render
+    private void touchListView(Ticket ticket) {
+        ticket.getCustomer().getName();
+        ticket.getCustomer().getAddresses().size();
+        ticket.getTicketOwner().getPositionSalary().getPosition();
+        ticket.getTicketOwner().getAddresses().size();
+    }
+
+    private Address address(String street) {
+        Address address = new Address();
+        address.setStreet(street);
+        return address;
+    }
+}
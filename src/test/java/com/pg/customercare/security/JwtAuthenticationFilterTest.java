@@ -0,0 +1,145 @@
+package com.pg.customercare.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.pg.customercare.model.Role;
+import com.pg.customercare.repository.RoleRepository;
+import com.pg.customercare.repository.UserRepository;
+import com.pg.customercare.service.UserService;
+import com.pg.customercare.util.JwtUtil;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class JwtAuthenticationFilterTest {
+
+    private static final String EMAIL = "agent@customercare.com";
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    private JwtUtil jwtUtil;
+    private RoleVersionRegistry roleVersionRegistry;
+    private JwtAuthenticationFilter filter;
+    private Role role;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "customercareproject1234567890securekey");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(jwtUtil, "statelessAuthorities", true);
+        jwtUtil.init();
+
+        roleVersionRegistry = new RoleVersionRegistry(roleRepository, userRepository);
+        ReflectionTestUtils.setField(roleVersionRegistry, "refreshInterval", Duration.ofSeconds(30));
+        roleVersionRegistry.init();
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userService", userService);
+        ReflectionTestUtils.setField(filter, "roleVersionRegistry", roleVersionRegistry);
+
+        role = new Role(3L, "ROLE_AGENT", new HashSet<>(), new HashSet<>(), 2L);
+        given(roleRepository.findPermissionsVersionById(3L)).willReturn(Optional.of(2L));
+        given(userRepository.findRoleIdByEmail(EMAIL)).willReturn(Optional.of(3L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateFromTokenWhenRoleVersionIsCurrent() throws Exception {
+        // ACT
+        Authentication authentication = filter(jwtUtil.generateToken(EMAIL, role));
+
+        // ASSERT
+        assertNotNull(authentication);
+        assertEquals(EMAIL, authentication.getName());
+        assertEquals("ROLE_AGENT", authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).findFirst().orElse(null));
+        then(userService).should(never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void shouldRejectTokenIssuedBeforeRolePermissionsChanged() throws Exception {
+        // ARRANGE
+        String token = jwtUtil.generateToken(EMAIL, role);
+        assertNotNull(filter(token));
+        SecurityContextHolder.clearContext();
+        given(roleRepository.findPermissionsVersionById(3L)).willReturn(Optional.of(3L));
+
+        // ACT
+        roleVersionRegistry.invalidate(3L);
+        Authentication authentication = filter(token);
+
+        // ASSERT
+        assertNull(authentication);
+    }
+
+    @Test
+    void shouldRejectTokenOfDeletedRole() throws Exception {
+        // ARRANGE
+        given(roleRepository.findPermissionsVersionById(3L)).willReturn(Optional.empty());
+
+        // ACT
+        Authentication authentication = filter(jwtUtil.generateToken(EMAIL, role));
+
+        // ASSERT
+        assertNull(authentication);
+    }
+
+    @Test
+    void shouldRejectTokenOfUserMovedToAnotherRole() throws Exception {
+        // ARRANGE
+        String token = jwtUtil.generateToken(EMAIL, role);
+        assertNotNull(filter(token));
+        SecurityContextHolder.clearContext();
+        given(userRepository.findRoleIdByEmail(EMAIL)).willReturn(Optional.of(4L));
+
+        // ACT
+        roleVersionRegistry.invalidateUser(EMAIL);
+        Authentication authentication = filter(token);
+
+        // ASSERT
+        assertNull(authentication);
+    }
+
+    // auxiliary methods
+    private Authentication filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tickets");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,236 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.pg.customercare.model.AttachmentOutbox;
+import com.pg.customercare.model.TicketFiles;
+import com.pg.customercare.model.ENUM.AttachmentStatus;
+import com.pg.customercare.repository.AttachmentOutboxRepository;
+import com.pg.customercare.repository.TicketFilesRepository;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class AttachmentPipelineServiceTest {
+
+    private static final Long OUTBOX_ID = 9L;
+    private static final Long FILE_ID = 5L;
+
+    @Mock
+    private AttachmentOutboxRepository attachmentOutboxRepository;
+
+    @Mock
+    private TicketFilesRepository ticketFilesRepository;
+
+    @Mock
+    private BlobStoreService blobStoreService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path stagingFolder;
+
+    private AttachmentPipelineService attachmentPipelineService;
+    private AttachmentOutbox task;
+    private TicketFiles ticketFile;
+    private Path stagedFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        attachmentPipelineService = new AttachmentPipelineService(
+                attachmentOutboxRepository, ticketFilesRepository, blobStoreService, transactionManager);
+        ReflectionTestUtils.setField(attachmentPipelineService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(attachmentPipelineService, "retryBackoff", Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(attachmentPipelineService, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(attachmentPipelineService, "thumbnailSize", 16);
+
+        stagedFile = Files.writeString(stagingFolder.resolve("upload.part"), "log line", StandardCharsets.UTF_8);
+        task = new AttachmentOutbox(OUTBOX_ID, FILE_ID, stagedFile.toString(), 1, Instant.now(), null, null);
+
+        ticketFile = new TicketFiles();
+        ticketFile.setId(FILE_ID);
+        ticketFile.setFileName("log.txt");
+        ticketFile.setStatus(AttachmentStatus.PENDING);
+
+        given(attachmentOutboxRepository.claim(eq(OUTBOX_ID), any(), any())).willReturn(1);
+        given(attachmentOutboxRepository.findById(OUTBOX_ID)).willReturn(Optional.of(task));
+        given(ticketFilesRepository.lockById(FILE_ID)).willReturn(Optional.of(ticketFile));
+        given(blobStoreService.checksum(stagedFile)).willReturn("abc");
+        given(blobStoreService.storeStaged(stagedFile, "abc")).willReturn(Path.of("blobs", "ab", "abc"));
+    }
+
+    @Test
+    void shouldMoveStagedFileIntoStoreAndMarkItReady() {
+        // ACT
+        attachmentPipelineService.process(OUTBOX_ID);
+
+        // ASSERT
+        assertEquals(AttachmentStatus.READY, ticketFile.getStatus());
+        assertEquals(Path.of("blobs", "ab", "abc").toString(), ticketFile.getFilePath());
+        assertEquals("abc", ticketFile.getChecksum());
+        assertNull(ticketFile.getThumbnailPath());
+        then(attachmentOutboxRepository).should().deleteById(OUTBOX_ID);
+    }
+
+    @Test
+    void shouldStoreThumbnailOfImages() throws Exception {
+        // ARRANGE
+        ImageIO.write(new BufferedImage(64, 32, BufferedImage.TYPE_INT_RGB), "png", stagedFile.toFile());
+        Path thumbnail = stagingFolder.resolve("thumbnail.part");
+        given(blobStoreService.stage(any(), anyLong())).willAnswer(invocation -> {
+            Files.copy(invocation.<InputStream>getArgument(0), thumbnail);
+            return thumbnail;
+        });
+        given(blobStoreService.checksum(thumbnail)).willReturn("def");
+        given(blobStoreService.storeStaged(thumbnail, "def")).willReturn(Path.of("blobs", "de", "def"));
+
+        // ACT
+        attachmentPipelineService.process(OUTBOX_ID);
+
+        // ASSERT
+        BufferedImage scaled = ImageIO.read(thumbnail.toFile());
+        assertEquals(16, scaled.getWidth());
+        assertEquals(8, scaled.getHeight());
+        assertEquals(Path.of("blobs", "de", "def").toString(), ticketFile.getThumbnailPath());
+        assertEquals(AttachmentStatus.READY, ticketFile.getStatus());
+    }
+
+    @Test
+    void shouldSkipRowClaimedByAnotherWorker() throws Exception {
+        // ARRANGE
+        given(attachmentOutboxRepository.claim(eq(OUTBOX_ID), any(), any())).willReturn(0);
+
+        // ACT
+        attachmentPipelineService.process(OUTBOX_ID);
+
+        // ASSERT
+        then(blobStoreService).should(never()).checksum(any());
+        assertEquals(AttachmentStatus.PENDING, ticketFile.getStatus());
+    }
+
+    @Test
+    void shouldRescheduleFailedAttemptWithBackoff() throws Exception {
+        // ARRANGE
+        given(blobStoreService.checksum(stagedFile)).willThrow(new IOException("disk error"));
+        Instant before = Instant.now();
+
+        // ACT
+        attachmentPipelineService.process(OUTBOX_ID);
+
+        // ASSERT
+        then(attachmentOutboxRepository).should().reschedule(eq(OUTBOX_ID),
+                argThat(nextAttemptAt -> !nextAttemptAt.isBefore(before.plusSeconds(10))),
+                eq("IOException: disk error"), isNull());
+        then(attachmentOutboxRepository).should(never()).deleteById(any());
+        assertEquals(AttachmentStatus.PENDING, ticketFile.getStatus());
+    }
+
+    @Test
+    void shouldRecordChecksumWhenStoringFails() throws Exception {
+        // ARRANGE
+        given(blobStoreService.storeStaged(stagedFile, "abc")).willThrow(new IOException("disk full"));
+
+        // ACT
+        attachmentPipelineService.process(OUTBOX_ID);
+
+        // ASSERT
+        then(attachmentOutboxRepository).should().reschedule(eq(OUTBOX_ID), any(), eq("IOException: disk full"),
+                eq("abc"));
+        assertEquals(AttachmentStatus.PENDING, ticketFile.getStatus());
+    }
+
+    @Test
+    void shouldReuseStoredBlobWhenStagedFileIsGoneOnRetry() throws Exception {
+        // ARRANGE
+        Path blob = Files.writeString(stagingFolder.resolve("abc"), "log line", StandardCharsets.UTF_8);
+        Files.delete(stagedFile);
+        task.setChecksum("abc");
+        given(blobStoreService.find("abc")).willReturn(blob);
+        given(blobStoreService.storeExisting("abc")).willReturn(blob);
+
+        // ACT
+        attachmentPipelineService.process(OUTBOX_ID);
+
+        // ASSERT
+        assertEquals(AttachmentStatus.READY, ticketFile.getStatus());
+        assertEquals(blob.toString(), ticketFile.getFilePath());
+        then(blobStoreService).should(never()).checksum(stagedFile);
+        then(blobStoreService).should(never()).storeStaged(any(), any());
+        then(attachmentOutboxRepository).should().deleteById(OUTBOX_ID);
+    }
+
+    @Test
+    void shouldMarkFileFailedAfterLastAttempt() throws Exception {
+        // ARRANGE
+        task.setAttempts(3);
+        given(blobStoreService.checksum(stagedFile)).willThrow(new IOException("disk error"));
+
+        // ACT
+        attachmentPipelineService.process(OUTBOX_ID);
+
+        // ASSERT
+        assertEquals(AttachmentStatus.FAILED, ticketFile.getStatus());
+        then(attachmentOutboxRepository).should().deleteById(OUTBOX_ID);
+        then(blobStoreService).should().discard(stagedFile);
+    }
+
+    @Test
+    void shouldLockFileRowBeforeStoringIt() throws Exception {
+        // ACT
+        attachmentPipelineService.process(OUTBOX_ID);
+
+        // ASSERT
+        InOrder inOrder = inOrder(ticketFilesRepository, blobStoreService);
+        then(ticketFilesRepository).should(inOrder).lockById(FILE_ID);
+        then(blobStoreService).should(inOrder).storeStaged(stagedFile, "abc");
+        then(ticketFilesRepository).should(never()).findById(any());
+    }
+
+    @Test
+    void shouldDropStagedFileOfDeletedTicket() throws Exception {
+        // ARRANGE
+        given(ticketFilesRepository.lockById(FILE_ID)).willReturn(Optional.empty());
+
+        // ACT
+        attachmentPipelineService.process(OUTBOX_ID);
+
+        // ASSERT
+        then(blobStoreService).should(never()).storeStaged(any(), any());
+        then(blobStoreService).should().discard(stagedFile);
+        then(attachmentOutboxRepository).should().deleteById(OUTBOX_ID);
+    }
+
+    @Test
+    void shouldDoubleBackoffAfterEachFailure() {
+        // ACT & ASSERT
+        assertEquals(Duration.ofSeconds(10), attachmentPipelineService.backoff(1));
+        assertEquals(Duration.ofSeconds(20), attachmentPipelineService.backoff(2));
+        assertEquals(Duration.ofSeconds(40), attachmentPipelineService.backoff(3));
+    }
+}
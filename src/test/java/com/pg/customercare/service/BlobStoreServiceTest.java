@@ -0,0 +1,320 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.pg.customercare.dto.FileDownloadDTO;
+import com.pg.customercare.exception.impl.NotFoundException;
+import com.pg.customercare.exception.impl.ValidationException;
+import com.pg.customercare.model.StoredBlob;
+import com.pg.customercare.repository.StoredBlobRepository;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class BlobStoreServiceTest {
+
+    @InjectMocks
+    private BlobStoreService blobStoreService;
+
+    @Mock
+    private StoredBlobRepository storedBlobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private MultipartFile file;
+
+    @TempDir
+    Path blobFolder;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(blobStoreService, "blobFolder", blobFolder.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldStoreIdenticalContentOnce() throws Exception {
+        // ARRANGE
+        byte[] content = "log line".getBytes(StandardCharsets.UTF_8);
+        given(file.getInputStream())
+                .willReturn(new ByteArrayInputStream(content), new ByteArrayInputStream(content));
+
+        // ACT
+        Path first = blobStoreService.store(file, 1024);
+        Path second = blobStoreService.store(file, 1024);
+
+        // ASSERT
+        assertEquals(first, second);
+        assertArrayEquals(content, Files.readAllBytes(first));
+        assertEquals(first.getFileName().toString(), blobStoreService.hashOf(first.toString()));
+        then(storedBlobRepository).should(times(2)).acquire(eq(first.getFileName().toString()), eq((long) content.length));
+        try (var temp = Files.list(blobFolder.resolve("tmp"))) {
+            assertEquals(0, temp.count());
+        }
+    }
+
+    @Test
+    void shouldNotKeepPartialFileWhenContentExceedsLimit() throws Exception {
+        // ARRANGE
+        given(file.getInputStream()).willReturn(new ByteArrayInputStream(new byte[2048]));
+
+        // ACT & ASSERT
+        assertThrows(ValidationException.class, () -> blobStoreService.store(file, 1024));
+        try (var temp = Files.list(blobFolder.resolve("tmp"))) {
+            assertEquals(0, temp.count());
+        }
+        then(storedBlobRepository).should(never()).acquire(anyString(), anyLong());
+    }
+
+    @Test
+    void shouldStoreStagedFileUnderItsChecksum() throws Exception {
+        // ARRANGE
+        byte[] content = "log line".getBytes(StandardCharsets.UTF_8);
+        Path staged = blobStoreService.stage(new ByteArrayInputStream(content), 1024);
+        String hash = blobStoreService.checksum(staged);
+
+        // ACT
+        Path blob = blobStoreService.storeStaged(staged, hash);
+
+        // ASSERT
+        assertEquals(hash, blob.getFileName().toString());
+        assertArrayEquals(content, Files.readAllBytes(blob));
+        assertFalse(Files.exists(staged));
+        then(storedBlobRepository).should().acquire(hash, content.length);
+    }
+
+    @Test
+    void shouldKeepStagedFileUntilTransactionCommits() throws Exception {
+        // ARRANGE
+        Path staged = blobStoreService.stage(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), 1024);
+        String hash = blobStoreService.checksum(staged);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // ACT
+        Path blob = blobStoreService.storeStaged(staged, hash);
+        boolean stagedBeforeCommit = Files.exists(staged);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // ASSERT
+        assertTrue(stagedBeforeCommit);
+        assertFalse(Files.exists(staged));
+        assertTrue(Files.exists(blob));
+    }
+
+    @Test
+    void shouldKeepStagedFileForRetryWhenTransactionRollsBack() throws Exception {
+        // ARRANGE
+        Path staged = blobStoreService.stage(new ByteArrayInputStream(new byte[] { 1, 2, 3 }), 1024);
+        String hash = blobStoreService.checksum(staged);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // ACT
+        Path blob = blobStoreService.storeStaged(staged, hash);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // ASSERT
+        assertTrue(Files.exists(staged));
+        assertFalse(Files.exists(blob));
+    }
+
+    @Test
+    void shouldAddReferenceToContentAlreadyStored() throws Exception {
+        // ARRANGE
+        given(file.getInputStream()).willReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        Path blob = blobStoreService.store(file, 1024);
+        String hash = blob.getFileName().toString();
+
+        // ACT
+        Path found = blobStoreService.find(hash);
+        Path reused = blobStoreService.storeExisting(hash);
+
+        // ASSERT
+        assertEquals(blob, found);
+        assertEquals(blob, reused);
+        then(storedBlobRepository).should(times(2)).acquire(hash, 3L);
+        assertNull(blobStoreService.find("0".repeat(64)));
+        assertThrows(NoSuchFileException.class, () -> blobStoreService.storeExisting("0".repeat(64)));
+    }
+
+    @Test
+    void shouldDeleteBlobWhenLastReferenceIsReleased() throws Exception {
+        // ARRANGE
+        given(file.getInputStream()).willReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        Path blob = blobStoreService.store(file, 1024);
+        String hash = blob.getFileName().toString();
+        given(storedBlobRepository.deleteIfUnreferenced(hash)).willReturn(1);
+
+        // ACT
+        blobStoreService.release(blob.toString());
+
+        // ASSERT
+        then(storedBlobRepository).should().release(hash);
+        assertFalse(Files.exists(blob));
+    }
+
+    @Test
+    void shouldDeleteReleasedBlobOnlyOnceTransactionCommits() throws Exception {
+        // ARRANGE
+        given(file.getInputStream()).willReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        Path blob = blobStoreService.store(file, 1024);
+        given(storedBlobRepository.deleteIfUnreferenced(anyString())).willReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // ACT
+        blobStoreService.release(blob.toString());
+        boolean existsBeforeCommit = Files.exists(blob);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // ASSERT
+        assertTrue(existsBeforeCommit);
+        assertFalse(Files.exists(blob));
+    }
+
+    @Test
+    void shouldKeepReleasedBlobWhenTransactionRollsBack() throws Exception {
+        // ARRANGE
+        given(file.getInputStream()).willReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        Path blob = blobStoreService.store(file, 1024);
+        given(storedBlobRepository.deleteIfUnreferenced(anyString())).willReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // ACT
+        blobStoreService.release(blob.toString());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // ASSERT
+        assertTrue(Files.exists(blob));
+    }
+
+    @Test
+    void shouldKeepBlobWhenAcquiredAgainBeforeCleanup() throws Exception {
+        // ARRANGE
+        given(file.getInputStream()).willReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        Path blob = blobStoreService.store(file, 1024);
+        String hash = blob.getFileName().toString();
+        given(storedBlobRepository.deleteIfUnreferenced(hash)).willReturn(1);
+        given(storedBlobRepository.lockByHash(hash)).willReturn(Optional.of(new StoredBlob()));
+
+        // ACT
+        blobStoreService.release(blob.toString());
+
+        // ASSERT
+        assertTrue(Files.exists(blob));
+    }
+
+    @Test
+    void shouldDeleteStoredBlobWhenTransactionRollsBack() throws Exception {
+        // ARRANGE
+        given(file.getInputStream()).willReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // ACT
+        Path blob = blobStoreService.store(file, 1024);
+        boolean existsBeforeRollback = Files.exists(blob);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // ASSERT
+        assertTrue(existsBeforeRollback);
+        assertFalse(Files.exists(blob));
+    }
+
+    @Test
+    void shouldKeepBlobWhileStillReferenced() throws Exception {
+        // ARRANGE
+        given(file.getInputStream()).willReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        Path blob = blobStoreService.store(file, 1024);
+        given(storedBlobRepository.deleteIfUnreferenced(anyString())).willReturn(0);
+
+        // ACT
+        blobStoreService.release(blob.toString());
+
+        // ASSERT
+        assertTrue(Files.exists(blob));
+    }
+
+    @Test
+    void shouldDeleteLegacyFileOutsideStore(@TempDir Path legacyFolder) throws Exception {
+        // ARRANGE
+        Path legacy = Files.writeString(legacyFolder.resolve("123_photo.png"), "x");
+        ReflectionTestUtils.setField(blobStoreService, "legacyFolders", new String[] { legacyFolder.toString() });
+
+        // ACT
+        blobStoreService.release(legacy.toString());
+
+        // ASSERT
+        assertFalse(Files.exists(legacy));
+        then(storedBlobRepository).should(never()).release(anyString());
+    }
+
+    @Test
+    void shouldDescribeBlobWithContentHashAsEtag() throws Exception {
+        // ARRANGE
+        given(file.getInputStream()).willReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+        Path blob = blobStoreService.store(file, 1024);
+
+        // ACT
+        FileDownloadDTO download = blobStoreService.describe("report.log", blob.toString());
+
+        // ASSERT
+        assertEquals("report.log", download.getFileName());
+        assertEquals(3L, download.getSize());
+        assertEquals(blob.getFileName().toString(), download.getEtag());
+    }
+
+    @Test
+    void shouldRefuseFilesOutsideStoreAndLegacyFolders(@TempDir Path otherFolder) throws Exception {
+        // ARRANGE
+        Path secret = Files.writeString(otherFolder.resolve("application.properties"), "jwt.secret=x");
+        Path staged = blobStoreService.stage(new ByteArrayInputStream(new byte[] { 1 }), 1024);
+
+        // ACT & ASSERT
+        assertThrows(NotFoundException.class, () -> blobStoreService.describe("photo.png", secret.toString()));
+        assertThrows(NotFoundException.class, () -> blobStoreService.describe("photo.png",
+                blobFolder.resolve("..").resolve(otherFolder.getFileName()).resolve("application.properties").toString()));
+        assertThrows(NotFoundException.class, () -> blobStoreService.describe("photo.png", staged.toString()));
+        blobStoreService.release(secret.toString());
+        assertTrue(Files.exists(secret));
+    }
+
+    @Test
+    void shouldThrowNotFoundExceptionWhenDescribingMissingFile() {
+        // ACT & ASSERT
+        assertThrows(NotFoundException.class,
+                () -> blobStoreService.describe("gone.png", blobFolder.resolve("gone.png").toString()));
+    }
+}
@@ -0,0 +1,147 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pg.customercare.dto.ImportReportDTO;
+import com.pg.customercare.exception.impl.BadRequestException;
+import com.pg.customercare.model.Customer;
+import com.pg.customercare.model.ENUM.CustomerType;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CustomerImportServiceTest {
+
+    private CustomerImportService customerImportService;
+
+    @Mock
+    private CustomerService customerService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<Customer> customerCaptor;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        customerImportService = new CustomerImportService(customerService, objectMapper, entityManager,
+                transactionManager);
+        ReflectionTestUtils.setField(customerImportService, "chunkSize", 2);
+    }
+
+    @Test
+    void shouldImportCsvRowsInChunks() throws Exception {
+        // ARRANGE
+        InputStream csv = stream("""
+                name,customerType,gender,birthDate
+                "Doe, John",INDIVIDUAL,MALE,1990-01-01
+                Acme,CORPORATE,FEMALE,
+                Jane,INDIVIDUAL,FEMALE,1985-05-05
+                """);
+
+        // ACT
+        ImportReportDTO report = customerImportService.importCustomers(csv, CustomerImportService.Format.CSV);
+
+        // ASSERT
+        assertEquals(3, report.getProcessed());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getFailed());
+        then(entityManager).should(times(3)).persist(customerCaptor.capture());
+        assertEquals("Doe, John", customerCaptor.getAllValues().get(0).getName());
+        // two chunks of at most two rows, each in its own transaction
+        then(transactionManager).should(times(2)).commit(any());
+        then(customerService).should(atLeast(3)).validateGender(any(Customer.class));
+    }
+
+    @Test
+    void shouldReportInvalidRowsAndKeepGoing() throws Exception {
+        // ARRANGE
+        InputStream ndjson = stream("""
+                {"name":"John","customerType":"INDIVIDUAL"}
+                {"name":"","customerType":"INDIVIDUAL"}
+                not json
+                {"name":"Acme","customerType":"CORPORATE","contractDate":"2999-01-01"}
+                """);
+
+        // ACT
+        ImportReportDTO report = customerImportService.importCustomers(ndjson, CustomerImportService.Format.NDJSON);
+
+        // ASSERT
+        assertEquals(4, report.getProcessed());
+        assertEquals(1, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals("Name is mandatory", report.getErrors().get(0).getMessage());
+        assertEquals(3, report.getErrors().get(1).getRow());
+        assertEquals("The contract date must be in the past", report.getErrors().get(2).getMessage());
+    }
+
+    @Test
+    void shouldRetryFailedChunkRowByRow() throws Exception {
+        // ARRANGE
+        InputStream ndjson = stream("""
+                {"name":"John","customerType":"INDIVIDUAL"}
+                {"name":"Duplicate","customerType":"INDIVIDUAL"}
+                """);
+        willAnswer(invocation -> {
+            Customer customer = invocation.getArgument(0);
+            if ("Duplicate".equals(customer.getName())) {
+                throw new PersistenceException("duplicate key");
+            }
+            return null;
+        }).given(entityManager).persist(any(Customer.class));
+
+        // ACT
+        ImportReportDTO report = customerImportService.importCustomers(ndjson, CustomerImportService.Format.NDJSON);
+
+        // ASSERT
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals("Could not be saved: duplicate key", report.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    void shouldRejectUnknownCsvColumn() {
+        // ARRANGE
+        InputStream csv = stream("name,salary\nJohn,1000\n");
+
+        // ACT & ASSERT
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> {
+            customerImportService.importCustomers(csv, CustomerImportService.Format.CSV);
+        });
+        assertEquals("Unknown CSV column: salary", exception.getMessage());
+    }
+
+    // auxiliary methods
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
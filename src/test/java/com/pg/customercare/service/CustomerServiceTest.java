@@ -1,6 +1,7 @@
 package com.pg.customercare.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 
 import java.util.ArrayList;
@@ -14,13 +15,22 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pg.customercare.dto.CustomerFilterDTO;
+import com.pg.customercare.dto.CustomerSummaryDTO;
+import com.pg.customercare.exception.impl.BadRequestException;
 import com.pg.customercare.exception.impl.NotFoundException;
 import com.pg.customercare.model.Customer;
 import com.pg.customercare.model.ENUM.CustomerType;
 import com.pg.customercare.model.ENUM.Gender;
+import com.pg.customercare.model.ENUM.Situation;
 import com.pg.customercare.repository.CustomerRepository;
+import com.pg.customercare.util.CursorResponse;
+import com.pg.customercare.util.KeysetCursor;
 
 @ExtendWith(MockitoExtension.class)
 public class CustomerServiceTest {
@@ -31,6 +41,9 @@ public class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @Mock
     private Customer customer;
 
@@ -106,18 +119,53 @@ public class CustomerServiceTest {
     }
 
     @Test
-    void shouldGetAllCustomers() {
+    void shouldGetCustomersPageWithNextCursor() {
         // ARRANGE
-        List<Customer> customers = new ArrayList<>();
-        customers.add(customer);
-        given(customerRepository.findAll()).willReturn(customers);
+        List<CustomerSummaryDTO> rows = new ArrayList<>();
+        rows.add(summary(1L, "Alice"));
+        rows.add(summary(2L, "Bob"));
+        rows.add(summary(3L, "Carol"));
+        given(customerRepository.findSummaries(eq("Al%"), isNull(), isNull(), isNull(), eq(CustomerType.INDIVIDUAL),
+                isNull(), isNull(), isNull(), any(Pageable.class))).willReturn(rows);
+        CustomerFilterDTO filter = new CustomerFilterDTO("Al", " ", null, null, CustomerType.INDIVIDUAL, null);
 
         // ACT
-        List<Customer> result = customerService.getAllCustomers();
+        CursorResponse<CustomerSummaryDTO> result = customerService.getCustomers(filter, null, 2);
 
         // ASSERT
-        assertEquals(1, result.size());
-        assertEquals(customer, result.get(0));
+        assertEquals(2, result.getItems().size());
+        assertTrue(result.isHasNext());
+        assertEquals(new KeysetCursor("Bob", 2L), KeysetCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void shouldEscapeWildcardsInCustomerName() {
+        // ARRANGE
+        given(customerRepository.findSummaries(eq("50!%!_off%"), isNull(), isNull(), isNull(), isNull(), isNull(),
+                isNull(), isNull(), any(Pageable.class))).willReturn(List.of(summary(1L, "50%_off Ltd")));
+        CustomerFilterDTO filter = new CustomerFilterDTO("50%_off", null, null, null, null, null);
+
+        // ACT
+        CursorResponse<CustomerSummaryDTO> result = customerService.getCustomers(filter, null, 20);
+
+        // ASSERT
+        assertEquals(1, result.getItems().size());
+    }
+
+    @Test
+    void shouldSeekFromCursorWhenGettingCustomers() {
+        // ARRANGE
+        String cursor = KeysetCursor.encode("Bob", 2L);
+        given(customerRepository.findSummaries(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(),
+                eq("Bob"), eq(2L), any(Pageable.class))).willReturn(List.of(summary(3L, "Carol")));
+
+        // ACT
+        CursorResponse<CustomerSummaryDTO> result = customerService.getCustomers(new CustomerFilterDTO(), cursor, 20);
+
+        // ASSERT
+        assertEquals(1, result.getItems().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
     }
 
     @Test
@@ -215,4 +263,52 @@ public class CustomerServiceTest {
         assertNull(result.getGender()); // Ensure gender is nullified for corporate customers
     }
 
+    @Test
+    void shouldPatchOnlyTheGivenFields() throws Exception {
+        // ARRANGE
+        customer.setPhone("555-0100");
+        given(customerRepository.findById(1L)).willReturn(Optional.of(customer));
+
+        // ACT
+        Customer result = customerService.patchCustomer(1L,
+                objectMapper.readTree("{\"situation\":\"INACTIVE\",\"phone\":null}"));
+
+        // ASSERT
+        assertEquals(Situation.INACTIVE, result.getSituation());
+        assertNull(result.getPhone());
+        assertEquals("John Doe", result.getName());
+        then(customerRepository).should(never()).save(any());
+    }
+
+    @Test
+    void shouldClearGenderWhenPatchedToCorporate() throws Exception {
+        // ARRANGE
+        given(customerRepository.findById(1L)).willReturn(Optional.of(customer));
+
+        // ACT
+        Customer result = customerService.patchCustomer(1L, objectMapper.readTree("{\"customerType\":\"CORPORATE\"}"));
+
+        // ASSERT
+        assertNull(result.getGender());
+    }
+
+    @Test
+    void shouldRejectPatchOfAddresses() throws Exception {
+        // ARRANGE
+        given(customerRepository.findById(1L)).willReturn(Optional.of(customer));
+
+        // ACT & ASSERT
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> customerService.patchCustomer(1L, objectMapper.readTree("{\"addresses\":[]}")));
+        assertEquals("Fields cannot be patched: addresses", exception.getMessage());
+    }
+
+    // auxiliary methods
+    private CustomerSummaryDTO summary(Long id, String name) {
+        CustomerSummaryDTO summary = new CustomerSummaryDTO();
+        summary.setId(id);
+        summary.setName(name);
+        summary.setCustomerType(CustomerType.INDIVIDUAL);
+        return summary;
+    }
 }
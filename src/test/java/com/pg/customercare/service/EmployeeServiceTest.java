@@ -3,6 +3,7 @@ package com.pg.customercare.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -23,8 +24,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pg.customercare.exception.impl.BadRequestException;
 import com.pg.customercare.exception.impl.NotFoundException;
 import com.pg.customercare.exception.impl.ValidationException;
 import com.pg.customercare.model.Dependent;
@@ -46,6 +52,18 @@ public class EmployeeServiceTest {
     @Mock
     private PositionSalaryRepository positionSalaryRepository;
 
+    @Mock
+    private BlobStoreService blobStoreService;
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Captor
     private ArgumentCaptor<Employee> employeeCaptor;
 
@@ -141,8 +159,8 @@ public class EmployeeServiceTest {
     @Test
     void shouldUpdateEmployee() {
         // ARRANGE
-        given(employeeRepository.existsById(employee.getId())).willReturn(true);
-        given(positionSalaryRepository.findById(positionSalary.getId())).willReturn(Optional.of(positionSalary));
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
+        given(referenceDataCache.findPositionSalary(positionSalary.getId())).willReturn(Optional.of(positionSalary));
         given(employeeRepository.save(employee)).willReturn(employee);
 
         // ACT
@@ -157,6 +175,69 @@ public class EmployeeServiceTest {
         assertEquals(positionSalary, capturedEmployee.getPositionSalary());
     }
 
+    @Test
+    void shouldKeepStoredPhotosAndReleaseThoseOfDroppedDependents() throws Exception {
+        // ARRANGE
+        Employee stored = new Employee();
+        stored.setId(1L);
+        stored.setPhotoAddress("/blobs/aa/employee");
+        stored.setDependents(new ArrayList<>(List.of(
+                dependent(2L, "/blobs/bb/kept"), dependent(3L, "/blobs/cc/dropped"))));
+        // The body never carries photo addresses; an id of another employee's dependent is sent too
+        employee.setDependents(new ArrayList<>(List.of(dependent(2L, null), dependent(9L, null))));
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(stored));
+        given(referenceDataCache.findPositionSalary(positionSalary.getId())).willReturn(Optional.of(positionSalary));
+        given(employeeRepository.save(employee)).willReturn(employee);
+
+        // ACT
+        employeeService.updateEmployee(employee);
+
+        // ASSERT
+        then(employeeRepository).should().save(employeeCaptor.capture());
+        Employee captured = employeeCaptor.getValue();
+        assertEquals("/blobs/aa/employee", captured.getPhotoAddress());
+        assertEquals("/blobs/bb/kept", captured.getDependents().get(0).getPhotoAddress());
+        assertNull(captured.getDependents().get(1).getId());
+        then(blobStoreService).should().release("/blobs/cc/dropped");
+        then(blobStoreService).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    void shouldStagePhotoBeforeTheTransaction() throws Exception {
+        // ARRANGE
+        MockMultipartFile photo = new MockMultipartFile("file", "john.png", "image/png", new byte[] { 1, 2, 3 });
+        Path stagedPath = Path.of("/blobs/staging/photo.part");
+        given(blobStoreService.stage(any(), eq(5L * 1024 * 1024))).willReturn(stagedPath);
+        given(blobStoreService.checksum(stagedPath)).willReturn("ab");
+        given(blobStoreService.storeStaged(stagedPath, "ab")).willReturn(Path.of("/blobs/ab"));
+        given(referenceDataCache.findPositionSalary(positionSalary.getId())).willReturn(Optional.of(positionSalary));
+        given(employeeRepository.save(employee)).willReturn(employee);
+
+        // ACT
+        Employee savedEmployee = employeeService.saveEmployee(employee, photo, null);
+
+        // ASSERT
+        assertEquals(Path.of("/blobs/ab").toString(), savedEmployee.getPhotoAddress());
+        assertEquals("john.png", savedEmployee.getPhotoName());
+        then(blobStoreService).should(never()).store(any(), anyLong());
+        then(blobStoreService).should(never()).discard(any());
+    }
+
+    @Test
+    void shouldDiscardStagedPhotoWhenSaveFails() throws Exception {
+        // ARRANGE
+        MockMultipartFile photo = new MockMultipartFile("file", "john.png", "image/png", new byte[] { 1, 2, 3 });
+        Path stagedPath = Path.of("/blobs/staging/photo.part");
+        given(blobStoreService.stage(any(), anyLong())).willReturn(stagedPath);
+        given(blobStoreService.checksum(stagedPath)).willReturn("ab");
+        given(referenceDataCache.findPositionSalary(positionSalary.getId())).willReturn(Optional.empty());
+
+        // ACT & ASSERT
+        assertThrows(NotFoundException.class, () -> employeeService.saveEmployee(employee, photo, null));
+        then(blobStoreService).should().discard(stagedPath);
+        then(blobStoreService).should(never()).storeStaged(any(), any());
+    }
+
 
 
     @Test
@@ -204,4 +285,58 @@ public class EmployeeServiceTest {
         assertTrue(birthDateViolationFound, "Expected violation for birth date in the past not found");
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldPatchFieldsAndPositionWithoutTouchingDependents() throws Exception {
+        // ARRANGE
+        PositionSalary manager = new PositionSalary();
+        manager.setId(2L);
+        manager.setPosition("Manager");
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(referenceDataCache.findPositionSalary(2L)).willReturn(Optional.of(manager));
+
+        // ACT
+        Employee result = employeeService.patchEmployee(1L, objectMapper.readTree(
+                "{\"companyEmail\":\"john@example.com\",\"positionSalary\":{\"id\":2}}"));
+
+        // ASSERT
+        assertEquals("john@example.com", result.getCompanyEmail());
+        assertEquals(manager, result.getPositionSalary());
+        assertEquals(1, result.getDependents().size());
+        then(employeeRepository).should(never()).save(any());
+    }
+
+    @Test
+    void shouldPatchHireDateToNull() throws Exception {
+        // ARRANGE
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        // ACT
+        Employee result = employeeService.patchEmployee(1L, objectMapper.readTree("{\"hireDate\":null}"));
+
+        // ASSERT
+        assertNull(result.getHireDate());
+        assertEquals(LocalDate.of(1990, 1, 1), result.getBirthDate());
+    }
+
+    @Test
+    void shouldRejectPatchOfDependents() throws Exception {
+        // ARRANGE
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        // ACT & ASSERT
+        assertThrows(BadRequestException.class, () -> employeeService.patchEmployee(1L,
+                objectMapper.readTree("{\"name\":\"John\",\"dependents\":[]}")));
+        assertEquals("John Doe", employee.getName());
+    }
+
+    // auxiliary methods
+    private Dependent dependent(Long id, String photoAddress) {
+        Dependent dependent = new Dependent();
+        dependent.setId(id);
+        dependent.setName("Dependent " + id);
+        dependent.setBirthDate(LocalDate.of(2010, 1, 1));
+        dependent.setRelationship(RelationshipType.CHILD);
+        dependent.setPhotoAddress(photoAddress);
+        return dependent;
+    }
+}
@@ -3,7 +3,6 @@ package com.pg.customercare.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,10 +14,9 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import com.pg.customercare.dto.PositionSalaryDTO;
 import com.pg.customercare.exception.impl.NotFoundException;
@@ -27,7 +25,9 @@ import com.pg.customercare.model.PositionSalary;
 import com.pg.customercare.model.Role;
 import com.pg.customercare.repository.PositionSalaryRepository;
 import com.pg.customercare.repository.RoleRepository;
+import com.pg.customercare.util.CountMode;
 import com.pg.customercare.util.Response;
+import com.pg.customercare.util.SearchMode;
 
 @ExtendWith(MockitoExtension.class)
 public class PositionSalaryServiceTest {
@@ -41,6 +41,12 @@ public class PositionSalaryServiceTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private TotalCountCache totalCountCache;
+
     @Mock
     private PositionSalary positionSalary;
 
@@ -68,29 +74,44 @@ public class PositionSalaryServiceTest {
     @Test
     void shouldGetAllPositionSalaries() {
         // ARRANGE
-        List<PositionSalary> positionSalaries = new ArrayList<>();
-        positionSalaries.add(positionSalary);
-        Page<PositionSalary> page = new PageImpl<>(positionSalaries);
+        PositionSalaryDTO summary = new PositionSalaryDTO(1L, "Developer", 50000.00, 0.0, "ROLE_USER");
         Pageable pageable = PageRequest.of(0, 20);
-        given(positionSalaryRepository.findAll(pageable)).willReturn(page);
+        given(positionSalaryRepository.findSummaries(pageable)).willReturn(new SliceImpl<>(List.of(summary), pageable, false));
 
         // ACT
-        Response<PositionSalaryDTO> result = positionSalaryService.getAllPositionSalaries(pageable);
+        Response<PositionSalaryDTO> result = positionSalaryService.getAllPositionSalaries(pageable, CountMode.EXACT);
 
         // ASSERT
+        // A partial first page already tells the total, so nothing is counted
         assertEquals(1, result.getItems().size());
-        assertEquals(positionSalary.getId(), result.getItems().get(0).getId());
-        assertEquals(positionSalary.getPosition(), result.getItems().get(0).getPosition());
-        assertEquals(positionSalary.getSalary(), result.getItems().get(0).getSalary());
-        assertEquals(positionSalary.getCommission(), result.getItems().get(0).getCommission());
-        assertEquals(positionSalary.getRole().getName(), result.getItems().get(0).getRoleName());
+        assertEquals(summary, result.getItems().get(0));
+        assertEquals(1L, result.getTotalRecordsQuantity());
+        then(positionSalaryRepository).should(never()).count();
+    }
+
+    @Test
+    void shouldSearchPositionSalariesByPositionPrefix() {
+        // ARRANGE
+        Pageable pageable = PageRequest.of(1, 2);
+        PositionSalaryDTO summary = new PositionSalaryDTO(3L, "Dev_Ops", 6000.00, 0.0, "ROLE_USER");
+        given(positionSalaryRepository.findSummariesByPosition("Dev!_%", pageable))
+                .willReturn(new SliceImpl<>(List.of(summary), pageable, false));
+
+        // ACT
+        Response<PositionSalaryDTO> result = positionSalaryService.getPositionSalariesByPosition(
+                "Dev_", SearchMode.PREFIX, pageable, CountMode.CACHED);
+
+        // ASSERT
+        // Wildcards typed by the user are escaped; the last page is also counted from its content
+        assertEquals(List.of(summary), result.getItems());
+        assertEquals(3L, result.getTotalRecordsQuantity());
     }
 
     @Test
     void shouldGetPositionSalaryById() {
         // ARRANGE
         Long id = 1L;
-        given(positionSalaryRepository.findById(id)).willReturn(Optional.of(positionSalary));
+        given(referenceDataCache.findPositionSalary(id)).willReturn(Optional.of(positionSalary));
 
         // ACT
         PositionSalary result = positionSalaryService.getPositionSalaryById(id);
@@ -126,7 +147,7 @@ public class PositionSalaryServiceTest {
     @Test
     void shouldSavePositionSalaryWithExistingRole() {
         // ARRANGE
-        given(roleRepository.findById(role.getId())).willReturn(Optional.of(role));
+        given(referenceDataCache.findRole(role.getId())).willReturn(Optional.of(role));
         given(positionSalaryRepository.save(positionSalary)).willReturn(positionSalary);
 
         // ACT
@@ -162,6 +183,8 @@ public class PositionSalaryServiceTest {
 
         // ASSERT
         then(positionSalaryRepository).should().deleteById(id);
+        then(referenceDataCache).should().evictPositionSalary(id);
+        then(totalCountCache).should().invalidate(TotalCountCache.POSITION_SALARIES);
     }
 
     @Test
@@ -181,7 +204,7 @@ public class PositionSalaryServiceTest {
     void shouldUpdatePositionSalary() {
         // ARRANGE
         given(positionSalaryRepository.existsById(positionSalary.getId())).willReturn(true);
-        given(roleRepository.findById(role.getId())).willReturn(Optional.of(role));
+        given(referenceDataCache.findRole(role.getId())).willReturn(Optional.of(role));
         given(positionSalaryRepository.save(positionSalary)).willReturn(positionSalary);
 
         // ACT
@@ -192,6 +215,7 @@ public class PositionSalaryServiceTest {
         assertEquals(positionSalary, result);
         then(positionSalaryRepository).should().save(positionSalaryCaptor.capture());
         assertEquals(positionSalary, positionSalaryCaptor.getValue());
+        then(referenceDataCache).should().evictPositionSalary(positionSalary.getId());
     }
 
     @Test
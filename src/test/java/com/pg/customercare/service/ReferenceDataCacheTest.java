@@ -0,0 +1,150 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.pg.customercare.model.Permission;
+import com.pg.customercare.model.PositionSalary;
+import com.pg.customercare.model.Role;
+import com.pg.customercare.repository.PermissionRepository;
+import com.pg.customercare.repository.PositionSalaryRepository;
+import com.pg.customercare.repository.RoleRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ReferenceDataCacheTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PermissionRepository permissionRepository;
+
+    @Mock
+    private PositionSalaryRepository positionSalaryRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReferenceDataCache referenceDataCache;
+
+    private Role role;
+    private Permission permission;
+    private PositionSalary positionSalary;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        referenceDataCache = new ReferenceDataCache(
+                roleRepository, permissionRepository, positionSalaryRepository, meterRegistry);
+        ReflectionTestUtils.setField(referenceDataCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(referenceDataCache, "ttl", Duration.ofMinutes(10));
+        referenceDataCache.init();
+
+        permission = new Permission();
+        permission.setId(7L);
+        permission.setName("READ_TICKETS");
+
+        role = new Role();
+        role.setId(1L);
+        role.setName("ROLE_USER");
+        role.setPermissions(new HashSet<>(Set.of(permission)));
+
+        positionSalary = new PositionSalary();
+        positionSalary.setId(3L);
+        positionSalary.setPosition("Developer");
+        positionSalary.setSalary(5000.0);
+        positionSalary.setRole(role);
+
+        given(roleRepository.findWithPermissionsById(1L)).willReturn(Optional.of(role));
+        given(permissionRepository.findById(7L)).willReturn(Optional.of(permission));
+        given(positionSalaryRepository.findWithRoleById(3L)).willReturn(Optional.of(positionSalary));
+    }
+
+    @Test
+    void shouldLoadRoleOnlyOnce() {
+        // ACT
+        Role first = referenceDataCache.findRole(1L).orElseThrow();
+        Role second = referenceDataCache.findRole(1L).orElseThrow();
+
+        // ASSERT
+        assertEquals("ROLE_USER", second.getName());
+        assertEquals(1, second.getPermissions().size());
+        assertNotSame(first, second);
+        then(roleRepository).should(times(1)).findWithPermissionsById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "roles").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void shouldNotExposeCachedInstance() {
+        // ARRANGE
+        referenceDataCache.findPositionSalary(3L).orElseThrow().setSalary(1.0);
+
+        // ACT
+        PositionSalary cached = referenceDataCache.findPositionSalary(3L).orElseThrow();
+
+        // ASSERT
+        assertEquals(5000.0, cached.getSalary());
+    }
+
+    @Test
+    void shouldNotCacheMissingIds() {
+        // ARRANGE
+        given(roleRepository.findWithPermissionsById(2L)).willReturn(Optional.empty());
+
+        // ACT
+        referenceDataCache.findRole(2L);
+        Optional<Role> result = referenceDataCache.findRole(2L);
+
+        // ASSERT
+        assertTrue(result.isEmpty());
+        then(roleRepository).should(times(2)).findWithPermissionsById(2L);
+    }
+
+    @Test
+    void shouldEvictPositionSalariesOfEvictedRole() {
+        // ARRANGE
+        referenceDataCache.findRole(1L);
+        referenceDataCache.findPositionSalary(3L);
+
+        // ACT
+        referenceDataCache.evictRole(1L);
+        referenceDataCache.findRole(1L);
+        referenceDataCache.findPositionSalary(3L);
+
+        // ASSERT
+        then(roleRepository).should(times(2)).findWithPermissionsById(1L);
+        then(positionSalaryRepository).should(times(2)).findWithRoleById(3L);
+    }
+
+    @Test
+    void shouldEvictRolesContainingEvictedPermission() {
+        // ARRANGE
+        referenceDataCache.findPermission(7L);
+        referenceDataCache.findRole(1L);
+
+        // ACT
+        referenceDataCache.evictPermission(7L);
+        referenceDataCache.findPermission(7L);
+        referenceDataCache.findRole(1L);
+
+        // ASSERT
+        then(permissionRepository).should(times(2)).findById(7L);
+        then(roleRepository).should(times(2)).findWithPermissionsById(1L);
+    }
+}
@@ -3,11 +3,8 @@ package com.pg.customercare.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.*;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 import javax.validation.Validation;
 import javax.validation.Validator;
@@ -21,17 +18,22 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.pg.customercare.dto.PermissionDTO;
 import com.pg.customercare.dto.RoleNameDTO;
+import com.pg.customercare.dto.RolePermissionDTO;
 import com.pg.customercare.exception.impl.NotFoundException;
-import com.pg.customercare.model.Permission;
 import com.pg.customercare.model.Role;
 import com.pg.customercare.repository.RoleRepository;
+import com.pg.customercare.security.RoleVersionRegistry;
+import com.pg.customercare.util.CountMode;
 import com.pg.customercare.util.Response;
+import com.pg.customercare.util.SearchMode;
 
 @ExtendWith(MockitoExtension.class)
 public class RoleServiceTest {
@@ -42,6 +44,18 @@ public class RoleServiceTest {
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private RoleVersionRegistry roleVersionRegistry;
+
+    @Mock
+    private ReferenceDataCache referenceDataCache;
+
+    @Mock
+    private TotalCountCache totalCountCache;
+
     @Mock
     private Role role;
 
@@ -75,13 +89,14 @@ public class RoleServiceTest {
         then(roleRepository).should().save(roleCaptor.capture());
         Role capturedRole = roleCaptor.getValue();
         assertEquals("ROLE_USER", capturedRole.getName());
+        then(referenceDataCache).should().evictRole(role.getId());
     }
 
     @Test
     void shouldFindRoleById() {
         // ARRANGE
         Long roleId = 1L;
-        given(roleRepository.findById(roleId)).willReturn(Optional.of(role));
+        given(referenceDataCache.findRole(roleId)).willReturn(Optional.of(role));
 
         // ACT
         Role roleFound = roleService.getRoleById(roleId);
@@ -95,7 +110,7 @@ public class RoleServiceTest {
     void shouldThrowNotFoundExceptionWhenFindByIdNonExistentRole() {
         // ARRANGE
         Long roleId = 1L;
-        given(roleRepository.findById(roleId)).willReturn(Optional.empty());
+        given(referenceDataCache.findRole(roleId)).willReturn(Optional.empty());
 
         // ACT & ASSERT
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
@@ -107,38 +122,86 @@ public class RoleServiceTest {
     @Test
     void shouldGetAllRoles() {
         // ARRANGE
-        List<Role> roles = new ArrayList<>();
-        Role role = new Role();
-        role.setId(1L);
-        role.setName("RoleName");
+        Pageable pageable = PageRequest.of(0, 20);
+        given(roleRepository.findIds(pageable)).willReturn(new SliceImpl<>(List.of(2L, 1L), pageable, false));
+        given(roleRepository.findRolePermissions(List.of(2L, 1L))).willReturn(List.of(
+                new RolePermissionDTO(1L, "RoleName", 1L, "PermissionName"),
+                new RolePermissionDTO(1L, "RoleName", 2L, "OtherPermission"),
+                new RolePermissionDTO(2L, "EmptyRole", null, null)));
 
-        Set<Permission> permissions = new HashSet<>();
-        Permission permission = new Permission();
-        permission.setId(1L);
-        permission.setName("PermissionName");
-        permissions.add(permission);
+        // ACT
+        Response<RoleNameDTO> response = roleService.getAllRoles(pageable, CountMode.EXACT);
 
-        role.setPermissions(permissions);
-        roles.add(role);
+        // ASSERT
+        // Items keep the order of the id page, which is the last one and so tells the total
+        assertEquals(2, response.getItems().size());
+        RoleNameDTO emptyRole = response.getItems().get(0);
+        assertEquals(2L, emptyRole.getId());
+        assertTrue(emptyRole.getPermissions().isEmpty());
+        RoleNameDTO role = response.getItems().get(1);
+        assertEquals("RoleName", role.getName());
+        assertEquals(2, role.getPermissions().size());
+        assertEquals(new PermissionDTO(1L, "PermissionName"), role.getPermissions().get(0));
+        assertEquals(2L, response.getTotalRecordsQuantity());
+        assertFalse(response.getHasNext());
+        then(roleRepository).should(never()).count();
+        assertEquals(pageable.getPageSize(), response.getItemsPerPage());
+        assertEquals(pageable.getPageNumber(), response.getCurrentPage());
+    }
 
+    @Test
+    void shouldSkipPermissionQueryForEmptyPage() {
+        // ARRANGE
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Role> rolePage = new PageImpl<>(roles, pageable, roles.size());
+        given(roleRepository.findIdsByName("none%", pageable)).willReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        // ACT
+        Response<RoleNameDTO> response = roleService.getRolesByName("none", SearchMode.PREFIX, pageable,
+                CountMode.CACHED);
+
+        // ASSERT
+        assertTrue(response.getItems().isEmpty());
+        then(roleRepository).should(never()).findRolePermissions(any());
+    }
+
+    @Test
+    void shouldTakeTotalFromCountCacheForFullPage() {
+        // ARRANGE
+        Pageable pageable = PageRequest.of(0, 1);
+        given(roleRepository.findIdsByPermissionName("%READ%", pageable))
+                .willReturn(new SliceImpl<>(List.of(1L), pageable, true));
+        given(roleRepository.findRolePermissions(List.of(1L)))
+                .willReturn(List.of(new RolePermissionDTO(1L, "RoleName", 1L, "READ")));
+        given(totalCountCache.counter(eq(CountMode.CACHED), eq(TotalCountCache.ROLES), eq("permission:%READ%"), any()))
+                .willReturn(() -> 7L);
+
+        // ACT
+        Response<RoleNameDTO> response = roleService.getRolesByPermissionName("READ", SearchMode.CONTAINS, pageable,
+                CountMode.CACHED);
 
-        given(roleRepository.findAll(pageable)).willReturn(rolePage);
+        // ASSERT
+        assertEquals(7L, response.getTotalRecordsQuantity());
+        assertTrue(response.getHasNext());
+        then(roleRepository).should(never()).countByPermissionName(anyString());
+    }
+
+    @Test
+    void shouldOnlyReportNextPageWithoutCount() {
+        // ARRANGE
+        Pageable pageable = PageRequest.of(0, 1);
+        given(roleRepository.findIds(pageable)).willReturn(new SliceImpl<>(List.of(1L), pageable, true));
+        given(roleRepository.findRolePermissions(List.of(1L)))
+                .willReturn(List.of(new RolePermissionDTO(1L, "RoleName", null, null)));
 
         // ACT
-        Response<RoleNameDTO> response = roleService.getAllRoles(pageable);
+        Response<RoleNameDTO> response = roleService.getAllRoles(pageable, CountMode.NONE);
 
         // ASSERT
         assertEquals(1, response.getItems().size());
-        assertEquals(role.getId(), response.getItems().get(0).getId());
-        assertEquals(role.getName(), response.getItems().get(0).getName());
-        assertEquals(1, response.getItems().get(0).getPermissions().size());
-        assertEquals(permission.getId(), response.getItems().get(0).getPermissions().get(0).getId());
-        assertEquals(permission.getName(), response.getItems().get(0).getPermissions().get(0).getName());
-        assertEquals(roles.size(), response.getTotalRecordsQuantity());
-        assertEquals(pageable.getPageSize(), response.getItemsPerPage());
-        assertEquals(pageable.getPageNumber(), response.getCurrentPage());
+        assertTrue(response.getHasNext());
+        assertNull(response.getTotalRecordsQuantity());
+        assertNull(response.getTotalPages());
+        then(roleRepository).should(never()).count();
     }
 
     @Test
@@ -164,6 +227,48 @@ public class RoleServiceTest {
 
         // ASSERT
         then(roleRepository).should().deleteById(roleId);
+        then(userService).should().evictUsersWithRole(roleId);
+        then(roleVersionRegistry).should().invalidate(roleId);
+        then(referenceDataCache).should().evictRole(roleId);
+        then(totalCountCache).should().invalidate(TotalCountCache.ROLES);
+        then(totalCountCache).should().invalidate(TotalCountCache.POSITION_SALARIES);
+    }
+
+    @Test
+    void shouldEvictCachedUsersAgainOnceRoleChangeCommits() {
+        // ARRANGE
+        given(roleRepository.findById(role.getId())).willReturn(Optional.of(role));
+        given(roleRepository.save(role)).willReturn(role);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // ACT
+        try {
+            roleService.updateRole(role);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // ASSERT
+        then(userService).should(times(2)).evictUsersWithRole(role.getId());
+    }
+
+    @Test
+    void shouldInvalidateRoleVersionAgainOnceDeleteCommits() {
+        // ARRANGE
+        given(roleRepository.existsById(role.getId())).willReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // ACT
+        try {
+            roleService.deleteRole(role.getId());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // ASSERT
+        then(roleVersionRegistry).should(times(2)).invalidate(role.getId());
     }
 
     @Test
@@ -0,0 +1,197 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.pg.customercare.dto.TicketExportDTO;
+import com.pg.customercare.dto.TicketSlaDTO;
+import com.pg.customercare.event.TicketChangedEvent;
+import com.pg.customercare.event.TicketSlaEvent;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+import com.pg.customercare.repository.TicketRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class SlaServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlaService slaService;
+
+    private LocalDate dueDate;
+    private Instant breachAt;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        slaService = new SlaService(ticketRepository, eventPublisher, meterRegistry);
+        ReflectionTestUtils.setField(slaService, "tick", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(slaService, "wheelSize", 60);
+        ReflectionTestUtils.setField(slaService, "zone", ZoneOffset.UTC);
+        ReflectionTestUtils.setField(slaService, "highPriorityWarning", Duration.ofHours(24));
+        ReflectionTestUtils.setField(slaService, "mediumPriorityWarning", Duration.ofHours(12));
+        ReflectionTestUtils.setField(slaService, "lowPriorityWarning", Duration.ofHours(4));
+
+        dueDate = LocalDate.now(ZoneOffset.UTC).plusDays(3);
+        breachAt = dueDate.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        given(ticketRepository.findSlaTracked(any())).willReturn(List.of());
+    }
+
+    @Test
+    void shouldFireNearBreachAndBreachForTicketsLoadedAtStartup() {
+        // ARRANGE
+        given(ticketRepository.findSlaTracked(any())).willReturn(List.of(new TicketSlaDTO(1L, dueDate, Priority.HIGH)));
+        slaService.init();
+
+        // ACT
+        slaService.tick(breachAt.minus(25, ChronoUnit.HOURS));
+        then(eventPublisher).should(never()).publishEvent(any(TicketSlaEvent.class));
+        slaService.tick(breachAt.minus(24, ChronoUnit.HOURS));
+        slaService.tick(breachAt.minus(1, ChronoUnit.MINUTES));
+        slaService.tick(breachAt);
+
+        // ASSERT
+        then(eventPublisher).should().publishEvent(
+                new TicketSlaEvent(1L, TicketSlaEvent.Type.NEAR_BREACH, Priority.HIGH, dueDate));
+        then(eventPublisher).should().publishEvent(
+                new TicketSlaEvent(1L, TicketSlaEvent.Type.BREACH, Priority.HIGH, dueDate));
+        assertEquals(1.0, meterRegistry.get("tickets.sla.events").tag("type", "BREACH").counter().count());
+        assertEquals(1.0, meterRegistry.get("tickets.sla.tracked").gauge().value());
+    }
+
+    @Test
+    void shouldRescheduleWhenDueDateChanges() {
+        // ARRANGE
+        slaService.init();
+        slaService.onTicketChanged(changed(1L, dueDate, Priority.LOW, Status.OPEN));
+
+        // ACT
+        slaService.onTicketChanged(changed(1L, dueDate.plusDays(5), Priority.LOW, Status.OPEN));
+        slaService.tick(breachAt);
+
+        // ASSERT
+        then(eventPublisher).should(never()).publishEvent(any(TicketSlaEvent.class));
+    }
+
+    @Test
+    void shouldStopTrackingTicketsOnHoldOrClosed() {
+        // ARRANGE
+        slaService.init();
+        slaService.onTicketChanged(changed(1L, dueDate, Priority.MEDIUM, Status.OPEN));
+        slaService.onTicketChanged(changed(2L, dueDate, Priority.MEDIUM, Status.ESCALATED));
+
+        // ACT
+        slaService.onTicketChanged(changed(1L, dueDate, Priority.MEDIUM, Status.CLOSED));
+        slaService.onTicketChanged(changed(2L, dueDate, Priority.MEDIUM, Status.ON_HOLD));
+        slaService.tick(breachAt);
+
+        // ASSERT
+        assertEquals(0, slaService.trackedCount());
+        then(eventPublisher).should(never()).publishEvent(any(TicketSlaEvent.class));
+    }
+
+    @Test
+    void shouldReportOnlyBreachForNewTicketAlreadyPastDue() {
+        // ARRANGE
+        slaService.init();
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+
+        // ACT
+        slaService.onTicketChanged(changed(1L, yesterday, Priority.HIGH, Status.OPEN));
+        slaService.tick(Instant.now());
+
+        // ASSERT
+        then(eventPublisher).should().publishEvent(
+                new TicketSlaEvent(1L, TicketSlaEvent.Type.BREACH, Priority.HIGH, yesterday));
+        then(eventPublisher).should(never()).publishEvent(
+                new TicketSlaEvent(1L, TicketSlaEvent.Type.NEAR_BREACH, Priority.HIGH, yesterday));
+    }
+
+    @Test
+    void shouldNotRepeatBreachWhenUnrelatedFieldsChange() {
+        // ARRANGE
+        slaService.init();
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        slaService.onTicketChanged(changed(1L, yesterday, Priority.HIGH, Status.OPEN));
+        slaService.tick(Instant.now());
+
+        // ACT
+        slaService.onTicketChanged(changed(1L, yesterday, Priority.HIGH, Status.OPEN));
+        slaService.tick(Instant.now().plus(1, ChronoUnit.MINUTES));
+
+        // ASSERT
+        then(eventPublisher).should(times(1)).publishEvent(any(TicketSlaEvent.class));
+    }
+
+    @Test
+    void shouldNotReplayBreachesPassedBeforeStartup() {
+        // ARRANGE
+        given(ticketRepository.findSlaTracked(any())).willReturn(
+                List.of(new TicketSlaDTO(1L, LocalDate.now(ZoneOffset.UTC).minusDays(2), Priority.LOW)));
+        slaService.init();
+
+        // ACT
+        slaService.tick(Instant.now().plus(1, ChronoUnit.MINUTES));
+
+        // ASSERT
+        assertEquals(1, slaService.trackedCount());
+        then(eventPublisher).should(never()).publishEvent(any(TicketSlaEvent.class));
+    }
+
+    @Test
+    void shouldFireFarDeadlinesThroughSeveralWheelLevels() {
+        // ARRANGE
+        // With 4 buckets per level, a deadline days away sits several levels above the first
+        ReflectionTestUtils.setField(slaService, "wheelSize", 4);
+        slaService.init();
+        slaService.onTicketChanged(changed(1L, dueDate, Priority.LOW, Status.OPEN));
+
+        // ACT
+        slaService.tick(breachAt.minus(1, ChronoUnit.MINUTES));
+        then(eventPublisher).should(never()).publishEvent(
+                new TicketSlaEvent(1L, TicketSlaEvent.Type.BREACH, Priority.LOW, dueDate));
+        slaService.tick(breachAt);
+
+        // ASSERT
+        then(eventPublisher).should().publishEvent(
+                new TicketSlaEvent(1L, TicketSlaEvent.Type.NEAR_BREACH, Priority.LOW, dueDate));
+        then(eventPublisher).should().publishEvent(
+                new TicketSlaEvent(1L, TicketSlaEvent.Type.BREACH, Priority.LOW, dueDate));
+    }
+
+    // auxiliary methods
+    private TicketChangedEvent changed(Long id, LocalDate dueDate, Priority priority, Status status) {
+        TicketExportDTO ticket = new TicketExportDTO();
+        ticket.setId(id);
+        ticket.setDueDate(dueDate);
+        ticket.setPriority(priority);
+        ticket.setStatus(status);
+        return new TicketChangedEvent(id, ticket);
+    }
+}
@@ -0,0 +1,216 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.pg.customercare.dto.TicketExportDTO;
+import com.pg.customercare.dto.TicketSearchHitDTO;
+import com.pg.customercare.event.TicketChangedEvent;
+import com.pg.customercare.exception.impl.BadRequestException;
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+import com.pg.customercare.repository.TicketRepository;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TicketSearchServiceTest {
+
+    private TicketSearchService ticketSearchService;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path indexDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ticketSearchService = new TicketSearchService(ticketRepository, transactionManager);
+        ReflectionTestUtils.setField(ticketSearchService, "indexDir", indexDir.toString());
+        ticketSearchService.init();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ticketSearchService.close();
+    }
+
+    @Test
+    void shouldRankSubjectMatchesFirst() throws Exception {
+        // ARRANGE
+        ticketSearchService.onTicketChanged(changed(ticket(1L, "Email bounce", "The printer in room 4 is fine")));
+        ticketSearchService.onTicketChanged(changed(ticket(2L, "Printer offline", "Nothing prints since Monday")));
+        ticketSearchService.refresh();
+
+        // ACT
+        List<TicketSearchHitDTO> hits = ticketSearchService.search("printer", 20);
+
+        // ASSERT
+        assertEquals(2, hits.size());
+        assertEquals(2L, hits.get(0).getId());
+        assertEquals("Printer offline", hits.get(0).getSubject());
+        assertEquals("OPEN", hits.get(0).getStatus());
+    }
+
+    @Test
+    void shouldApplyUpdatesAndDeletes() throws Exception {
+        // ARRANGE
+        ticketSearchService.onTicketChanged(changed(ticket(1L, "Printer offline", null)));
+        ticketSearchService.onTicketChanged(changed(ticket(2L, "Printer jammed", null)));
+        ticketSearchService.onTicketChanged(changed(ticket(1L, "Scanner offline", null)));
+        ticketSearchService.onTicketChanged(new TicketChangedEvent(2L, null));
+        ticketSearchService.refresh();
+
+        // ACT
+        List<TicketSearchHitDTO> printer = ticketSearchService.search("printer", 20);
+        List<TicketSearchHitDTO> scanner = ticketSearchService.search("scanner", 20);
+
+        // ASSERT
+        assertTrue(printer.isEmpty());
+        assertEquals(1, scanner.size());
+        assertEquals(1L, scanner.get(0).getId());
+    }
+
+    @Test
+    void shouldRebuildIndexFromDatabase() throws Exception {
+        // ARRANGE
+        ticketSearchService.onTicketChanged(changed(ticket(9L, "Stale ticket", null)));
+        given(ticketRepository.streamAllForExport()).willReturn(Stream.of(
+                ticket(1L, "Printer offline", null),
+                ticket(2L, "VPN down", "Printer queue also stuck")));
+
+        // ACT
+        long indexed = ticketSearchService.rebuild();
+
+        // ASSERT
+        assertEquals(2, indexed);
+        assertEquals(2, ticketSearchService.search("printer", 20).size());
+        assertTrue(ticketSearchService.search("stale", 20).isEmpty());
+    }
+
+    @Test
+    void shouldKeepServingSearchesWhileRebuilding() throws Exception {
+        // ARRANGE
+        ticketSearchService.onTicketChanged(changed(ticket(1L, "Printer offline", null)));
+        ticketSearchService.commit();
+        ticketSearchService.refresh();
+        List<Integer> hitsDuringRebuild = new ArrayList<>();
+        given(ticketRepository.streamAllForExport()).willReturn(Stream.of(ticket(2L, "VPN down", null))
+                .peek(ticket -> {
+                    try {
+                        ticketSearchService.commit();
+                        ticketSearchService.refresh();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    hitsDuringRebuild.add(ticketSearchService.search("printer", 20).size());
+                }));
+
+        // ACT
+        ticketSearchService.rebuild();
+
+        // ASSERT
+        assertEquals(List.of(1), hitsDuringRebuild);
+        assertTrue(ticketSearchService.search("printer", 20).isEmpty());
+        assertEquals(1, ticketSearchService.search("vpn", 20).size());
+    }
+
+    @Test
+    void shouldApplyChangesCommittedDuringRebuildOverTheSnapshot() throws Exception {
+        // ARRANGE
+        TicketExportDTO renamed = ticket(1L, "Scanner offline", null);
+        given(ticketRepository.streamAllForExport()).willReturn(Stream.of(
+                ticket(1L, "Printer offline", null),
+                ticket(3L, "Ghost ticket", null))
+                .peek(ticket -> {
+                    if (ticket.getId() == 1L) {
+                        // Committed after the snapshot was taken, and indexed before the stream reaches them
+                        ticketSearchService.onTicketChanged(changed(renamed));
+                        ticketSearchService.onTicketChanged(new TicketChangedEvent(3L, null));
+                    }
+                }));
+
+        // ACT
+        ticketSearchService.rebuild();
+
+        // ASSERT
+        assertTrue(ticketSearchService.search("printer", 20).isEmpty());
+        assertEquals(1, ticketSearchService.search("scanner", 20).size());
+        assertTrue(ticketSearchService.search("ghost", 20).isEmpty());
+    }
+
+    @Test
+    void shouldContinueGenerationsAfterRestart() throws Exception {
+        // ARRANGE
+        given(ticketRepository.streamAllForExport()).willReturn(Stream.of(ticket(1L, "Printer offline", null)));
+        ticketSearchService.rebuild();
+        ticketSearchService.close();
+        ticketSearchService = new TicketSearchService(ticketRepository, transactionManager);
+        ReflectionTestUtils.setField(ticketSearchService, "indexDir", indexDir.toString());
+        ticketSearchService.init();
+        given(ticketRepository.streamAllForExport()).willReturn(Stream.of(ticket(2L, "VPN down", null)));
+
+        // ACT
+        ticketSearchService.rebuild();
+
+        // ASSERT
+        assertTrue(ticketSearchService.search("printer", 20).isEmpty());
+        assertEquals(1, ticketSearchService.search("vpn", 20).size());
+    }
+
+    @Test
+    void shouldTreatQuerySyntaxAsPlainText() throws Exception {
+        // ARRANGE
+        ticketSearchService.onTicketChanged(changed(ticket(1L, "Error (code 42)", null)));
+        ticketSearchService.refresh();
+
+        // ACT
+        List<TicketSearchHitDTO> hits = ticketSearchService.search("error (code", 20);
+
+        // ASSERT
+        assertEquals(1, hits.size());
+    }
+
+    @Test
+    void shouldThrowBadRequestExceptionWhenSearchTextIsBlank() {
+        // ACT & ASSERT
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> {
+            ticketSearchService.search(" ", 20);
+        });
+        assertEquals("Search text is required", exception.getMessage());
+    }
+
+    // auxiliary methods
+    private TicketChangedEvent changed(TicketExportDTO ticket) {
+        return new TicketChangedEvent(ticket.getId(), ticket);
+    }
+
+    private TicketExportDTO ticket(Long id, String subject, String description) {
+        return new TicketExportDTO(id, "John Doe", subject, description, LocalDate.of(2024, 1, 1), null,
+                Classification.OTHERS, Priority.HIGH, Status.OPEN, null, 1L, null);
+    }
+}
@@ -4,32 +4,67 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
-
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pg.customercare.dto.TicketBulkUpdateDTO;
+import com.pg.customercare.dto.TicketBulkUpdateReportDTO;
+import com.pg.customercare.dto.TicketCountKeyDTO;
+import com.pg.customercare.dto.TicketExportDTO;
+import com.pg.customercare.dto.TicketFilterDTO;
+import com.pg.customercare.dto.TicketSummaryDTO;
+import com.pg.customercare.event.TicketChangedEvent;
+import com.pg.customercare.exception.impl.BadRequestException;
 import com.pg.customercare.exception.impl.NotFoundException;
 import com.pg.customercare.exception.impl.ValidationException;
 import com.pg.customercare.model.Customer;
+import com.pg.customercare.model.Employee;
 import com.pg.customercare.model.Ticket;
+import com.pg.customercare.model.TicketFiles;
+import com.pg.customercare.model.ENUM.AttachmentStatus;
 import com.pg.customercare.model.ENUM.Classification;
 import com.pg.customercare.model.ENUM.Priority;
 import com.pg.customercare.model.ENUM.Status;
+import com.pg.customercare.repository.EmployeeRepository;
 import com.pg.customercare.repository.TicketFilesRepository;
 import com.pg.customercare.repository.TicketRepository;
+import com.pg.customercare.service.AttachmentPipelineService.StagedFile;
+import com.pg.customercare.util.CursorResponse;
+import com.pg.customercare.util.KeysetCursor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT) // Adiciona leniência para evitar erros de stubbing
@@ -44,14 +79,45 @@ public class TicketServiceTest {
     @Mock
     private TicketFilesRepository ticketFilesRepository;
 
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private BlobStoreService blobStoreService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AttachmentPipelineService attachmentPipelineService;
+
+    @Mock
+    private TicketStatsService ticketStatsService;
+
+    @Mock
+    private TicketStreamService ticketStreamService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Captor
     private ArgumentCaptor<Ticket> ticketCaptor;
 
+    @Captor
+    private ArgumentCaptor<List<StagedFile>> stagedFilesCaptor;
+
+    @Captor
+    private ArgumentCaptor<TicketChangedEvent> eventCaptor;
+
     @Mock
     private MultipartFile file;
 
     private Ticket ticket;
     private Customer customer;
+    private TicketCountKeyDTO countKey;
 
     @BeforeEach
     void setUp() {
@@ -67,6 +133,8 @@ public class TicketServiceTest {
         ticket.setStatus(Status.OPEN);
         ticket.setOpeningDate(LocalDate.of(2023, 6, 6));
 
+        countKey = new TicketCountKeyDTO(Status.OPEN, Priority.HIGH, Classification.OTHERS, null);
+
         given(file.getOriginalFilename()).willReturn("test.txt");
         given(file.getSize()).willReturn(1000L); // 1KB
         given(file.isEmpty()).willReturn(false);
@@ -81,7 +149,7 @@ public class TicketServiceTest {
     void shouldGetTicketById() {
         // ARRANGE
         Long id = 1L;
-        given(ticketRepository.findById(id)).willReturn(Optional.of(ticket));
+        given(ticketRepository.findWithDetailsById(id)).willReturn(Optional.of(ticket));
 
         // ACT
         Ticket result = ticketService.getTicketById(id);
@@ -95,7 +163,7 @@ public class TicketServiceTest {
     void shouldThrowNotFoundExceptionWhenGettingTicketByIdNotFound() {
         // ARRANGE
         Long id = 1L;
-        given(ticketRepository.findById(id)).willReturn(Optional.empty());
+        given(ticketRepository.findWithDetailsById(id)).willReturn(Optional.empty());
 
         // ACT & ASSERT
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
@@ -105,38 +173,136 @@ public class TicketServiceTest {
     }
 
     @Test
-    void shouldGetAllTickets() {
+    void shouldGetTicketsPageWithNextCursor() {
         // ARRANGE
-        List<Ticket> tickets = new ArrayList<>();
-        tickets.add(ticket);
-        given(ticketRepository.findAll()).willReturn(tickets);
+        List<TicketSummaryDTO> rows = new ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            TicketSummaryDTO summary = new TicketSummaryDTO();
+            summary.setId(id);
+            summary.setOpeningDate(LocalDate.of(2023, 6, (int) id));
+            rows.add(summary);
+        }
+        given(ticketRepository.findSummaries(any(), any(), any(), any(), any(), isNull(), isNull(), any()))
+                .willReturn(rows);
 
         // ACT
-        List<Ticket> result = ticketService.getAllTickets();
+        CursorResponse<TicketSummaryDTO> result = ticketService.getTickets(new TicketFilterDTO(), null, 2);
 
         // ASSERT
-        assertEquals(1, result.size());
-        assertEquals(ticket, result.get(0));
+        assertEquals(2, result.getItems().size());
+        assertTrue(result.isHasNext());
+        KeysetCursor cursor = KeysetCursor.decode(result.getNextCursor());
+        assertEquals(LocalDate.of(2023, 6, 2), cursor.keyAsDate());
+        assertEquals(2L, cursor.id());
+    }
+
+    @Test
+    void shouldSeekFromCursorWhenGettingTickets() {
+        // ARRANGE
+        String cursor = KeysetCursor.encode(LocalDate.of(2023, 6, 2), 2L);
+        TicketFilterDTO filter = new TicketFilterDTO();
+        filter.setStatus(Status.OPEN);
+        given(ticketRepository.findSummaries(eq(Status.OPEN), any(), any(), any(), any(),
+                eq(LocalDate.of(2023, 6, 2)), eq(2L), any())).willReturn(new ArrayList<>());
+
+        // ACT
+        CursorResponse<TicketSummaryDTO> result = ticketService.getTickets(filter, cursor, 20);
+
+        // ASSERT
+        assertTrue(result.getItems().isEmpty());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void shouldSeekPastTicketWithoutOpeningDate() {
+        // ARRANGE
+        TicketSummaryDTO legacy = new TicketSummaryDTO();
+        legacy.setId(5L);
+        TicketSummaryDTO next = new TicketSummaryDTO();
+        next.setId(4L);
+        given(ticketRepository.findSummaries(any(), any(), any(), any(), any(), isNull(), isNull(), any()))
+                .willReturn(new ArrayList<>(List.of(legacy, next)));
+        given(ticketRepository.findSummaries(any(), any(), any(), any(), any(), isNull(), eq(5L), any()))
+                .willReturn(new ArrayList<>(List.of(next)));
+
+        // ACT
+        CursorResponse<TicketSummaryDTO> first = ticketService.getTickets(new TicketFilterDTO(), null, 1);
+        CursorResponse<TicketSummaryDTO> second = ticketService.getTickets(new TicketFilterDTO(), first.getNextCursor(), 1);
+
+        // ASSERT
+        assertNull(KeysetCursor.decode(first.getNextCursor()).keyAsDate());
+        assertEquals(4L, second.getItems().get(0).getId());
+    }
+
+    @Test
+    void shouldThrowBadRequestExceptionWhenCursorIsInvalid() {
+        // ACT & ASSERT
+        assertThrows(BadRequestException.class, () -> {
+            ticketService.getTickets(new TicketFilterDTO(), "not-a-cursor", 20);
+        });
+    }
+
+    @Test
+    void shouldExportTicketsAsNdjson() throws Exception {
+        // ARRANGE
+        TicketExportDTO first = new TicketExportDTO();
+        first.setId(1L);
+        first.setStatus(Status.OPEN);
+        TicketExportDTO second = new TicketExportDTO();
+        second.setId(2L);
+        second.setStatus(Status.CLOSED);
+        given(ticketRepository.streamAllForExport()).willReturn(Stream.of(first, second));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // ACT
+        long exported = ticketService.exportTickets(outputStream);
+
+        // ASSERT
+        assertEquals(2, exported);
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], TicketExportDTO.class).getId());
+        assertEquals(Status.CLOSED, objectMapper.readValue(lines[1], TicketExportDTO.class).getStatus());
     }
 
     @Test
     void shouldDeleteTicket() {
         // ARRANGE
         Long id = 1L;
-        given(ticketRepository.existsById(id)).willReturn(true);
+        given(ticketRepository.findCountKeyById(id)).willReturn(Optional.of(countKey));
 
         // ACT
         ticketService.deleteTicket(id);
 
         // ASSERT
         then(ticketRepository).should().deleteById(id);
+        then(ticketStatsService).should().record(countKey, null);
+        then(ticketStreamService).should().publish(id, countKey, null);
+    }
+
+    @Test
+    void shouldReleaseAttachmentsWhenDeletingTicket() throws Exception {
+        // ARRANGE
+        Long id = 1L;
+        TicketFiles ticketFile = new TicketFiles();
+        ticketFile.setFilePath("/blobs/ab/abc");
+        given(ticketRepository.findCountKeyById(id)).willReturn(Optional.of(countKey));
+        given(ticketFilesRepository.lockByTicketId(id)).willReturn(List.of(ticketFile));
+
+        // ACT
+        ticketService.deleteTicket(id);
+
+        // ASSERT
+        then(blobStoreService).should().release("/blobs/ab/abc");
+        then(eventPublisher).should().publishEvent(new TicketChangedEvent(id, null));
     }
 
     @Test
     void shouldThrowNotFoundExceptionWhenDeletingNonExistentTicket() {
         // ARRANGE
         Long id = 1L;
-        given(ticketRepository.existsById(id)).willReturn(false);
+        given(ticketRepository.findCountKeyById(id)).willReturn(Optional.empty());
 
         // ACT & ASSERT
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
@@ -148,7 +314,7 @@ public class TicketServiceTest {
     @Test
     void shouldUpdateTicket() {
         // ARRANGE
-        given(ticketRepository.existsById(ticket.getId())).willReturn(true);
+        given(ticketRepository.findCountKeyById(ticket.getId())).willReturn(Optional.of(countKey));
         given(ticketRepository.save(ticket)).willReturn(ticket);
 
         // ACT
@@ -159,12 +325,62 @@ public class TicketServiceTest {
         assertEquals(ticket, result);
         then(ticketRepository).should().save(ticketCaptor.capture());
         assertEquals(ticket, ticketCaptor.getValue());
+        then(eventPublisher).should().publishEvent(eventCaptor.capture());
+        assertEquals(ticket.getId(), eventCaptor.getValue().ticketId());
+        assertEquals(Status.OPEN, eventCaptor.getValue().ticket().getStatus());
+        then(ticketStatsService).should().record(countKey, countKey);
+        then(ticketStreamService).should().publish(ticket.getId(), countKey, countKey);
+    }
+
+    @Test
+    void shouldReleaseBlobsOfFilesDroppedByUpdate() throws Exception {
+        // ARRANGE
+        TicketFiles kept = new TicketFiles();
+        kept.setId(1L);
+        kept.setFilePath("/blobs/aa/kept");
+        TicketFiles dropped = new TicketFiles();
+        dropped.setId(2L);
+        dropped.setFilePath("/blobs/bb/dropped");
+        dropped.setThumbnailPath("/blobs/cc/thumbnail");
+        ticket.setTicketFiles(new ArrayList<>(List.of(kept)));
+        given(ticketRepository.findCountKeyById(ticket.getId())).willReturn(Optional.of(countKey));
+        given(ticketFilesRepository.lockByTicketId(ticket.getId())).willReturn(List.of(kept, dropped));
+        given(ticketRepository.save(ticket)).willReturn(ticket);
+
+        // ACT
+        ticketService.updateTicket(ticket);
+
+        // ASSERT
+        then(blobStoreService).should().release("/blobs/bb/dropped");
+        then(blobStoreService).should().release("/blobs/cc/thumbnail");
+        then(blobStoreService).should(never()).release("/blobs/aa/kept");
+    }
+
+    @Test
+    void shouldKeepStoredFilesInsteadOfTheCopiesInTheBody() {
+        // ARRANGE
+        TicketFiles stored = new TicketFiles(1L, "log.txt", "/blobs/aa/kept", AttachmentStatus.READY, "aa", null, ticket);
+        TicketFiles sent = new TicketFiles(1L, "log.txt", null, AttachmentStatus.PENDING, null, null, null);
+        TicketFiles unknown = new TicketFiles(9L, "other.txt", "/blobs/bb/other", AttachmentStatus.READY, "bb", null, null);
+        ticket.setTicketFiles(new ArrayList<>(List.of(sent, unknown)));
+        given(ticketRepository.findCountKeyById(ticket.getId())).willReturn(Optional.of(countKey));
+        given(ticketFilesRepository.lockByTicketId(ticket.getId())).willReturn(List.of(stored));
+        given(ticketRepository.save(ticket)).willReturn(ticket);
+
+        // ACT
+        ticketService.updateTicket(ticket);
+
+        // ASSERT
+        then(ticketRepository).should().save(ticketCaptor.capture());
+        assertEquals(1, ticketCaptor.getValue().getTicketFiles().size());
+        assertSame(stored, ticketCaptor.getValue().getTicketFiles().get(0));
+        then(blobStoreService).shouldHaveNoInteractions();
     }
 
     @Test
     void shouldThrowNotFoundExceptionWhenUpdatingNonExistentTicket() {
         // ARRANGE
-        given(ticketRepository.existsById(ticket.getId())).willReturn(false);
+        given(ticketRepository.findCountKeyById(ticket.getId())).willReturn(Optional.empty());
 
         // ACT & ASSERT
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
@@ -208,4 +424,248 @@ public class TicketServiceTest {
         });
         assertEquals("File size exceeds the maximum limit of 10MB.", exception.getMessage());
     }
+
+    @Test
+    void shouldThrowNotFoundExceptionWhenFileDoesNotBelongToTicket() {
+        // ARRANGE
+        given(ticketFilesRepository.findByIdAndTicketId(5L, 1L)).willReturn(Optional.empty());
+
+        // ACT & ASSERT
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> {
+            ticketService.getTicketFile(1L, 5L);
+        });
+        assertEquals("File not found with id 5", exception.getMessage());
+    }
+
+    @Test
+    void shouldStageAttachmentAndHandItToPipeline() throws Exception {
+        // ARRANGE
+        Path stagedPath = Path.of("blobs", "staging", "upload.part");
+        given(blobStoreService.stage(any(), eq(10 * 1024 * 1024L))).willReturn(stagedPath);
+
+        // ACT
+        ticketService.createTicket(ticket, new MultipartFile[] { file });
+
+        // ASSERT
+        then(blobStoreService).should(never()).store(any(), anyLong());
+        then(attachmentPipelineService).should().enqueue(eq(ticket), stagedFilesCaptor.capture());
+        assertEquals(List.of(new StagedFile("test.txt", stagedPath)), stagedFilesCaptor.getValue());
+    }
+
+    @Test
+    void shouldDiscardStagedAttachmentWhenTicketIsNotSaved() throws Exception {
+        // ARRANGE
+        Path stagedPath = Path.of("blobs", "staging", "upload.part");
+        given(blobStoreService.stage(any(), eq(10 * 1024 * 1024L))).willReturn(stagedPath);
+        given(ticketRepository.save(any(Ticket.class))).willThrow(new IllegalStateException("database down"));
+
+        // ACT & ASSERT
+        assertThrows(IllegalStateException.class, () -> ticketService.createTicket(ticket, new MultipartFile[] { file }));
+        then(blobStoreService).should().discard(stagedPath);
+        then(attachmentPipelineService).should(never()).enqueue(any(), any());
+    }
+
+    @Test
+    void shouldNotServeAttachmentStillBeingProcessed() {
+        // ARRANGE
+        TicketFiles pending = new TicketFiles();
+        pending.setId(5L);
+        pending.setStatus(AttachmentStatus.PENDING);
+        given(ticketFilesRepository.findByIdAndTicketId(5L, 1L)).willReturn(Optional.of(pending));
+
+        // ACT & ASSERT
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> ticketService.getTicketFile(1L, 5L));
+        assertEquals("File with id 5 is still being processed", exception.getMessage());
+    }
+
+    @Test
+    void shouldReassignTicketsInChunksSkippingThoseAlreadyOwned() {
+        // ARRANGE
+        ReflectionTestUtils.setField(ticketService, "bulkChunkSize", 2);
+        Employee owner = new Employee();
+        owner.setId(7L);
+        given(employeeRepository.existsById(7L)).willReturn(true);
+        given(employeeRepository.getReferenceById(7L)).willReturn(owner);
+        given(ticketRepository.findExportByIdIn(List.of(1L, 2L))).willReturn(List.of(export(1L, Status.OPEN, 3L),
+                export(2L, Status.OPEN, 7L)));
+        given(ticketRepository.findExportByIdIn(List.of(3L))).willReturn(List.of(export(3L, Status.ON_HOLD, null)));
+        given(ticketRepository.updateOwner(anyCollection(), eq(owner)))
+                .willAnswer(invocation -> invocation.getArgument(0, Collection.class).size());
+
+        // ACT
+        TicketBulkUpdateReportDTO report = ticketService.bulkUpdateTickets(
+                new TicketBulkUpdateDTO(List.of(1L, 2L, 2L, 3L), null, null, 7L));
+
+        // ASSERT
+        assertEquals(3, report.getMatched());
+        assertEquals(2, report.getReassigned());
+        assertEquals(0, report.getStatusChanged());
+        then(ticketRepository).should().updateOwner(Set.of(1L), owner);
+        then(ticketRepository).should().updateOwner(Set.of(3L), owner);
+        then(ticketRepository).should(never()).updateStatus(anyCollection(), any());
+        then(ticketStatsService).should().record(
+                new TicketCountKeyDTO(Status.OPEN, Priority.HIGH, Classification.OTHERS, 3L),
+                new TicketCountKeyDTO(Status.OPEN, Priority.HIGH, Classification.OTHERS, 7L));
+        then(ticketStreamService).should().publishBulk(List.of(1L), null, 7L);
+        then(ticketStreamService).should().publishBulk(List.of(3L), null, 7L);
+        then(ticketStreamService).should(never()).publish(any(), any(), any());
+        then(eventPublisher).should(times(2)).publishEvent(any(TicketChangedEvent.class));
+        InOrder inOrder = inOrder(ticketRepository);
+        then(ticketRepository).should(inOrder).lockByIdIn(List.of(1L, 2L));
+        then(ticketRepository).should(inOrder).findExportByIdIn(List.of(1L, 2L));
+        then(ticketRepository).should(inOrder).lockByIdIn(List.of(3L));
+        then(ticketRepository).should(inOrder).findExportByIdIn(List.of(3L));
+    }
+
+    @Test
+    void shouldKeepStreamSubscriberDuringLargeBulkUpdate() {
+        // ARRANGE
+        TicketStreamService liveStream = new TicketStreamService(objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(liveStream, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(liveStream, "bufferSize", 64);
+        ReflectionTestUtils.setField(liveStream, "reconnectDelay", Duration.ofSeconds(3));
+        // Nothing is written until the update is over, as with a client reading slowly
+        List<Runnable> pendingWrites = new ArrayList<>();
+        ReflectionTestUtils.setField(liveStream, "sender", (Executor) pendingWrites::add);
+        liveStream.init();
+        ReflectionTestUtils.setField(ticketService, "ticketStreamService", liveStream);
+
+        List<String> sent = new ArrayList<>();
+        liveStream.register(new SseEmitter() {
+            @Override
+            public void send(Set<DataWithMediaType> items) {
+                sent.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+            }
+        });
+
+        List<Long> ids = LongStream.rangeClosed(1, 1000).boxed().toList();
+        given(ticketRepository.findExportByIdIn(anyList())).willAnswer(invocation -> invocation.<List<Long>>getArgument(0)
+                .stream().map(id -> export(id, Status.OPEN, 3L)).toList());
+        given(ticketRepository.updateStatus(anyCollection(), eq(Status.CLOSED)))
+                .willAnswer(invocation -> invocation.getArgument(0, Collection.class).size());
+
+        // ACT
+        ticketService.bulkUpdateTickets(new TicketBulkUpdateDTO(ids, null, Status.CLOSED, null));
+        pendingWrites.forEach(Runnable::run);
+
+        // ASSERT
+        assertEquals(1, liveStream.subscriberCount());
+        assertEquals(3, sent.size());
+        assertTrue(sent.get(1).contains("event:BULK_UPDATED"));
+        assertTrue(sent.get(1).contains("\"status\":\"CLOSED\""));
+        assertTrue(sent.get(2).contains("1000]"));
+    }
+
+    @Test
+    void shouldChangeStatusOfFilteredTickets() {
+        // ARRANGE
+        TicketFilterDTO filter = new TicketFilterDTO(Status.OPEN, null, null, null, 3L);
+        given(ticketRepository.findIds(eq(Status.OPEN), isNull(), isNull(), isNull(), eq(3L), any()))
+                .willReturn(List.of(1L, 2L));
+        given(ticketRepository.findExportByIdIn(List.of(1L, 2L))).willReturn(List.of(export(1L, Status.OPEN, 3L),
+                export(2L, Status.OPEN, 3L)));
+        given(ticketRepository.updateStatus(Set.of(1L, 2L), Status.ESCALATED)).willReturn(2);
+
+        // ACT
+        TicketBulkUpdateReportDTO report = ticketService.bulkUpdateTickets(
+                new TicketBulkUpdateDTO(null, filter, Status.ESCALATED, null));
+
+        // ASSERT
+        assertEquals(2, report.getMatched());
+        assertEquals(2, report.getStatusChanged());
+        then(ticketRepository).should(never()).updateOwner(anyCollection(), any());
+        then(eventPublisher).should(times(2)).publishEvent(eventCaptor.capture());
+        assertEquals(Status.ESCALATED, eventCaptor.getValue().ticket().getStatus());
+    }
+
+    @Test
+    void shouldRejectBulkUpdateWithoutChangesOrSelection() {
+        // ACT & ASSERT
+        assertThrows(BadRequestException.class, () -> ticketService.bulkUpdateTickets(
+                new TicketBulkUpdateDTO(List.of(1L), null, null, null)));
+        assertThrows(BadRequestException.class, () -> ticketService.bulkUpdateTickets(
+                new TicketBulkUpdateDTO(null, null, Status.CLOSED, null)));
+        assertThrows(BadRequestException.class, () -> ticketService.bulkUpdateTickets(
+                new TicketBulkUpdateDTO(List.of(1L), new TicketFilterDTO(), Status.CLOSED, null)));
+    }
+
+    @Test
+    void shouldRejectBulkUpdateOverTheLimit() {
+        // ARRANGE
+        ReflectionTestUtils.setField(ticketService, "bulkMaxTickets", 2);
+
+        // ACT & ASSERT
+        assertThrows(BadRequestException.class, () -> ticketService.bulkUpdateTickets(
+                new TicketBulkUpdateDTO(List.of(1L, 2L, 3L), null, Status.CLOSED, null)));
+        then(ticketRepository).should(never()).updateStatus(anyCollection(), any());
+    }
+
+    @Test
+    void shouldThrowNotFoundExceptionWhenReassigningToUnknownEmployee() {
+        // ARRANGE
+        given(employeeRepository.existsById(9L)).willReturn(false);
+
+        // ACT & ASSERT
+        assertThrows(NotFoundException.class, () -> ticketService.bulkUpdateTickets(
+                new TicketBulkUpdateDTO(List.of(1L), null, null, 9L)));
+        then(ticketRepository).should(never()).findExportByIdIn(any());
+    }
+
+    @Test
+    void shouldPatchStatusWithoutSavingTheWholeTicket() throws Exception {
+        // ARRANGE
+        given(ticketRepository.findById(1L)).willReturn(Optional.of(ticket));
+
+        // ACT
+        Ticket result = ticketService.patchTicket(1L, objectMapper.readTree("{\"status\":\"CLOSED\",\"solution\":\"Done\"}"));
+
+        // ASSERT
+        assertEquals(Status.CLOSED, result.getStatus());
+        assertEquals("Done", result.getSolution());
+        assertEquals(Priority.HIGH, result.getPriority());
+        then(ticketRepository).should(never()).save(any());
+        then(ticketStreamService).should().publish(1L, countKey,
+                new TicketCountKeyDTO(Status.CLOSED, Priority.HIGH, Classification.OTHERS, null));
+        then(eventPublisher).should().publishEvent(eventCaptor.capture());
+        assertEquals(Status.CLOSED, eventCaptor.getValue().ticket().getStatus());
+    }
+
+    @Test
+    void shouldPatchTicketOwner() throws Exception {
+        // ARRANGE
+        Employee owner = new Employee();
+        owner.setId(7L);
+        given(ticketRepository.findById(1L)).willReturn(Optional.of(ticket));
+        given(employeeRepository.existsById(7L)).willReturn(true);
+        given(employeeRepository.getReferenceById(7L)).willReturn(owner);
+
+        // ACT
+        Ticket result = ticketService.patchTicket(1L, objectMapper.readTree("{\"ticketOwner\":{\"id\":7}}"));
+
+        // ASSERT
+        assertEquals(owner, result.getTicketOwner());
+        then(ticketStatsService).should().record(countKey,
+                new TicketCountKeyDTO(Status.OPEN, Priority.HIGH, Classification.OTHERS, 7L));
+    }
+
+    @Test
+    void shouldRejectPatchOfUnpatchableOrInvalidFields() throws Exception {
+        // ARRANGE
+        given(ticketRepository.findById(1L)).willReturn(Optional.of(ticket));
+
+        // ACT & ASSERT
+        assertThrows(BadRequestException.class,
+                () -> ticketService.patchTicket(1L, objectMapper.readTree("{\"customer\":{\"id\":2}}")));
+        assertThrows(BadRequestException.class,
+                () -> ticketService.patchTicket(1L, objectMapper.readTree("{\"status\":\"UNKNOWN\"}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ticketService.patchTicket(1L, objectMapper.readTree("{\"priority\":null}")));
+        then(ticketStatsService).should(never()).record(any(), any());
+    }
+
+    // auxiliary methods
+    private TicketExportDTO export(Long id, Status status, Long ticketOwnerId) {
+        return new TicketExportDTO(id, "Contact", "Subject", "Description", LocalDate.of(2023, 6, 6), null,
+                Classification.OTHERS, Priority.HIGH, status, null, 1L, ticketOwnerId);
+    }
 }
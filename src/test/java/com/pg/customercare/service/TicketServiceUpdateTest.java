@@ -0,0 +1,124 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pg.customercare.model.Customer;
+import com.pg.customercare.model.Ticket;
+import com.pg.customercare.model.TicketFiles;
+import com.pg.customercare.model.ENUM.AttachmentStatus;
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.CustomerType;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+import com.pg.customercare.repository.EmployeeRepository;
+import com.pg.customercare.repository.TicketFilesRepository;
+import com.pg.customercare.repository.TicketRepository;
+
+// Runs the full update against the database, so the merge of the attachments is real
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+public class TicketServiceUpdateTest {
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketFilesRepository ticketFilesRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BlobStoreService blobStoreService;
+    private TicketService ticketService;
+    private Long ticketId;
+    private Long keptFileId;
+
+    @BeforeEach
+    void setUp() {
+        blobStoreService = mock(BlobStoreService.class);
+        ticketService = new TicketService(ticketRepository, ticketFilesRepository, employeeRepository, objectMapper,
+                blobStoreService, mock(ApplicationEventPublisher.class), mock(AttachmentPipelineService.class),
+                mock(TicketStatsService.class), mock(TicketStreamService.class), transactionManager);
+
+        Customer customer = new Customer();
+        customer.setName("Customer");
+        customer.setCustomerType(CustomerType.INDIVIDUAL);
+        entityManager.persist(customer);
+
+        Ticket ticket = new Ticket();
+        ticket.setSubject("Printer jam");
+        ticket.setOpeningDate(LocalDate.of(2024, 1, 1));
+        ticket.setClassification(Classification.PROBLEM);
+        ticket.setPriority(Priority.HIGH);
+        ticket.setStatus(Status.OPEN);
+        ticket.setCustomer(customer);
+        ticketId = entityManager.persist(ticket).getId();
+
+        keptFileId = entityManager.persist(new TicketFiles(null, "photo.png", "/blobs/aa/photo",
+                AttachmentStatus.READY, "aa", "/blobs/bb/thumbnail", ticket)).getId();
+        entityManager.persist(new TicketFiles(null, "log.txt", "/blobs/cc/log", AttachmentStatus.READY, "cc", null,
+                ticket));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldKeepAttachmentsSentBackFromAGet() throws Exception {
+        // ARRANGE
+        // The body a client sends after a GET: the file's ticket and thumbnail are not serialized
+        TicketFiles keptFile = ticketFilesRepository.findById(keptFileId).orElseThrow();
+        TicketFiles sentFile = objectMapper.readValue(objectMapper.writeValueAsString(keptFile), TicketFiles.class);
+        Ticket body = copyOf(ticketRepository.findById(ticketId).orElseThrow());
+        body.setSubject("Printer jam on floor 2");
+        body.setTicketFiles(new ArrayList<>(List.of(sentFile)));
+        entityManager.clear();
+
+        // ACT
+        ticketService.updateTicket(body);
+        entityManager.flush();
+        entityManager.clear();
+
+        // ASSERT
+        List<TicketFiles> files = ticketFilesRepository.findByTicketId(ticketId);
+        assertEquals(1, files.size());
+        TicketFiles file = files.get(0);
+        assertEquals(keptFileId, file.getId());
+        assertEquals("/blobs/aa/photo", file.getFilePath());
+        assertEquals("/blobs/bb/thumbnail", file.getThumbnailPath());
+        assertEquals(AttachmentStatus.READY, file.getStatus());
+        assertEquals("aa", file.getChecksum());
+        assertEquals("Printer jam on floor 2", ticketRepository.findById(ticketId).orElseThrow().getSubject());
+        then(blobStoreService).should().release("/blobs/cc/log");
+        then(blobStoreService).should(never()).release("/blobs/aa/photo");
+        then(blobStoreService).should(never()).release("/blobs/bb/thumbnail");
+    }
+
+    // auxiliary methods
+    private Ticket copyOf(Ticket ticket) {
+        Customer customer = new Customer();
+        customer.setId(ticket.getCustomer().getId());
+        return new Ticket(ticket.getId(), ticket.getContactName(), ticket.getSubject(), ticket.getDescription(),
+                ticket.getOpeningDate(), ticket.getDueDate(), ticket.getClassification(), ticket.getPriority(),
+                ticket.getStatus(), ticket.getSolution(), null, customer, null);
+    }
+}
@@ -0,0 +1,121 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import com.pg.customercare.dto.TicketCountDTO;
+import com.pg.customercare.dto.TicketCountKeyDTO;
+import com.pg.customercare.dto.TicketStatsDTO;
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+import com.pg.customercare.repository.TicketRepository;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class TicketStatsServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private TicketStatsService ticketStatsService;
+
+    @BeforeEach
+    void setUp() {
+        ticketStatsService = new TicketStatsService(ticketRepository);
+        given(ticketRepository.countByDimensions()).willReturn(List.of(
+                new TicketCountDTO(Status.OPEN, Priority.HIGH, Classification.PROBLEM, 7L, 3),
+                new TicketCountDTO(Status.CLOSED, Priority.LOW, Classification.QUESTION, 7L, 2),
+                new TicketCountDTO(Status.OPEN, Priority.LOW, Classification.PROBLEM, null, 4)));
+    }
+
+    @Test
+    void shouldRebuildCountsFromGroupedQuery() {
+        // ACT
+        ticketStatsService.init();
+        TicketStatsDTO stats = ticketStatsService.getStats();
+
+        // ASSERT
+        assertEquals(9, stats.getTotal());
+        assertEquals(7L, stats.getByStatus().get(Status.OPEN));
+        assertEquals(0L, stats.getByStatus().get(Status.ESCALATED));
+        assertEquals(6L, stats.getByPriority().get(Priority.LOW));
+        assertEquals(7L, stats.getByClassification().get(Classification.PROBLEM));
+        assertEquals(3L, stats.getByOwner().get(7L).get(Status.OPEN));
+        assertEquals(2L, stats.getByOwner().get(7L).get(Status.CLOSED));
+        assertEquals(4L, stats.getUnassigned().get(Status.OPEN));
+    }
+
+    @Test
+    void shouldApplyCreateUpdateAndDelete() {
+        // ARRANGE
+        ticketStatsService.init();
+        TicketCountKeyDTO created = new TicketCountKeyDTO(Status.OPEN, Priority.MEDIUM, Classification.FEATURE, null);
+        TicketCountKeyDTO assigned = new TicketCountKeyDTO(Status.ESCALATED, Priority.MEDIUM, Classification.FEATURE, 8L);
+
+        // ACT
+        ticketStatsService.record(null, created);
+        ticketStatsService.record(created, assigned);
+        ticketStatsService.record(new TicketCountKeyDTO(Status.CLOSED, Priority.LOW, Classification.QUESTION, 7L), null);
+        TicketStatsDTO stats = ticketStatsService.getStats();
+
+        // ASSERT
+        assertEquals(9, stats.getTotal());
+        assertEquals(1L, stats.getByStatus().get(Status.ESCALATED));
+        assertEquals(1L, stats.getByStatus().get(Status.CLOSED));
+        assertEquals(1L, stats.getByClassification().get(Classification.FEATURE));
+        assertEquals(4L, stats.getUnassigned().get(Status.OPEN));
+        assertEquals(1L, stats.getByOwner().get(8L).get(Status.ESCALATED));
+        assertEquals(0L, stats.getByOwner().get(7L).get(Status.CLOSED));
+    }
+
+    @Test
+    void shouldDropOwnersWithoutTicketsAndDiscardDriftOnRebuild() {
+        // ARRANGE
+        ticketStatsService.init();
+        ticketStatsService.record(null, new TicketCountKeyDTO(Status.OPEN, Priority.HIGH, Classification.OTHERS, 9L));
+        ticketStatsService.record(new TicketCountKeyDTO(Status.OPEN, Priority.HIGH, Classification.OTHERS, 9L), null);
+        ticketStatsService.record(null, new TicketCountKeyDTO(Status.OPEN, Priority.HIGH, Classification.OTHERS, null));
+
+        // ACT
+        TicketStatsDTO beforeRebuild = ticketStatsService.getStats();
+        ticketStatsService.rebuild();
+        TicketStatsDTO afterRebuild = ticketStatsService.getStats();
+
+        // ASSERT
+        assertFalse(beforeRebuild.getByOwner().containsKey(9L));
+        assertEquals(10, beforeRebuild.getTotal());
+        assertEquals(9, afterRebuild.getTotal());
+    }
+
+    @Test
+    void shouldCountChangeCommittedDuringRebuildOnce() {
+        // ARRANGE
+        ticketStatsService.init();
+        TicketCountKeyDTO created = new TicketCountKeyDTO(Status.ESCALATED, Priority.HIGH, Classification.OTHERS, 9L);
+        // The change commits while the grouped query runs, which does not see it
+        given(ticketRepository.countByDimensions()).willAnswer(invocation -> {
+            ticketStatsService.record(null, created);
+            return List.of(new TicketCountDTO(Status.OPEN, Priority.LOW, Classification.PROBLEM, null, 4));
+        });
+
+        // ACT
+        ticketStatsService.rebuild();
+        TicketStatsDTO stats = ticketStatsService.getStats();
+
+        // ASSERT
+        assertEquals(5, stats.getTotal());
+        assertEquals(1L, stats.getByStatus().get(Status.ESCALATED));
+        assertEquals(1L, stats.getByOwner().get(9L).get(Status.ESCALATED));
+    }
+}
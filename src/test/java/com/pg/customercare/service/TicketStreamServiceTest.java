@@ -0,0 +1,214 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pg.customercare.dto.TicketCountKeyDTO;
+import com.pg.customercare.exception.impl.ServiceUnavailableException;
+import com.pg.customercare.model.ENUM.Classification;
+import com.pg.customercare.model.ENUM.Priority;
+import com.pg.customercare.model.ENUM.Status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TicketStreamServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TicketStreamService ticketStreamService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ticketStreamService = new TicketStreamService(new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(ticketStreamService, "maxSubscribers", 10);
+        ReflectionTestUtils.setField(ticketStreamService, "bufferSize", 4);
+        ReflectionTestUtils.setField(ticketStreamService, "reconnectDelay", Duration.ofSeconds(3));
+        // Buffers are drained on the calling thread
+        ReflectionTestUtils.setField(ticketStreamService, "sender", (Executor) Runnable::run);
+        ticketStreamService.init();
+    }
+
+    @Test
+    void shouldPushChangesToEverySubscriber() {
+        // ARRANGE
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        ticketStreamService.register(first);
+        ticketStreamService.register(second);
+
+        // ACT
+        ticketStreamService.publish(1L, key(Status.OPEN, 7L), key(Status.CLOSED, 7L));
+
+        // ASSERT
+        for (RecordingEmitter emitter : List.of(first, second)) {
+            assertEquals(2, emitter.sent.size());
+            assertTrue(emitter.sent.get(0).contains(":connected"));
+            assertTrue(emitter.sent.get(1).contains("event:STATUS_CHANGED"));
+            assertTrue(emitter.sent.get(1).contains("\"ticketId\":1"));
+            assertTrue(emitter.sent.get(1).contains("\"previousStatus\":\"OPEN\""));
+        }
+        assertEquals(2.0, meterRegistry.get("tickets.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void shouldNameEventsAfterTheChange() {
+        // ARRANGE
+        RecordingEmitter emitter = new RecordingEmitter();
+        ticketStreamService.register(emitter);
+
+        // ACT
+        ticketStreamService.publish(1L, null, key(Status.OPEN, null));
+        ticketStreamService.publish(1L, key(Status.OPEN, null), key(Status.OPEN, 7L));
+        ticketStreamService.publish(1L, key(Status.OPEN, 7L), key(Status.OPEN, 7L));
+        ticketStreamService.publish(1L, key(Status.OPEN, 7L), null);
+
+        // ASSERT
+        assertTrue(emitter.sent.get(1).contains("event:CREATED"));
+        assertTrue(emitter.sent.get(2).contains("event:REASSIGNED"));
+        assertTrue(emitter.sent.get(3).contains("event:UPDATED"));
+        assertTrue(emitter.sent.get(4).contains("event:DELETED"));
+    }
+
+    @Test
+    void shouldSendBulkUpdateAsOneMessage() {
+        // ARRANGE
+        RecordingEmitter emitter = new RecordingEmitter();
+        ticketStreamService.register(emitter);
+
+        // ACT
+        ticketStreamService.publishBulk(List.of(1L, 2L, 3L, 4L, 5L, 6L), Status.CLOSED, null);
+
+        // ASSERT
+        assertEquals(1, ticketStreamService.subscriberCount());
+        assertEquals(2, emitter.sent.size());
+        assertTrue(emitter.sent.get(1).contains("event:BULK_UPDATED"));
+        assertTrue(emitter.sent.get(1).contains("\"ticketIds\":[1,2,3,4,5,6]"));
+    }
+
+    @Test
+    void shouldDropSubscriberThatFallsBehind() {
+        // ARRANGE
+        List<Runnable> pendingWrites = new ArrayList<>();
+        ReflectionTestUtils.setField(ticketStreamService, "sender", (Executor) pendingWrites::add);
+        RecordingEmitter emitter = new RecordingEmitter();
+        ticketStreamService.register(emitter);
+
+        // ACT
+        for (long id = 1; id <= 4; id++) {
+            ticketStreamService.publish(id, null, key(Status.OPEN, null));
+        }
+        pendingWrites.forEach(Runnable::run);
+
+        // ASSERT
+        assertEquals(0, ticketStreamService.subscriberCount());
+        assertTrue(emitter.completed);
+        assertTrue(emitter.sent.isEmpty());
+        assertEquals(1.0, meterRegistry.get("tickets.stream.dropped").tag("reason", "slow_consumer").counter().count());
+    }
+
+    @Test
+    void shouldDropSubscriberThatDisconnected() {
+        // ARRANGE
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitter.disconnected = true;
+
+        // ACT
+        ticketStreamService.register(emitter);
+        ticketStreamService.heartbeat();
+
+        // ASSERT
+        assertEquals(0, ticketStreamService.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("tickets.stream.dropped").tag("reason", "disconnected").counter().count());
+    }
+
+    @Test
+    void shouldSendHeartbeatToIdleSubscribers() {
+        // ARRANGE
+        RecordingEmitter emitter = new RecordingEmitter();
+        ticketStreamService.register(emitter);
+
+        // ACT
+        ticketStreamService.heartbeat();
+
+        // ASSERT
+        assertEquals(2, emitter.sent.size());
+        assertTrue(emitter.sent.get(1).contains(":heartbeat"));
+    }
+
+    @Test
+    void shouldCompleteOpenStreamsOnClose() {
+        // ARRANGE
+        ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+        ReflectionTestUtils.setField(ticketStreamService, "sender", sender);
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        ticketStreamService.register(first);
+        ticketStreamService.register(second);
+
+        // ACT
+        ticketStreamService.close();
+
+        // ASSERT
+        assertTrue(first.completed);
+        assertTrue(second.completed);
+        assertEquals(0, ticketStreamService.subscriberCount());
+        assertTrue(sender.isShutdown());
+    }
+
+    @Test
+    void shouldRejectSubscribersOverTheLimit() {
+        // ARRANGE
+        ReflectionTestUtils.setField(ticketStreamService, "maxSubscribers", 1);
+        ticketStreamService.register(new RecordingEmitter());
+
+        // ACT & ASSERT
+        assertThrows(ServiceUnavailableException.class, () -> ticketStreamService.register(new RecordingEmitter()));
+    }
+
+    // auxiliary methods
+    private TicketCountKeyDTO key(Status status, Long ticketOwnerId) {
+        return new TicketCountKeyDTO(status, Priority.MEDIUM, Classification.PROBLEM, ticketOwnerId);
+    }
+
+    // Records each message as the text written to the stream
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private boolean disconnected;
+        private boolean completed;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            sent.add(items.stream().map(item -> item.getData().toString()).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TotalCountCacheTest {
+
+    private TotalCountCache totalCountCache;
+    private AtomicLong countQueries;
+
+    @BeforeEach
+    void setUp() {
+        totalCountCache = new TotalCountCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(totalCountCache, "maxSize", 100L);
+        ReflectionTestUtils.setField(totalCountCache, "ttl", Duration.ofMinutes(1));
+        totalCountCache.init();
+        countQueries = new AtomicLong();
+    }
+
+    @Test
+    void shouldCountEachQueryOnce() {
+        // ACT
+        long first = totalCountCache.get(TotalCountCache.ROLES, "name:adm%", this::count);
+        long second = totalCountCache.get(TotalCountCache.ROLES, "name:adm%", this::count);
+        totalCountCache.get(TotalCountCache.ROLES, "name:sup%", this::count);
+
+        // ASSERT
+        assertEquals(42L, first);
+        assertEquals(42L, second);
+        assertEquals(2, countQueries.get());
+    }
+
+    @Test
+    void shouldOnlyInvalidateGivenRegion() {
+        // ARRANGE
+        totalCountCache.get(TotalCountCache.ROLES, "all", this::count);
+        totalCountCache.get(TotalCountCache.POSITION_SALARIES, "all", this::count);
+
+        // ACT
+        totalCountCache.invalidate(TotalCountCache.ROLES);
+        totalCountCache.get(TotalCountCache.ROLES, "all", this::count);
+        totalCountCache.get(TotalCountCache.POSITION_SALARIES, "all", this::count);
+
+        // ASSERT
+        assertEquals(3, countQueries.get());
+    }
+
+    // auxiliary methods
+    private long count() {
+        countQueries.incrementAndGet();
+        return 42L;
+    }
+}
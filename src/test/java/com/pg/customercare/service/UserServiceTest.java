@@ -0,0 +1,115 @@
+package com.pg.customercare.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.pg.customercare.model.Role;
+import com.pg.customercare.model.User;
+import com.pg.customercare.repository.UserRepository;
+import com.pg.customercare.security.RoleVersionRegistry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class UserServiceTest {
+
+    private static final String OLD_EMAIL = "john@customercare.com";
+    private static final String NEW_EMAIL = "john.doe@customercare.com";
+
+    @InjectMocks
+    private UserService userService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleVersionRegistry roleVersionRegistry;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private User stored;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userService, "userCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(userService, "userCacheTtl", Duration.ofMinutes(5));
+        userService.init();
+
+        Role role = new Role();
+        role.setId(1L);
+        role.setName("ROLE_USER");
+        stored = user(OLD_EMAIL, "hash", role);
+        given(userRepository.findByEmail(OLD_EMAIL)).willReturn(stored);
+        given(passwordEncoder.encode("secret")).willReturn("encoded");
+    }
+
+    @Test
+    void shouldCachePrincipalBetweenLogins() {
+        // ACT
+        userService.loadUserByUsername(OLD_EMAIL);
+        userService.loadUserByUsername(OLD_EMAIL);
+
+        // ASSERT
+        then(userRepository).should(times(1)).findByEmail(OLD_EMAIL);
+    }
+
+    @Test
+    void shouldEvictPreviousEmailAgainOnceSaveCommits() {
+        // ARRANGE
+        userService.loadUserByUsername(OLD_EMAIL);
+        User changed = user(NEW_EMAIL, "secret", stored.getRole());
+        given(userRepository.findById(1L)).willReturn(Optional.of(user(OLD_EMAIL, "hash", stored.getRole())));
+        given(userRepository.save(changed)).willReturn(changed);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // ACT
+        try {
+            userService.saveUser(changed, passwordEncoder);
+            // A login racing the transaction still reads the old row and caches it again
+            userService.loadUserByUsername(OLD_EMAIL);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        userService.loadUserByUsername(OLD_EMAIL);
+
+        // ASSERT
+        assertEquals("encoded", changed.getPassword());
+        then(userRepository).should(times(3)).findByEmail(OLD_EMAIL);
+        then(roleVersionRegistry).should(times(2)).invalidateUser(OLD_EMAIL);
+        then(roleVersionRegistry).should(times(2)).invalidateUser(NEW_EMAIL);
+    }
+
+    // auxiliary methods
+    private User user(String email, String password, Role role) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(email);
+        user.setPassword(password);
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,88 @@
+package com.pg.customercare.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class CacheUtilTest {
+
+    private Cache<Long, String> cache;
+    private AtomicLong generation;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = Caffeine.newBuilder().build();
+        generation = new AtomicLong();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void shouldLoadOnceAndServeFromCache() {
+        // ACT
+        String first = CacheUtil.getOrLoad(cache, generation, 1L, this::load);
+        String second = CacheUtil.getOrLoad(cache, generation, 1L, this::load);
+
+        // ASSERT
+        assertEquals("value-1", first);
+        assertEquals("value-1", second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldNotCacheMissingValues() {
+        // ACT
+        String first = CacheUtil.getOrLoad(cache, generation, 1L, key -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        CacheUtil.getOrLoad(cache, generation, 1L, this::load);
+
+        // ASSERT
+        assertNull(first);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void shouldDropValueLoadedWhileKeyWasInvalidated() {
+        // ACT
+        String loaded = CacheUtil.getOrLoad(cache, generation, 1L, key -> {
+            // An after-commit eviction running while the old row is being read
+            CacheUtil.invalidate(generation, () -> cache.invalidate(key));
+            return "stale";
+        });
+
+        // ASSERT
+        assertEquals("stale", loaded);
+        assertNull(cache.getIfPresent(1L));
+        assertEquals("value-1", CacheUtil.getOrLoad(cache, generation, 1L, this::load));
+        assertEquals("value-1", cache.getIfPresent(1L));
+    }
+
+    @Test
+    void shouldKeepValueLoadedAfterInvalidation() {
+        // ARRANGE
+        CacheUtil.getOrLoad(cache, generation, 1L, this::load);
+
+        // ACT
+        CacheUtil.invalidate(generation, () -> cache.invalidate(1L));
+        CacheUtil.getOrLoad(cache, generation, 1L, this::load);
+
+        // ASSERT
+        assertEquals("value-1", cache.getIfPresent(1L));
+        assertEquals(2, loads.get());
+    }
+
+    // auxiliary methods
+    private String load(Long key) {
+        loads.incrementAndGet();
+        return "value-" + key;
+    }
+}
@@ -0,0 +1,186 @@
+package com.pg.customercare.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.pg.customercare.dto.FileDownloadDTO;
+
+public class FileDownloadUtilTest {
+
+    private static final String ETAG = "abc123";
+
+    @TempDir
+    Path folder;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/tickets/1/files/2");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void shouldSendWholeFileWithValidators() throws Exception {
+        // ARRANGE
+        FileDownloadDTO file = file("report.txt", "0123456789");
+
+        // ACT
+        FileDownloadUtil.write(file, request, response);
+
+        // ASSERT
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("\"" + ETAG + "\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("text/plain", response.getContentType());
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).startsWith("inline"));
+    }
+
+    @Test
+    void shouldSendRequestedRange() throws Exception {
+        // ARRANGE
+        FileDownloadDTO file = file("report.txt", "0123456789");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+
+        // ACT
+        FileDownloadUtil.write(file, request, response);
+
+        // ASSERT
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals(4, response.getContentLengthLong());
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void shouldSendSuffixRangeAndIgnoreMultipleRanges() throws Exception {
+        // ARRANGE
+        FileDownloadDTO file = file("report.txt", "0123456789");
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        MockHttpServletRequest multiple = new MockHttpServletRequest("GET", "/");
+        multiple.addHeader(HttpHeaders.RANGE, "bytes=0-1,4-5");
+        MockHttpServletResponse wholeFile = new MockHttpServletResponse();
+
+        // ACT
+        FileDownloadUtil.write(file, request, response);
+        FileDownloadUtil.write(file, multiple, wholeFile);
+
+        // ASSERT
+        assertEquals("789", response.getContentAsString());
+        assertEquals(200, wholeFile.getStatus());
+        assertEquals("0123456789", wholeFile.getContentAsString());
+    }
+
+    @Test
+    void shouldSendWholeFileWhenIfRangeDoesNotMatch() throws Exception {
+        // ARRANGE
+        FileDownloadDTO file = file("report.txt", "0123456789");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"outdated\"");
+
+        // ACT
+        FileDownloadUtil.write(file, request, response);
+
+        // ASSERT
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void shouldSendRangeWhenIfRangeMatches() throws Exception {
+        // ARRANGE
+        FileDownloadDTO file = file("report.txt", "0123456789");
+        request.addHeader(HttpHeaders.RANGE, "bytes=8-");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"" + ETAG + "\"");
+
+        // ACT
+        FileDownloadUtil.write(file, request, response);
+
+        // ASSERT
+        assertEquals(206, response.getStatus());
+        assertEquals("89", response.getContentAsString());
+    }
+
+    @Test
+    void shouldRejectRangeBeyondEndOfFile() throws Exception {
+        // ARRANGE
+        FileDownloadDTO file = file("report.txt", "0123456789");
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-20");
+
+        // ACT
+        FileDownloadUtil.write(file, request, response);
+
+        // ASSERT
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWhenEtagMatches() throws Exception {
+        // ARRANGE
+        FileDownloadDTO file = file("report.txt", "0123456789");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/\"" + ETAG + "\"");
+
+        // ACT
+        FileDownloadUtil.write(file, request, response);
+
+        // ASSERT
+        assertEquals(304, response.getStatus());
+        assertEquals("\"" + ETAG + "\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void shouldHandLargeFileToSendfileWhenConnectorSupportsIt() throws Exception {
+        // ARRANGE
+        FileDownloadDTO file = file("video.bin", "x".repeat(64 * 1024));
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=1024-");
+
+        // ACT
+        FileDownloadUtil.write(file, request, response);
+
+        // ASSERT
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(file.getPath().toAbsolutePath().toString(),
+                request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(1024L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(64 * 1024L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(63 * 1024, response.getContentLengthLong());
+    }
+
+    @Test
+    void shouldWriteSmallFileDirectlyEvenWithSendfile() throws Exception {
+        // ARRANGE
+        FileDownloadDTO file = file("report.txt", "0123456789");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        // ACT
+        FileDownloadUtil.write(file, request, response);
+
+        // ASSERT
+        assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    // auxiliary methods
+    private FileDownloadDTO file(String fileName, String content) throws Exception {
+        Path path = Files.writeString(folder.resolve(fileName), content);
+        return new FileDownloadDTO(fileName, path, Files.size(path), ETAG);
+    }
+}
@@ -0,0 +1,98 @@
+package com.pg.customercare.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.pg.customercare.exception.impl.ValidationException;
+
+public class FileStreamUtilTest {
+
+    @TempDir
+    Path folder;
+
+    private BlockingQueue<ByteBuffer> buffers;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        buffers = (BlockingQueue<ByteBuffer>) ReflectionTestUtils.getField(FileStreamUtil.class, "BUFFERS");
+    }
+
+    @Test
+    void shouldCopyContentAndReuseTheBuffer() throws Exception {
+        // ARRANGE
+        byte[] content = new byte[200 * 1024];
+        content[content.length - 1] = 7;
+        FileStreamUtil.copyToFile(new ByteArrayInputStream(new byte[] { 1 }), folder.resolve("warm-up"), 1024);
+        int pooled = buffers.size();
+
+        // ACT
+        long written = FileStreamUtil.copyToFile(new ByteArrayInputStream(content), folder.resolve("copy"), 1024 * 1024);
+
+        // ASSERT
+        assertEquals(content.length, written);
+        assertArrayEquals(content, Files.readAllBytes(folder.resolve("copy")));
+        assertEquals(pooled, buffers.size());
+    }
+
+    @Test
+    void shouldReturnBufferAndRemovePartialFileWhenLimitIsExceeded() throws Exception {
+        // ARRANGE
+        FileStreamUtil.copyToFile(new ByteArrayInputStream(new byte[] { 1 }), folder.resolve("warm-up"), 1024);
+        int pooled = buffers.size();
+        Path target = folder.resolve("too-large");
+
+        // ACT & ASSERT
+        assertThrows(ValidationException.class,
+                () -> FileStreamUtil.copyToFile(new ByteArrayInputStream(new byte[4096]), target, 1024));
+        assertFalse(Files.exists(target));
+        assertEquals(pooled, buffers.size());
+    }
+
+    @Test
+    void shouldServeMoreConcurrentCopiesThanPooledBuffers() throws Exception {
+        // ARRANGE
+        int copies = 100;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Long>> results = new ArrayList<>();
+
+        // ACT
+        try {
+            for (int i = 0; i < copies; i++) {
+                Path target = folder.resolve("copy-" + i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return FileStreamUtil.copyToFile(new ByteArrayInputStream(new byte[100 * 1024]), target,
+                            1024 * 1024);
+                }));
+            }
+            start.countDown();
+
+            // ASSERT
+            for (Future<Long> result : results) {
+                assertEquals(100 * 1024L, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(buffers.size() <= 64);
+        buffers.forEach(buffer -> assertEquals(0, buffer.position()));
+    }
+}
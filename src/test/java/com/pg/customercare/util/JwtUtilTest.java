@@ -0,0 +1,101 @@
+package com.pg.customercare.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+
+public class JwtUtilTest {
+
+    private static final String EMAIL = "agent@customercare.com";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", "customercareproject1234567890securekey");
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 100L);
+        jwtUtil.init();
+    }
+
+    @Test
+    void shouldReturnCachedClaimsWithoutParsingAgain() {
+        // ARRANGE
+        String token = jwtUtil.generateToken(EMAIL);
+        Claims first = jwtUtil.extractClaims(token);
+        JwtParser parser = mock(JwtParser.class);
+        ReflectionTestUtils.setField(jwtUtil, "jwtParser", parser);
+
+        // ACT
+        Claims second = jwtUtil.extractClaims(token);
+
+        // ASSERT
+        assertSame(first, second);
+        assertEquals(EMAIL, second.getSubject());
+        verifyNoInteractions(parser);
+    }
+
+    @Test
+    void shouldRejectExpiredTokenEvenWhenItsClaimsAreCached() throws Exception {
+        // ARRANGE
+        // A cache that never expires, as if the entry outlived the token
+        ReflectionTestUtils.setField(jwtUtil, "claimsCache", Caffeine.newBuilder().build());
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 1_000L);
+        String token = jwtUtil.generateToken(EMAIL);
+        assertTrue(jwtUtil.validateToken(token, EMAIL));
+
+        // ACT
+        Thread.sleep(1_100);
+        boolean valid = jwtUtil.validateToken(token, EMAIL);
+
+        // ASSERT
+        assertFalse(valid);
+    }
+
+    @Test
+    void shouldNeverServeTamperedTokenFromTheCache() {
+        // ARRANGE
+        String token = jwtUtil.generateToken(EMAIL);
+        jwtUtil.extractClaims(token);
+        String[] parts = token.split("\\.");
+        String otherPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                        .replace(EMAIL, "admin@customercare.com")
+                        .getBytes(StandardCharsets.UTF_8));
+        String forgedPayload = parts[0] + "." + otherPayload + "." + parts[2];
+        String forgedSignature = parts[0] + "." + parts[1] + "." + flipLastChar(parts[2]);
+
+        // ACT & ASSERT
+        assertThrows(JwtException.class, () -> jwtUtil.extractClaims(forgedPayload));
+        assertThrows(JwtException.class, () -> jwtUtil.extractClaims(forgedSignature));
+        assertEquals(1, claimsCache().estimatedSize());
+        assertEquals(EMAIL, jwtUtil.extractClaims(token).getSubject());
+    }
+
+    // auxiliary methods
+    @SuppressWarnings("unchecked")
+    private Cache<String, Claims> claimsCache() {
+        return (Cache<String, Claims>) ReflectionTestUtils.getField(jwtUtil, "claimsCache");
+    }
+
+    // Changes the first bits of the signature's last character, which base64url decoding does not ignore
+    private String flipLastChar(String signature) {
+        char last = signature.charAt(signature.length() - 1);
+        char replacement = last == 'A' ? 'Q' : 'A';
+        return signature.substring(0, signature.length() - 1) + replacement;
+    }
+}